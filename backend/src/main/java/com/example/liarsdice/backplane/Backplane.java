@@ -0,0 +1,17 @@
+package com.example.liarsdice.backplane;
+
+/**
+ * Carries room and game broadcasts to every backend node, so a session sees them
+ * whichever node it is connected to. Each node fans a message out to its own sessions;
+ * nothing is sent per remote session.
+ */
+public interface Backplane {
+
+    /**
+     * Delivers {@code message} to this node's listeners before returning, and to other
+     * nodes' listeners shortly after.
+     */
+    void publish(BackplaneMessage message);
+
+    void addListener(BackplaneListener listener);
+}
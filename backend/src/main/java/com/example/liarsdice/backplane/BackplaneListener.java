@@ -0,0 +1,10 @@
+package com.example.liarsdice.backplane;
+
+/**
+ * Receives every message published on the {@link Backplane}, by this node or any other,
+ * in the order each publishing node sent them.
+ */
+public interface BackplaneListener {
+
+    void onMessage(BackplaneMessage message);
+}
@@ -0,0 +1,15 @@
+package com.example.liarsdice.backplane;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Something every node must pass on to its own WebSocket sessions.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = RoomBroadcast.class, name = "room"),
+        @JsonSubTypes.Type(value = GameUpdate.class, name = "game")
+})
+public sealed interface BackplaneMessage permits RoomBroadcast, GameUpdate {
+}
@@ -0,0 +1,34 @@
+package com.example.liarsdice.backplane;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameDelta;
+import com.example.liarsdice.engine.GameTable;
+
+/**
+ * A change to a game's table as its owning node saw it. Besides the delta it carries
+ * the public state, so a node that missed earlier updates, or holds no table for the
+ * game, can still bring any of its sessions up to date. It holds nothing private:
+ * every node, and anyone else listening on the channel, sees it. Seated players'
+ * hands are fetched from the owner by the nodes serving them.
+ *
+ * @param delta what changed, or null when the table was just opened
+ * @param state the table as a spectator sees it
+ */
+public record GameUpdate(Long gameId, GameDelta delta, GameStateResponse state) implements BackplaneMessage {
+
+    public static GameUpdate of(GameTable table, GameDelta delta) {
+        return new GameUpdate(table.getGameId(), delta, table.toResponse(null));
+    }
+
+    public long version() {
+        return state.getVersion();
+    }
+
+    public int roundNumber() {
+        return state.getRoundNumber();
+    }
+
+    public boolean finished() {
+        return "FINISHED".equals(state.getStatus());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.liarsdice.backplane;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The backplane of a single node: messages go straight to this JVM's listeners on the
+ * publishing thread, and are never serialized.
+ */
+@Component
+@ConditionalOnProperty(name = "liarsdice.backplane.type", havingValue = "local", matchIfMissing = true)
+public class LocalBackplane implements Backplane {
+
+    private final List<BackplaneListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(BackplaneMessage message) {
+        for (BackplaneListener listener : listeners) {
+            listener.onMessage(message);
+        }
+    }
+
+    @Override
+    public void addListener(BackplaneListener listener) {
+        listeners.add(listener);
+    }
+}
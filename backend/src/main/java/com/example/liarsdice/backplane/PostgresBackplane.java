@@ -0,0 +1,214 @@
+package com.example.liarsdice.backplane;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A backplane over Postgres LISTEN/NOTIFY, for several nodes sharing one database.
+ * Each message is serialized once and sent with {@code pg_notify}; every node listening
+ * on the channel decodes it once and hands it to its listeners, which fan it out to
+ * their own sessions.
+ * <p>
+ * Both ends use connections of their own rather than the pool's: the listening one is
+ * held for good, and publishing must not wait behind requests for a pooled connection.
+ * Notifications are sent one at a time in the order they were published. One that
+ * can't be sent is lost rather than retried; a later {@link GameUpdate} carries the
+ * whole state, so nodes catch up on the next move.
+ */
+@Component
+@ConditionalOnProperty(name = "liarsdice.backplane.type", havingValue = "postgres")
+public class PostgresBackplane implements Backplane {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresBackplane.class);
+
+    // Postgres rejects notification payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final int pollMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final List<BackplaneListener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "backplane-notify"));
+    private Connection notifyConnection;
+    private Thread receiver;
+    private volatile boolean running;
+
+    public PostgresBackplane(ObjectMapper objectMapper,
+                             @Value("${spring.datasource.url}") String url,
+                             @Value("${spring.datasource.username}") String username,
+                             @Value("${spring.datasource.password}") String password,
+                             @Value("${liarsdice.backplane.channel:liarsdice_backplane}") String channel,
+                             @Value("${liarsdice.backplane.poll-ms:500}") int pollMillis) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Backplane channel must be a lower-case identifier: " + channel);
+        }
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollMillis = pollMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        receiver = new Thread(this::receiveLoop, "backplane-listen");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(BackplaneMessage message) {
+        for (BackplaneListener listener : listeners) {
+            listener.onMessage(message);
+        }
+        if (running) {
+            publisher.execute(() -> send(message));
+        }
+    }
+
+    @Override
+    public void addListener(BackplaneListener listener) {
+        listeners.add(listener);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        publisher.shutdown();
+        publisher.awaitTermination(5, TimeUnit.SECONDS);
+        closeQuietly(notifyConnection);
+        if (receiver != null) {
+            receiver.join(pollMillis + RECONNECT_DELAY_MILLIS);
+        }
+    }
+
+    // Only ever runs on the publisher thread
+    private void send(BackplaneMessage message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Envelope(nodeId, message));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not encode {} for the backplane: {}", message.getClass().getSimpleName(), e.getMessage());
+            return;
+        }
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            logger.warn("Not publishing {} of {} characters, too large to notify",
+                    message.getClass().getSimpleName(), payload.length());
+            return;
+        }
+        try {
+            if (notifyConnection == null || notifyConnection.isClosed()) {
+                notifyConnection = DriverManager.getConnection(url, username, password);
+            }
+            try (PreparedStatement statement = notifyConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        } catch (SQLException e) {
+            logger.error("Could not publish on the backplane: {}", e.getMessage());
+            closeQuietly(notifyConnection);
+            notifyConnection = null;
+        }
+    }
+
+    private void receiveLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection listening = connection.unwrap(PGConnection.class);
+                logger.info("Node {} listening on backplane channel {}", nodeId, channel);
+                while (running) {
+                    PGNotification[] notifications = listening.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // Whatever was published meanwhile is missed; the next game update repairs it
+                logger.error("Backplane connection lost, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(payload, Envelope.class);
+        } catch (JsonProcessingException e) {
+            logger.error("Dropping unreadable backplane message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(envelope.node())) {
+            // Already delivered here when it was published
+            return;
+        }
+        for (BackplaneListener listener : listeners) {
+            try {
+                listener.onMessage(envelope.message());
+            } catch (RuntimeException e) {
+                logger.error("Backplane listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Closing anyway
+            }
+        }
+    }
+
+    record Envelope(String node, BackplaneMessage message) {}
+}
@@ -0,0 +1,10 @@
+package com.example.liarsdice.backplane;
+
+/**
+ * A frame every session on {@code channel} gets as is, encoded once by the node that
+ * published it. {@code excludeSessionId} is the session that caused it, if it should
+ * not hear about itself.
+ */
+public record RoomBroadcast(String channel, String frame, String excludeSessionId, boolean stateUpdate)
+        implements BackplaneMessage {
+}
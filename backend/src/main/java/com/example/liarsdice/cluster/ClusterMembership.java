@@ -0,0 +1,154 @@
+package com.example.liarsdice.cluster;
+
+import com.example.liarsdice.model.ClusterNode;
+import com.example.liarsdice.repository.ClusterNodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Which backend nodes are up, and the {@link HashRing} of game ownership built from
+ * them. Each node heartbeats its row in {@code cluster_nodes}; a node whose heartbeat
+ * is older than {@code node-ttl-ms} has left, and its row is removed by whichever node
+ * notices first. Listeners hear whenever the set of nodes changes.
+ * <p>
+ * With {@code liarsdice.cluster.enabled} off the ring holds only this node, which owns
+ * every game, and the table is never touched.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterNodeRepository repository;
+    private final boolean enabled;
+    private final String host;
+    private final double ttlSeconds;
+    private final int virtualNodes;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile String url;
+    private volatile Map<String, String> members = Map.of();
+    private volatile HashRing ring;
+    private volatile boolean leaving;
+
+    public ClusterMembership(ClusterNodeRepository repository,
+                             @Value("${liarsdice.cluster.enabled:false}") boolean enabled,
+                             @Value("${liarsdice.cluster.host:localhost}") String host,
+                             @Value("${liarsdice.cluster.node-ttl-ms:5000}") long ttlMillis,
+                             @Value("${liarsdice.cluster.virtual-nodes:128}") int virtualNodes) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.host = host;
+        this.ttlSeconds = ttlMillis / 1000.0;
+        this.virtualNodes = virtualNodes;
+        this.ring = new HashRing(Set.of(nodeId), virtualNodes);
+    }
+
+    // Joins once the port is known, which with server.port=0 is only after startup
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        String contextPath = event.getApplicationContext().getEnvironment()
+                .getProperty("server.servlet.context-path", "");
+        url = "http://" + host + ":" + event.getWebServer().getPort() + contextPath;
+        members = Map.of(nodeId, url);
+        if (enabled) {
+            logger.info("Node {} joining the cluster at {}", nodeId, url);
+            heartbeat();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${liarsdice.cluster.heartbeat-ms:1000}")
+    public void heartbeat() {
+        if (!enabled || url == null || leaving) {
+            return;
+        }
+        try {
+            repository.heartbeat(nodeId, url);
+            repository.deleteExpired(ttlSeconds);
+            Map<String, String> live = new HashMap<>();
+            for (ClusterNode node : repository.findLive(ttlSeconds)) {
+                live.put(node.getNodeId(), node.getUrl());
+            }
+            update(live);
+        } catch (RuntimeException e) {
+            // Keep the last known ring; the other nodes will drop this one if it lasts
+            logger.error("Cluster heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops owning games, without leaving yet: other nodes keep sending this one requests,
+     * which it passes on to the nodes that will own the games once it is gone.
+     */
+    public void startLeaving() {
+        leaving = true;
+        ring = ring.without(nodeId);
+        listeners.forEach(Runnable::run);
+    }
+
+    public void leave() {
+        if (enabled) {
+            repository.deleteNode(nodeId);
+            logger.info("Node {} left the cluster", nodeId);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * The node owning {@code gameId}; this one if no other is known.
+     */
+    public String ownerOf(Long gameId) {
+        String owner = ring.ownerOf(gameId);
+        return owner != null ? owner : nodeId;
+    }
+
+    /**
+     * The node that would own {@code gameId} without this one, and so may still hold it
+     * from before this node joined; null if there is none.
+     */
+    public String previousOwnerOf(Long gameId) {
+        return leaving ? null : ring.without(nodeId).ownerOf(gameId);
+    }
+
+    public boolean isMember(String node) {
+        return members.containsKey(node);
+    }
+
+    public String urlOf(String node) {
+        return members.get(node);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    private void update(Map<String, String> live) {
+        if (live.equals(members)) {
+            return;
+        }
+        members = Map.copyOf(live);
+        ring = new HashRing(live.keySet(), virtualNodes);
+        logger.info("Cluster membership changed: {} nodes", live.size());
+        listeners.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.liarsdice.cluster;
+
+import com.example.liarsdice.backplane.GameUpdate;
+import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.response.ApiResponse;
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.SeatHands;
+import com.example.liarsdice.engine.TableHandoff;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends each game's requests to the node that owns it. REST calls for another node's
+ * game are forwarded as they came, with the caller's token; moves, and the state and
+ * hands the game socket needs, go to the owner's {@code /internal} endpoints, which take
+ * the cluster secret instead.
+ * <p>
+ * Ownership is handed over through the database. A node giving up a game writes out
+ * everything the game journaled and drops its table ({@link GameEngine#release}); the
+ * new owner loads it from the event log the first time it needs it, after asking the
+ * previous owner to do that release in case it hasn't noticed the change yet. Until
+ * it has, the previous owner forwards the game to whoever asked for it.
+ */
+@Component
+public class GameRouter implements TableHandoff, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameRouter.class);
+
+    // Marks a request another node forwarded, so it is served rather than bounced again
+    public static final String FORWARDED_HEADER = "X-Liarsdice-Forwarded";
+    public static final String SECRET_HEADER = "X-Liarsdice-Cluster-Secret";
+
+    private final ClusterMembership membership;
+    private final GameEngine gameEngine;
+    private final ObjectMapper objectMapper;
+    private final byte[] secret;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    // Games released to a node this one doesn't yet see owning them
+    private final Map<Long, String> handedOff = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public GameRouter(ClusterMembership membership, GameEngine gameEngine, ObjectMapper objectMapper,
+                      @Value("${liarsdice.cluster.enabled:false}") boolean enabled,
+                      @Value("${liarsdice.cluster.secret:}") String secret,
+                      @Value("${liarsdice.cluster.forward-timeout-ms:5000}") long timeoutMillis) {
+        if (enabled && secret.isEmpty()) {
+            throw new IllegalStateException("liarsdice.cluster.secret must be set when the cluster is enabled");
+        }
+        this.membership = membership;
+        this.gameEngine = gameEngine;
+        this.objectMapper = objectMapper;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        membership.addListener(this::rebalance);
+        gameEngine.setHandoff(this);
+    }
+
+    public boolean isLocal(Long gameId) {
+        return membership.getNodeId().equals(ownerOf(gameId));
+    }
+
+    /**
+     * Whether a REST request for {@code gameId} belongs on another node. Only a request
+     * carrying the cluster secret counts as forwarded; anyone can set the forwarded header.
+     */
+    public boolean shouldForward(Long gameId, HttpServletRequest request) {
+        return !isForwarded(request) && !isLocal(gameId);
+    }
+
+    private boolean isForwarded(HttpServletRequest request) {
+        return request.getHeader(FORWARDED_HEADER) != null && isAuthorized(request.getHeader(SECRET_HEADER));
+    }
+
+    /**
+     * Replays a request on the node owning {@code gameId} and returns its response.
+     *
+     * @param body the request body, re-encoded as JSON, or null if there is none
+     */
+    public ResponseEntity<?> forward(Long gameId, HttpServletRequest request, Object body) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String query = request.getQueryString();
+        try {
+            HttpRequest.Builder forwarded = HttpRequest.newBuilder(ownerUri(gameId, path, query))
+                    .timeout(timeout)
+                    .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8))
+                    .header(FORWARDED_HEADER, membership.getNodeId());
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorization != null) {
+                forwarded.header(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            if (body != null) {
+                forwarded.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                forwarded.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+            }
+            HttpResponse<byte[]> response = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+            return ResponseEntity.status(response.statusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response.body());
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(ApiResponse.error("Failed to reach the node owning game " + gameId + ": " + e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Interrupted while forwarding to the owner of game " + gameId));
+        }
+    }
+
+    /**
+     * Makes a move on the node owning the game, for a player whose socket is on this one.
+     */
+    public GameStateResponse forwardMove(Long gameId, GameMoveRequest request, String username) {
+        JsonNode data = internal(gameId, "POST", "/internal/games/" + gameId + "/move?username="
+                + URLEncoder.encode(username, StandardCharsets.UTF_8), request);
+        return objectMapper.convertValue(data, GameStateResponse.class);
+    }
+
+    /**
+     * The current state of a game owned by another node, to start this node's view of it.
+     *
+     * @return empty if the game is not in progress
+     */
+    public Optional<GameUpdate> fetchUpdate(Long gameId) {
+        JsonNode data = internal(gameId, "GET", "/internal/games/" + gameId + "/update", null);
+        return data.isNull() || data.isMissingNode()
+                ? Optional.empty()
+                : Optional.of(objectMapper.convertValue(data, GameUpdate.class));
+    }
+
+    /**
+     * The current round's hands of those of {@code usernames} seated in a game owned by
+     * another node, for sessions on this one to see their own dice.
+     *
+     * @return empty if the game is not in progress
+     */
+    public Optional<SeatHands> fetchHands(Long gameId, Collection<String> usernames) {
+        StringBuilder path = new StringBuilder("/internal/games/").append(gameId).append("/hands");
+        char separator = '?';
+        for (String username : usernames) {
+            path.append(separator).append("usernames=").append(URLEncoder.encode(username, StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        JsonNode data = internal(gameId, "GET", path.toString(), null);
+        return data.isNull() || data.isMissingNode()
+                ? Optional.empty()
+                : Optional.of(objectMapper.convertValue(data, SeatHands.class));
+    }
+
+    public boolean isAuthorized(String presented) {
+        return secret.length > 0 && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gives up {@code gameId} to {@code node}, which is about to load it.
+     *
+     * @return false if the game's writes could not be flushed first
+     */
+    public boolean release(Long gameId, String node) {
+        handedOff.put(gameId, node);
+        return gameEngine.release(gameId);
+    }
+
+    @Override
+    public void beforeLoad(Long gameId) {
+        String previous = membership.previousOwnerOf(gameId);
+        if (previous == null || !membership.isMember(previous)) {
+            return;
+        }
+        try {
+            call(previous, "POST", "/internal/games/" + gameId + "/release?to=" + membership.getNodeId(), null);
+        } catch (RuntimeException e) {
+            // Gone, most likely; the database has all it wrote out
+            logger.warn("Could not hand game {} over from node {}: {}", gameId, previous, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Runs before the web server stops, so other nodes can still reach this one meanwhile
+    @Override
+    public void stop() {
+        membership.startLeaving();
+        membership.leave();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void rebalance() {
+        handedOff.entrySet().removeIf(moved -> !membership.isMember(moved.getValue())
+                || moved.getValue().equals(membership.ownerOf(moved.getKey())));
+        for (Long gameId : gameEngine.heldGames()) {
+            if (!isLocal(gameId) && !gameEngine.release(gameId)) {
+                logger.error("Game {} was released with writes still pending", gameId);
+            }
+        }
+    }
+
+    private String ownerOf(Long gameId) {
+        String moved = handedOff.get(gameId);
+        return moved != null ? moved : membership.ownerOf(gameId);
+    }
+
+    private URI ownerUri(Long gameId, String path, String query) {
+        String base = membership.urlOf(ownerOf(gameId));
+        if (base == null) {
+            throw new IllegalStateException("No address for the owner of game " + gameId);
+        }
+        return URI.create(base + path + (query != null ? "?" + query : ""));
+    }
+
+    private JsonNode internal(Long gameId, String method, String path, Object body) {
+        return call(ownerOf(gameId), method, path, body);
+    }
+
+    // The data of a node-to-node call, or an exception carrying the other node's error
+    private JsonNode call(String node, String method, String path, Object body) {
+        String base = membership.urlOf(node);
+        if (base == null) {
+            throw new IllegalStateException("No address for node " + node);
+        }
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                    .timeout(timeout)
+                    .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8))
+                    .header(FORWARDED_HEADER, membership.getNodeId());
+            if (body != null) {
+                request.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            JsonNode result = objectMapper.readTree(response.body());
+            if (response.statusCode() != 200 || !result.path("success").asBoolean()) {
+                throw new RuntimeException(result.path("message").asText("Node " + node + " answered "
+                        + response.statusCode()));
+            }
+            return result.path("data");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to reach node " + node + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while calling node " + node);
+        }
+    }
+}
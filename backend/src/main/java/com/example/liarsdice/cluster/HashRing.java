@@ -0,0 +1,76 @@
+package com.example.liarsdice.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hashing of game ids onto nodes. Each node is placed at
+ * {@code virtualNodes} points on a 64-bit ring and owns the games hashing up to each
+ * of them, so ownership is spread evenly and a node joining or leaving only moves
+ * the games next to its own points.
+ */
+public final class HashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> nodes;
+    private final int virtualNodes;
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = new TreeSet<>(nodes);
+        this.virtualNodes = virtualNodes;
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * The node owning {@code gameId}, or null if the ring is empty.
+     */
+    public String ownerOf(long gameId) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(gameId));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * The same ring with {@code node} taken out.
+     */
+    public HashRing without(String node) {
+        Set<String> remaining = new TreeSet<>(nodes);
+        remaining.remove(node);
+        return new HashRing(remaining, virtualNodes);
+    }
+
+    // FNV-1a, then mixed so that similar names land far apart
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
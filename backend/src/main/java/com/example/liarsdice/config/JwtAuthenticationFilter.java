@@ -1,6 +1,7 @@
 package com.example.liarsdice.config;
 
 import com.example.liarsdice.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,15 +28,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
-
-                UserDetails userDetails = userService.loadUserByUsername(username);
+            UserDetails userDetails = jwt != null ? resolvePrincipal(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -49,6 +51,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // A token seen recently skips the signature check and the user query
+    private UserDetails resolvePrincipal(String jwt) {
+        UserDetails userDetails = principalCache.get(jwt);
+        if (userDetails == null) {
+            Claims claims = jwtUtil.parseValidClaims(jwt);
+            if (claims == null) {
+                return null;
+            }
+            userDetails = userService.loadUserByUsername(claims.getSubject());
+            principalCache.put(jwt, userDetails, claims.getExpiration());
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
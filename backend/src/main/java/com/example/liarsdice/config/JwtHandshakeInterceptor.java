@@ -0,0 +1,85 @@
+package com.example.liarsdice.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Identifies the player behind a WebSocket handshake. Browsers can't set headers on
+ * a WebSocket request, so the JWT is read from the {@code token} query parameter
+ * (or a Bearer header for other clients). Connections without a valid token are
+ * still accepted, as spectators, except through {@link #requiringToken()}.
+ */
+@Component
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String USERNAME_ATTRIBUTE = "username";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams().getFirst("token");
+        if (!StringUtils.hasText(token)) {
+            String headerAuth = request.getHeaders().getFirst("Authorization");
+            if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+                token = headerAuth.substring(7);
+            }
+        }
+
+        if (StringUtils.hasText(token)) {
+            UserDetails cached = principalCache.get(token);
+            Claims claims = cached == null ? jwtUtil.parseValidClaims(token) : null;
+            if (cached != null) {
+                attributes.put(USERNAME_ATTRIBUTE, cached.getUsername());
+            } else if (claims != null) {
+                attributes.put(USERNAME_ATTRIBUTE, claims.getSubject());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The same check, but refusing the handshake with 401 unless it carries a valid token.
+     */
+    public HandshakeInterceptor requiringToken() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                JwtHandshakeInterceptor.this.beforeHandshake(request, response, wsHandler, attributes);
+                if (!attributes.containsKey(USERNAME_ATTRIBUTE)) {
+                    response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
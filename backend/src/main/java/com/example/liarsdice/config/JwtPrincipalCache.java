@@ -0,0 +1,111 @@
+package com.example.liarsdice.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.Map;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified tokens and the principal each one resolved to, so a request carrying a
+ * token seen recently skips both the signature check and the user lookup. Entries
+ * live for the configured TTL or until the token expires, whichever comes first.
+ * Past {@code max-entries} expired entries are swept, and if that isn't enough a
+ * tenth of the cache is dropped; a dropped token just costs one full check.
+ * Anything that changes a user's profile or credentials must call
+ * {@link #invalidateUser}.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public JwtPrincipalCache(@Value("${liarsdice.auth.token-cache.ttl-seconds:300}") long ttlSeconds,
+                             @Value("${liarsdice.auth.token-cache.max-entries:10000}") int maxEntries) {
+        this(ttlSeconds, maxEntries, Clock.systemUTC());
+    }
+
+    JwtPrincipalCache(long ttlSeconds, int maxEntries, Clock clock) {
+        this.ttlMs = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(String token, UserDetails principal, Date tokenExpiration) {
+        long now = clock.millis();
+        long expiresAt = now + ttlMs;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        entries.put(token, new Entry(principal, expiresAt));
+        if (entries.size() > maxEntries) {
+            evict(now);
+        }
+    }
+
+    /**
+     * Drops every cached token of a user, so their next request reloads them. Called
+     * inside a transaction, the tokens are dropped again once it commits: a request
+     * that reloads the user before then still reads the old row and caches it.
+     */
+    public void invalidateUser(String username) {
+        drop(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(username);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void drop(String username) {
+        entries.values().removeIf(entry -> entry.principal().getUsername().equals(username));
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        int excess = entries.size() - maxEntries + maxEntries / 10;
+        Iterator<String> tokens = entries.keySet().iterator();
+        while (excess-- > 0 && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+
+    private record Entry(UserDetails principal, long expiresAt) {}
+}
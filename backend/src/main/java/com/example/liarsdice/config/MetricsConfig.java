@@ -0,0 +1,49 @@
+package com.example.liarsdice.config;
+
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.GameWriteBehind;
+import com.example.liarsdice.lobby.LobbyIndex;
+import com.example.liarsdice.websocket.GameWebSocketHandler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges and counters read from state the components already keep, sampled when
+ * /actuator/prometheus is scraped. Timers and histograms are recorded where the work
+ * happens: {@code @Timed} service methods, {@link JwtUtil}, and the WebSocket send path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder liarsDiceMeters(GameEngine gameEngine, GameWriteBehind writeBehind, LobbyIndex lobbyIndex,
+                                       GameWebSocketHandler gameWebSocketHandler) {
+        return registry -> {
+            Gauge.builder("liarsdice.games.active", gameEngine, GameEngine::activeTables)
+                    .description("Games held in memory by the engine")
+                    .register(registry);
+            Gauge.builder("liarsdice.engine.pending.writes", writeBehind, GameWriteBehind::pendingCount)
+                    .description("Journaled events, table states and snapshots not yet in the database")
+                    .register(registry);
+            Gauge.builder("liarsdice.rooms.active", lobbyIndex, LobbyIndex::activeRooms)
+                    .description("Active rooms in the lobby")
+                    .register(registry);
+            Gauge.builder("liarsdice.websocket.sessions", gameWebSocketHandler, GameWebSocketHandler::getOpenSessionCount)
+                    .description("Open game and room sockets")
+                    .register(registry);
+            Gauge.builder("liarsdice.websocket.channels", gameWebSocketHandler, GameWebSocketHandler::getChannelCount)
+                    .description("Games and rooms with at least one socket open")
+                    .register(registry);
+            FunctionCounter.builder("liarsdice.websocket.broadcasts", gameWebSocketHandler,
+                            GameWebSocketHandler::getBroadcastCount)
+                    .register(registry);
+            FunctionCounter.builder("liarsdice.websocket.serializations", gameWebSocketHandler,
+                            GameWebSocketHandler::getSerializationCount)
+                    .description("Frames encoded, shared by every recipient of a broadcast")
+                    .register(registry);
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.liarsdice.config;
 
 import com.example.liarsdice.websocket.GameWebSocketHandler;
+import com.example.liarsdice.websocket.LobbyWebSocketHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -14,12 +15,25 @@ public class WebSocketConfig implements WebSocketConfigurer {
     @Autowired
     private GameWebSocketHandler gameWebSocketHandler;
 
+    @Autowired
+    private LobbyWebSocketHandler lobbyWebSocketHandler;
+
+    @Autowired
+    private JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(gameWebSocketHandler, "/ws/game/{gameId}")
+                .addInterceptors(jwtHandshakeInterceptor)
                 .setAllowedOrigins("*");
 
         registry.addHandler(gameWebSocketHandler, "/ws/room/{roomId}")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOrigins("*");
+
+        // Same audience as GET /rooms, which needs a token too
+        registry.addHandler(lobbyWebSocketHandler, "/ws/lobby")
+                .addInterceptors(jwtHandshakeInterceptor.requiringToken())
                 .setAllowedOrigins("*");
     }
-}
\ No newline at end of file
+}
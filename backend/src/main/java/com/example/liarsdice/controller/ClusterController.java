@@ -0,0 +1,111 @@
+package com.example.liarsdice.controller;
+
+import com.example.liarsdice.backplane.BackplaneMessage;
+import com.example.liarsdice.backplane.GameUpdate;
+import com.example.liarsdice.cluster.GameRouter;
+import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.response.ApiResponse;
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.SeatHands;
+import com.example.liarsdice.service.GameService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Node-to-node calls of the {@link GameRouter}. They carry the cluster secret rather
+ * than a user token, and are never meant for browsers.
+ */
+@RestController
+@RequestMapping("/internal/games")
+public class ClusterController {
+
+    @Autowired
+    private GameRouter gameRouter;
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Another node is about to load the game; write it out and stop serving it
+    @PostMapping("/{gameId}/release")
+    public ResponseEntity<?> releaseGame(@RequestHeader(value = GameRouter.SECRET_HEADER, required = false) String secret,
+                                         @PathVariable Long gameId, @RequestParam String to) {
+        if (!gameRouter.isAuthorized(secret)) {
+            return forbidden();
+        }
+        if (!gameRouter.release(gameId, to)) {
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to release game: its writes are still pending"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Game released"));
+    }
+
+    // Public state, for a node whose sockets watch the game; no data if not in progress
+    @GetMapping("/{gameId}/update")
+    public ResponseEntity<?> getGameUpdate(@RequestHeader(value = GameRouter.SECRET_HEADER, required = false) String secret,
+                                           @PathVariable Long gameId) {
+        if (!gameRouter.isAuthorized(secret)) {
+            return forbidden();
+        }
+        try {
+            GameUpdate update = gameEngine.ask(gameId, table -> GameUpdate.of(table, null)).orElse(null);
+            // Written as the backplane writes it, type id included
+            JsonNode data = update == null ? null
+                    : objectMapper.readTree(objectMapper.writerFor(BackplaneMessage.class).writeValueAsBytes(update));
+            return ResponseEntity.ok(ApiResponse.success("Game update retrieved successfully", data));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to get game update: " + e.getMessage()));
+        }
+    }
+
+    // This round's hands of the seated players whose sockets another node holds; no data if not in progress
+    @GetMapping("/{gameId}/hands")
+    public ResponseEntity<?> getHands(@RequestHeader(value = GameRouter.SECRET_HEADER, required = false) String secret,
+                                      @PathVariable Long gameId, @RequestParam List<String> usernames) {
+        if (!gameRouter.isAuthorized(secret)) {
+            return forbidden();
+        }
+        try {
+            SeatHands hands = gameEngine.ask(gameId, table -> table.handsOf(usernames)).orElse(null);
+            return ResponseEntity.ok(ApiResponse.success("Hands retrieved successfully", hands));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to get hands: " + e.getMessage()));
+        }
+    }
+
+    // A move sent over a game socket held by another node
+    @PostMapping("/{gameId}/move")
+    public ResponseEntity<?> makeMove(@RequestHeader(value = GameRouter.SECRET_HEADER, required = false) String secret,
+                                      @PathVariable Long gameId, @RequestParam String username,
+                                      @Valid @RequestBody GameMoveRequest request) {
+        if (!gameRouter.isAuthorized(secret)) {
+            return forbidden();
+        }
+        try {
+            GameStateResponse gameState = gameService.makeMove(gameId, request, username);
+            return ResponseEntity.ok(ApiResponse.success("Move made successfully", gameState));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error("Not a cluster node"));
+    }
+}
@@ -1,31 +1,55 @@
 package com.example.liarsdice.controller;
 
+import com.example.liarsdice.cluster.GameRouter;
 import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.request.PageCursor;
 import com.example.liarsdice.dto.response.ApiResponse;
+import com.example.liarsdice.dto.response.CursorPage;
 import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.dto.response.OddsResponse;
+import com.example.liarsdice.dto.response.ReplayFrame;
 import com.example.liarsdice.model.User;
+import com.example.liarsdice.odds.OddsRule;
 import com.example.liarsdice.service.AuthService;
 import com.example.liarsdice.service.GameService;
+import com.example.liarsdice.service.OddsService;
+import com.example.liarsdice.service.ReplayService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/games")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(originPatterns = "*", maxAge = 3600)
 public class GameController {
 
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private OddsService oddsService;
+
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private GameRouter gameRouter;
+
     @GetMapping("/{gameId}")
-    public ResponseEntity<?> getGameState(@PathVariable Long gameId) {
+    public ResponseEntity<?> getGameState(@PathVariable Long gameId, HttpServletRequest httpRequest) {
+        if (gameRouter.shouldForward(gameId, httpRequest)) {
+            return gameRouter.forward(gameId, httpRequest, null);
+        }
         try {
             User currentUser = authService.getCurrentUser();
             GameStateResponse gameState = gameService.getGameState(gameId, currentUser);
@@ -37,7 +61,11 @@ public class GameController {
     }
 
     @PostMapping("/{gameId}/start")
-    public ResponseEntity<?> startGame(@PathVariable Long gameId) {
+    public ResponseEntity<?> startGame(@PathVariable Long gameId, HttpServletRequest httpRequest) {
+        // The node that starts a game holds its table, so that must be the owner
+        if (gameRouter.shouldForward(gameId, httpRequest)) {
+            return gameRouter.forward(gameId, httpRequest, null);
+        }
         try {
             User currentUser = authService.getCurrentUser();
             GameStateResponse gameState = gameService.startGame(gameId, currentUser);
@@ -50,7 +78,11 @@ public class GameController {
 
     @PostMapping("/{gameId}/move")
     public ResponseEntity<?> makeMove(@PathVariable Long gameId,
-                                      @Valid @RequestBody GameMoveRequest request) {
+                                      @Valid @RequestBody GameMoveRequest request,
+                                      HttpServletRequest httpRequest) {
+        if (gameRouter.shouldForward(gameId, httpRequest)) {
+            return gameRouter.forward(gameId, httpRequest, request);
+        }
         try {
             User currentUser = authService.getCurrentUser();
             GameStateResponse gameState = gameService.makeMove(gameId, request, currentUser);
@@ -61,14 +93,69 @@ public class GameController {
         }
     }
 
+    // Chance a bid holds from the caller's side of the table; the standing bid if none is given
+    @GetMapping("/{gameId}/odds")
+    public ResponseEntity<?> getOdds(@PathVariable Long gameId,
+                                     @RequestParam(required = false) Integer quantity,
+                                     @RequestParam(required = false) Integer faceValue,
+                                     @RequestParam(defaultValue = "STANDARD") OddsRule rule,
+                                     HttpServletRequest httpRequest) {
+        if (gameRouter.shouldForward(gameId, httpRequest)) {
+            return gameRouter.forward(gameId, httpRequest, null);
+        }
+        try {
+            User currentUser = authService.getCurrentUser();
+            OddsResponse odds = oddsService.getOdds(gameId, currentUser.getId(), quantity, faceValue, rule);
+            return ResponseEntity.ok(ApiResponse.success("Odds calculated successfully", odds));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to get odds: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{gameId}/history")
-    public ResponseEntity<?> getGameHistory(@PathVariable Long gameId) {
+    public ResponseEntity<?> getGameHistory(@PathVariable Long gameId,
+                                            @RequestParam(defaultValue = "200") int limit,
+                                            @RequestParam(required = false) String after) {
         try {
-            List<GameStateResponse.GameMove> history = gameService.getGameHistory(gameId);
-            return ResponseEntity.ok(ApiResponse.success("Game history retrieved successfully", history));
+            CursorPage<GameStateResponse.GameMove> page =
+                    gameService.getGameHistory(gameId, PageCursor.decode(after), limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(ApiResponse.success("Game history retrieved successfully", page.items()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to get game history: " + e.getMessage()));
         }
     }
+
+    // Frames of a finished game from move `from` on; 0 is the opening roll
+    @GetMapping("/{gameId}/replay")
+    public ResponseEntity<?> getReplay(@PathVariable Long gameId,
+                                       @RequestParam(defaultValue = "0") int from,
+                                       @RequestParam(defaultValue = "1") int count) {
+        try {
+            List<ReplayFrame> frames = replayService.getFrames(gameId, from, count);
+            return ResponseEntity.ok(ApiResponse.success("Replay retrieved successfully", frames));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to get replay: " + e.getMessage()));
+        }
+    }
+
+    // Full history as NDJSON, streamed from a database cursor
+    @GetMapping("/{gameId}/history/export")
+    public ResponseEntity<?> exportGameHistory(@PathVariable Long gameId) {
+        if (!gameService.gameExists(gameId)) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to export game history: Game not found"));
+        }
+        StreamingResponseBody body = out -> gameService.exportGameHistory(gameId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"game-" + gameId + "-history.ndjson\"")
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -2,22 +2,26 @@ package com.example.liarsdice.controller;
 
 import com.example.liarsdice.dto.request.CreateRoomRequest;
 import com.example.liarsdice.dto.request.JoinRoomRequest;
+import com.example.liarsdice.dto.request.PageCursor;
 import com.example.liarsdice.dto.response.ApiResponse;
+import com.example.liarsdice.dto.response.CursorPage;
 import com.example.liarsdice.dto.response.RoomResponse;
+import com.example.liarsdice.lobby.LobbyFilter;
+import com.example.liarsdice.lobby.LobbyIndex;
 import com.example.liarsdice.model.User;
 import com.example.liarsdice.service.AuthService;
 import com.example.liarsdice.service.RoomService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/rooms")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(originPatterns = "*", maxAge = 3600)
 public class RoomController {
 
     @Autowired
@@ -26,16 +30,37 @@ public class RoomController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LobbyIndex lobbyIndex;
+
     @GetMapping
-    public ResponseEntity<?> getAllRooms(@RequestParam(required = false) String search) {
+    public ResponseEntity<?> getAllRooms(@RequestParam(required = false) String search,
+                                         @RequestParam(required = false) Integer openSeats,
+                                         @RequestParam(required = false) Boolean password,
+                                         @RequestParam(required = false) Integer minFill,
+                                         @RequestParam(required = false) Integer maxFill,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after) {
         try {
-            List<RoomResponse> rooms;
+            PageCursor cursor = PageCursor.decode(after);
             if (search != null && !search.trim().isEmpty()) {
-                rooms = roomService.searchRooms(search.trim());
-            } else {
-                rooms = roomService.getAvailableRooms();
+                CursorPage<RoomResponse> page = roomService.searchRooms(search.trim(), cursor,
+                        limit != null ? limit : 20);
+                return ok(page.nextCursor()).body(ApiResponse.success("Rooms retrieved successfully", page.items()));
+            }
+
+            LobbyFilter filter = new LobbyFilter(openSeats != null ? openSeats : 1, password, minFill, maxFill);
+            int pageSize = limit != null ? limit : 50;
+            if (cursor != null) {
+                CursorPage<RoomResponse> page = lobbyIndex.page(filter, cursor, pageSize);
+                return ok(page.nextCursor()).body(ApiResponse.success("Rooms retrieved successfully", page.items()));
             }
-            return ResponseEntity.ok(ApiResponse.success("Rooms retrieved successfully", rooms));
+
+            // First pages come pre-serialized from the in-memory index
+            LobbyIndex.Listing listing = lobbyIndex.snapshot(filter, pageSize);
+            return ok(listing.nextCursor())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(listing.body());
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to retrieve rooms: " + e.getMessage()));
@@ -108,4 +133,12 @@ public class RoomController {
                     .body(ApiResponse.error("Failed to delete room: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity.BodyBuilder ok(String nextCursor) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(CursorPage.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder;
+    }
+}
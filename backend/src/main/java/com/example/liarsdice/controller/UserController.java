@@ -13,7 +13,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/users")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(originPatterns = "*", maxAge = 3600)
 public class UserController {
 
     @Autowired
@@ -53,4 +53,24 @@ public class UserController {
                     .body(ApiResponse.error("Failed to update profile: " + e.getMessage()));
         }
     }
+
+    @PutMapping("/password")
+    public ResponseEntity<?> changePassword(@RequestBody Map<String, String> passwords) {
+        try {
+            User currentUser = authService.getCurrentUser();
+            String currentPassword = passwords.get("currentPassword");
+            String newPassword = passwords.get("newPassword");
+
+            if (currentPassword == null || newPassword == null
+                    || newPassword.length() < 6 || newPassword.length() > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Current password is required and the new one must be between 6 and 100 characters"));
+            }
+            userService.changePassword(currentUser, currentPassword, newPassword);
+            return ResponseEntity.ok(ApiResponse.success("Password changed successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to change password: " + e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.liarsdice.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Where a page of a list ordered by {@code (created_at, id)} ended, handed to clients as
+ * an opaque token to pass back for the next page. Searches also carry the match rank the
+ * page ended on, since their results are ordered by rank first.
+ */
+public record PageCursor(int rank, LocalDateTime createdAt, long id) {
+
+    public static PageCursor of(LocalDateTime createdAt, long id) {
+        return new PageCursor(0, createdAt, id);
+    }
+
+    public String encode() {
+        String raw = rank + "|" + (createdAt != null ? createdAt : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a missing token, meaning the first page
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            return new PageCursor(Integer.parseInt(parts[0]),
+                    parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+    }
+}
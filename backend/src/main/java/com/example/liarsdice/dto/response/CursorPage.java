@@ -0,0 +1,13 @@
+package com.example.liarsdice.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is null on the last page.
+ * Endpoints return the items as their usual {@code data} list and the cursor in the
+ * {@value #NEXT_CURSOR_HEADER} header, absent on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
@@ -12,6 +12,7 @@ public class GameStateResponse {
     private String status;
     private String currentPlayerUsername;
     private Integer roundNumber;
+    private Long version;
     private List<PlayerState> players;
     private GameMove lastMove;
     private LocalDateTime updatedAt;
@@ -40,12 +41,12 @@ public class GameStateResponse {
 
         public PlayerState() {}
 
-        public PlayerState(Player player, boolean showDice) {
+        // Dice live only in the game engine, so rows loaded from the database never show them
+        public PlayerState(Player player) {
             this.username = player.getUser().getUsername();
             this.diceCount = player.getDiceCount();
             this.isActive = player.getIsActive();
             this.playerOrder = player.getPlayerOrder();
-            this.dice = showDice ? player.getCurrentDice() : null;
         }
 
         // Getters and Setters
@@ -80,6 +81,19 @@ public class GameStateResponse {
             this.createdAt = move.getCreatedAt();
         }
 
+        // A move known only by its parts, as in the engine and in replays
+        public GameMove(String playerUsername, com.example.liarsdice.model.GameMove.MoveType moveType,
+                        Integer bidQuantity, Integer bidFaceValue, LocalDateTime createdAt) {
+            this.playerUsername = playerUsername;
+            this.moveType = moveType.toString();
+            this.bidQuantity = bidQuantity;
+            this.bidFaceValue = bidFaceValue;
+            this.displayText = moveType == com.example.liarsdice.model.GameMove.MoveType.BID
+                    ? String.format("%s bid %d %ds", playerUsername, bidQuantity, bidFaceValue)
+                    : String.format("%s challenged", playerUsername);
+            this.createdAt = createdAt;
+        }
+
         // Getters and Setters
         public String getPlayerUsername() { return playerUsername; }
         public void setPlayerUsername(String playerUsername) { this.playerUsername = playerUsername; }
@@ -104,6 +118,8 @@ public class GameStateResponse {
     public void setCurrentPlayerUsername(String currentPlayerUsername) { this.currentPlayerUsername = currentPlayerUsername; }
     public Integer getRoundNumber() { return roundNumber; }
     public void setRoundNumber(Integer roundNumber) { this.roundNumber = roundNumber; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public List<PlayerState> getPlayers() { return players; }
     public void setPlayers(List<PlayerState> players) { this.players = players; }
     public GameMove getLastMove() { return lastMove; }
@@ -0,0 +1,9 @@
+package com.example.liarsdice.dto.response;
+
+/**
+ * The chance a bid holds, from the asking player's side of the table: their own
+ * {@code ownCount} matching dice are known, the other {@code unseenDice} are not.
+ * {@code exact} is false when the chance is a simulation estimate.
+ */
+public record OddsResponse(int quantity, int faceValue, String rule, int ownCount, int unseenDice,
+                           double probability, boolean exact) {}
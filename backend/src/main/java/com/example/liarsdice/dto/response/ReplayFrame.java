@@ -0,0 +1,14 @@
+package com.example.liarsdice.dto.response;
+
+import com.example.liarsdice.engine.GameTable;
+
+import java.util.List;
+
+/**
+ * A finished game as it stood after its first {@code move} moves, with every hand shown.
+ * {@code challenge} is set when the move was a challenge, whose round's dice are then
+ * still on the table; the next round's roll shows from the following move.
+ */
+public record ReplayFrame(Long gameId, int move, int totalMoves, int roundNumber, String status,
+                          String currentPlayerUsername, GameStateResponse.GameMove lastMove,
+                          GameTable.ChallengeResult challenge, List<GameStateResponse.PlayerState> players) {}
@@ -14,6 +14,7 @@ public class RoomResponse {
     private String creatorUsername;
     private boolean isActive;
     private LocalDateTime createdAt;
+    private Long gameId; // the room's waiting or running game; only on creation and room details
 
     // Constructors
     public RoomResponse() {}
@@ -102,4 +103,12 @@ public class RoomResponse {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+}
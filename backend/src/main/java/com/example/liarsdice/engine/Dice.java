@@ -0,0 +1,66 @@
+package com.example.liarsdice.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Packed dice hands. A hand is stored as face counts in a single {@code long}, one
+ * 8-bit lane per face (face 1 in the lowest lane). Lanes never carry into each
+ * other below 256 dice, so hands can simply be added together and the number of
+ * dice showing a face across a whole table is one shift and mask. Rolling and
+ * counting allocate nothing; only {@link #toList} builds boxed values, for views.
+ */
+public final class Dice {
+
+    public static final int FACES = 6;
+
+    private static final int LANE_BITS = 8;
+    private static final long LANE_MASK = 0xFF;
+
+    private Dice() {}
+
+    public static long roll(int count, SplittableRandom random) {
+        long hand = 0;
+        for (int i = 0; i < count; i++) {
+            hand += 1L << (LANE_BITS * random.nextInt(FACES));
+        }
+        return hand;
+    }
+
+    public static int count(long hand, int faceValue) {
+        return (int) ((hand >>> (LANE_BITS * (faceValue - 1))) & LANE_MASK);
+    }
+
+    public static int size(long hand) {
+        int size = 0;
+        for (int face = 1; face <= FACES; face++) {
+            size += count(hand, face);
+        }
+        return size;
+    }
+
+    /**
+     * Counts dice showing {@code faceValue} across the first {@code seats} hands.
+     */
+    public static int countMatching(long[] hands, int seats, int faceValue) {
+        long total = 0;
+        for (int i = 0; i < seats; i++) {
+            total += hands[i];
+        }
+        return count(total, faceValue);
+    }
+
+    /**
+     * Expands a hand into its dice in ascending face order.
+     */
+    public static List<Integer> toList(long hand) {
+        List<Integer> dice = new ArrayList<>(size(hand));
+        for (int face = 1; face <= FACES; face++) {
+            for (int n = count(hand, face); n > 0; n--) {
+                dice.add(face);
+            }
+        }
+        return dice;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What one or more moves changed on a table, from {@code fromVersion} to {@code version}.
+ * Fields that did not change are null and left out of the JSON. A new
+ * {@code roundNumber} means the round was resolved, which clears the standing bid
+ * and re-rolls every hand.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GameDelta(long fromVersion, long version, String status, Integer roundNumber,
+                        String currentPlayerUsername, Bid bid, Map<String, Integer> diceCounts,
+                        GameStateResponse.GameMove lastMove, GameTable.ChallengeResult challenge) {
+
+    public record Bid(String playerUsername, int quantity, int faceValue) {}
+
+    /**
+     * Combines this delta with the one that directly follows it.
+     */
+    public GameDelta merge(GameDelta next) {
+        if (next.fromVersion != version) {
+            throw new IllegalArgumentException("Delta " + next.fromVersion + " does not follow " + version);
+        }
+        Map<String, Integer> mergedDiceCounts = diceCounts;
+        if (next.diceCounts != null) {
+            mergedDiceCounts = diceCounts != null ? new HashMap<>(diceCounts) : new HashMap<>();
+            mergedDiceCounts.putAll(next.diceCounts);
+        }
+        // A round change in the later delta wipes out any earlier bid
+        Bid mergedBid = next.roundNumber != null || next.bid != null ? next.bid : bid;
+        return new GameDelta(fromVersion, next.version,
+                next.status != null ? next.status : status,
+                next.roundNumber != null ? next.roundNumber : roundNumber,
+                next.currentPlayerUsername != null ? next.currentPlayerUsername : currentPlayerUsername,
+                mergedBid,
+                mergedDiceCounts,
+                next.lastMove != null ? next.lastMove : lastMove,
+                next.challenge != null ? next.challenge : challenge);
+    }
+}
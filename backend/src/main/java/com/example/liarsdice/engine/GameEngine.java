@@ -0,0 +1,413 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.exception.GameException;
+import com.example.liarsdice.model.Game;
+import com.example.liarsdice.model.Player;
+import com.example.liarsdice.repository.GameRepository;
+import com.example.liarsdice.repository.PlayerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Registry of the {@link GameTable}s that own IN_PROGRESS games on this node.
+ * A table is created when a game starts (or lazily from the database after a
+ * restart) and released once its final state has been flushed.
+ * <p>
+ * Every command for a game goes through that game's {@link GameMailbox}, so moves
+ * on one game are applied strictly in order without database locks while
+ * different games run in parallel on the shared worker pool.
+ * <p>
+ * What happens on a table is logged to the {@link GameEventLog}, with a snapshot every
+ * few events; that log, not the {@code games} row, is what a table is rebuilt from.
+ * The row itself is only written again when the game finishes.
+ * <p>
+ * Moves reach that log through the {@link MoveJournal}: a command that changed its
+ * table returns once the journal has forced its events to disk, and whatever an earlier
+ * run journaled but never shipped is written out and its games reloaded at startup.
+ */
+@Component
+public class GameEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameEngine.class);
+
+    private final Map<Long, Actor> actors = new ConcurrentHashMap<>();
+    private final List<GameUpdateListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile TableHandoff handoff = gameId -> {};
+    private final ForkJoinPool workers;
+    private final int mailboxThroughput;
+
+    private final GameRepository gameRepository;
+    private final PlayerRepository playerRepository;
+    private final GameWriteBehind writeBehind;
+    private final GameEventLog eventLog;
+    private final MoveJournal journal;
+    private final TransactionTemplate transactionTemplate;
+
+    public GameEngine(GameRepository gameRepository, PlayerRepository playerRepository,
+                      GameWriteBehind writeBehind, GameEventLog eventLog, MoveJournal journal,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${liarsdice.engine.workers:0}") int workers,
+                      @Value("${liarsdice.engine.mailbox-throughput:64}") int mailboxThroughput) {
+        this.gameRepository = gameRepository;
+        this.playerRepository = playerRepository;
+        this.writeBehind = writeBehind;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.transactionTemplate = transactionTemplate;
+        // asyncMode gives FIFO scheduling, which suits mailboxes that are never joined
+        this.workers = new ForkJoinPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.mailboxThroughput = mailboxThroughput;
+    }
+
+    /**
+     * Puts a newly started game on the engine. Must be called inside the transaction
+     * that starts it, which also writes the opening events; the table is only served,
+     * and the start announced, once that transaction commits.
+     *
+     * @return the new table, for the caller to read before the commit shares it
+     */
+    public GameTable open(Game game, List<Player> players) {
+        List<GameTable.Seat> seats = new ArrayList<>(players.size());
+        for (Player player : players) {
+            seats.add(new GameTable.Seat(player.getId(), player.getUser().getId(),
+                    player.getUser().getUsername(), player.getPlayerOrder(), player.getDiceCount()));
+        }
+        GameTable table = new GameTable(game.getId(), game.getRoom().getId(), seats,
+                game.getRoundNumber(), 0, newRandom());
+        // The seating doesn't fit a journal record, and starting a game is a transaction anyway
+        eventLog.append(table.lastEvents());
+        Long gameId = game.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // A command may have loaded the game from the database in the meantime
+                Actor created = new Actor(table, new GameMailbox(workers, mailboxThroughput));
+                Actor existing = actors.putIfAbsent(gameId, created);
+                Actor actor = existing != null ? existing : created;
+                actor.mailbox().ask(() -> {
+                    notifyListeners(actor.table(), null);
+                    return null;
+                });
+            }
+        });
+        return table;
+    }
+
+    public void addListener(GameUpdateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void setHandoff(TableHandoff handoff) {
+        this.handoff = handoff;
+    }
+
+    /**
+     * Runs a command against a game's table on its mailbox and waits for the result,
+     * and for anything the game has journaled to be durable. Games that are IN_PROGRESS
+     * but not yet held in memory (for example after a restart) are loaded from the
+     * database first.
+     *
+     * @return empty if the game is not in progress
+     */
+    public <T> Optional<T> ask(Long gameId, Function<GameTable, T> command) {
+        Actor actor = find(gameId);
+        if (actor == null) {
+            return Optional.empty();
+        }
+        Outcome<T> outcome;
+        try {
+            outcome = actor.mailbox().ask(() -> {
+                if (actor.released) {
+                    throw new GameException("Game " + gameId + " is no longer held here, try again");
+                }
+                return new Outcome<>(command.apply(actor.table()), actor.journaled);
+            }).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new GameException("Move failed", e.getCause());
+        }
+        // Already durable for commands that changed nothing
+        journal.awaitDurable(outcome.journaled());
+        return Optional.ofNullable(outcome.value());
+    }
+
+    /**
+     * Journals the events of a move, queues the table's new state for write-behind and
+     * tells listeners what changed. Must be called from inside a command so the table
+     * is read on the game's mailbox.
+     * <p>
+     * The move has already been applied to the table, so if it cannot be journaled the
+     * table is dropped, and the game is loaded again from what was saved next time.
+     */
+    public void changed(GameTable table, PendingMove move) {
+        Actor actor = actors.get(table.getGameId());
+        long position;
+        try {
+            position = journal.append(table.lastEvents(), move.userId());
+        } catch (RuntimeException e) {
+            if (actor != null) {
+                actor.released = true;
+                actors.remove(table.getGameId(), actor);
+            }
+            logger.error("Dropped game {} from the engine, its move could not be journaled: {}",
+                    table.getGameId(), e.getMessage());
+            notifyReleased(table.getGameId());
+            throw new GameException("The move could not be saved, try again", e);
+        }
+        if (actor != null) {
+            actor.journaled = position;
+        }
+        if (eventLog.snapshotDue(table)) {
+            writeBehind.recordSnapshot(table.getGameId(), table.snapshot());
+        }
+        if (table.isFinished()) {
+            writeBehind.markDirty(table.toTableState());
+        }
+        notifyListeners(table, table.lastDelta());
+    }
+
+    /**
+     * Drops a game's table once everything it journaled is in the database, so another
+     * node can load it from there. Commands already queued for it fail instead of running.
+     *
+     * @return false if the game's writes could not be flushed; its table is dropped anyway
+     */
+    public boolean release(Long gameId) {
+        Actor actor = actors.get(gameId);
+        if (actor != null) {
+            long journaled = actor.mailbox().ask(() -> {
+                actor.released = true;
+                actors.remove(gameId, actor);
+                return actor.journaled;
+            }).join();
+            journal.awaitDurable(journaled);
+            logger.info("Released game {} from the engine", gameId);
+            notifyReleased(gameId);
+        }
+        return writeBehind.flushGame(gameId);
+    }
+
+    public Set<Long> heldGames() {
+        return Set.copyOf(actors.keySet());
+    }
+
+    public int activeTables() {
+        return actors.size();
+    }
+
+    @Scheduled(fixedDelayString = "${liarsdice.engine.flush-interval-ms:200}")
+    public void flush() {
+        for (Long gameId : writeBehind.flush()) {
+            Actor actor = actors.get(gameId);
+            if (actor != null && actor.table().isFinished()) {
+                actors.remove(gameId);
+                logger.info("Released finished game {} from the engine", gameId);
+                notifyReleased(gameId);
+            }
+        }
+    }
+
+    /**
+     * Writes out what the previous run journaled but never shipped, then reloads the
+     * games it belongs to. Segments are kept for the next start if any game fails.
+     */
+    @PostConstruct
+    public void replayJournal() {
+        Map<Long, List<MoveJournal.Entry>> byGame = new LinkedHashMap<>();
+        for (MoveJournal.Entry entry : journal.recovered()) {
+            byGame.computeIfAbsent(entry.event().gameId(), id -> new ArrayList<>()).add(entry);
+        }
+        if (byGame.isEmpty()) {
+            return;
+        }
+
+        boolean complete = true;
+        for (Map.Entry<Long, List<MoveJournal.Entry>> game : byGame.entrySet()) {
+            try {
+                replay(game.getKey(), game.getValue());
+            } catch (RuntimeException e) {
+                logger.error("Could not replay the journal of game {}: {}", game.getKey(), e.getMessage());
+                complete = false;
+            }
+        }
+        if (complete) {
+            journal.discardRecovered();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        int remaining = writeBehind.pendingCount();
+        while (remaining > 0) {
+            flush();
+            int after = writeBehind.pendingCount();
+            if (after >= remaining) {
+                logger.error("Shutting down with {} unflushed game writes", after);
+                return;
+            }
+            remaining = after;
+        }
+        workers.shutdown();
+    }
+
+    private void notifyListeners(GameTable table, GameDelta delta) {
+        for (GameUpdateListener listener : listeners) {
+            try {
+                listener.onGameChanged(table, delta);
+            } catch (RuntimeException e) {
+                logger.error("Game update listener failed for game {}: {}", table.getGameId(), e.getMessage());
+            }
+        }
+    }
+
+    private void notifyReleased(Long gameId) {
+        for (GameUpdateListener listener : listeners) {
+            try {
+                listener.onGameReleased(gameId);
+            } catch (RuntimeException e) {
+                logger.error("Game update listener failed for released game {}: {}", gameId, e.getMessage());
+            }
+        }
+    }
+
+    private Actor find(Long gameId) {
+        Actor actor = actors.get(gameId);
+        if (actor != null) {
+            return actor;
+        }
+
+        // The log is only complete once whatever this node journaled for the game is written
+        if (journal.holds(gameId) && !writeBehind.flushGame(gameId)) {
+            throw new GameException("Game " + gameId + " is still being saved, try again");
+        }
+        GameTable loaded = transactionTemplate.execute(status -> load(gameId));
+        if (loaded == null) {
+            return null;
+        }
+        // Copied before the table is shared; the next command replaces them
+        List<GameEvent.Logged> startEvents = List.copyOf(loaded.lastEvents());
+        Actor created = new Actor(loaded, new GameMailbox(workers, mailboxThroughput));
+        Actor winner = actors.computeIfAbsent(gameId, id -> created);
+        if (winner == created) {
+            if (!startEvents.isEmpty()) {
+                // A table started from the legacy row: its log begins here
+                transactionTemplate.executeWithoutResult(status -> eventLog.append(startEvents));
+            }
+            if (loaded.isFinished()) {
+                // The log got as far as the end of the game but the row never did
+                writeBehind.markDirty(loaded.toTableState());
+            }
+        }
+        return winner;
+    }
+
+    private GameTable load(Long gameId) {
+        Game game = gameRepository.findById(gameId).orElse(null);
+        if (game == null || game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            return null;
+        }
+        // Whatever node held it last writes out what it has before the log is read
+        handoff.beforeLoad(gameId);
+
+        GameTable restored = eventLog.restore(game.getId(), game.getRoom().getId(), newRandom());
+        if (restored != null) {
+            logger.info("Restored game {} from its event log at version {}", gameId, restored.getVersion());
+            return restored;
+        }
+
+        // Games started before the event log existed restart their current round from the row
+        List<Player> players = playerRepository.findByGameOrderByPlayerOrder(game);
+        if (players.isEmpty()) {
+            return null;
+        }
+
+        List<GameTable.Seat> seats = new ArrayList<>(players.size());
+        int currentSeat = 0;
+        for (Player player : players) {
+            if (game.getCurrentPlayer() != null && game.getCurrentPlayer().getId().equals(player.getUser().getId())) {
+                currentSeat = seats.size();
+            }
+            seats.add(new GameTable.Seat(player.getId(), player.getUser().getId(),
+                    player.getUser().getUsername(), player.getPlayerOrder(), player.getDiceCount()));
+        }
+
+        logger.info("Loaded game {} into the engine at round {}", gameId, game.getRoundNumber());
+        return new GameTable(game.getId(), game.getRoom().getId(), seats, game.getRoundNumber(), currentSeat, newRandom());
+    }
+
+    private void replay(Long gameId, List<MoveJournal.Entry> entries) {
+        int written = transactionTemplate.execute(status -> {
+            if (!gameRepository.existsById(gameId)) {
+                logger.warn("Dropping {} journaled events of missing game {}", entries.size(), gameId);
+                return 0;
+            }
+            long lastSeq = eventLog.lastSeq(gameId);
+            List<MoveJournal.Entry> missing = new ArrayList<>();
+            for (MoveJournal.Entry entry : entries) {
+                if (entry.event().seq() > lastSeq) {
+                    missing.add(entry);
+                }
+            }
+            writeBehind.writeJournaled(missing);
+            return missing.size();
+        });
+        if (written > 0) {
+            logger.info("Replayed {} journaled events of game {}", written, gameId);
+        }
+        find(gameId);
+    }
+
+    private static SplittableRandom newRandom() {
+        // Each table gets its own generator, only ever used from its mailbox
+        return new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    private record Outcome<T>(T value, long journaled) {}
+
+    private static final class Actor {
+        private final GameTable table;
+        private final GameMailbox mailbox;
+        // Journal position after this game's last move; only touched on its mailbox
+        private long journaled;
+        // Set on the mailbox once the table has been handed to another node
+        private boolean released;
+
+        private Actor(GameTable table, GameMailbox mailbox) {
+            this.table = table;
+            this.mailbox = mailbox;
+        }
+
+        private GameTable table() {
+            return table;
+        }
+
+        private GameMailbox mailbox() {
+            return mailbox;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.liarsdice.engine;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One fact in a game's append-only event log. Applying a game's events in order to an
+ * empty {@link GameTable} (or to a {@link TableSnapshot} and the events after it)
+ * rebuilds the table exactly, dice included, since rolls are logged rather than redone.
+ * Players are referred to by seat index.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = GameEvent.GameStarted.class, name = "game_started"),
+        @JsonSubTypes.Type(value = GameEvent.DiceRolled.class, name = "dice_rolled"),
+        @JsonSubTypes.Type(value = GameEvent.BidPlaced.class, name = "bid"),
+        @JsonSubTypes.Type(value = GameEvent.Challenged.class, name = "challenge"),
+        @JsonSubTypes.Type(value = GameEvent.DieLost.class, name = "die_lost"),
+        @JsonSubTypes.Type(value = GameEvent.PlayerEliminated.class, name = "player_eliminated"),
+        @JsonSubTypes.Type(value = GameEvent.GameOver.class, name = "game_over")
+})
+public sealed interface GameEvent {
+
+    record GameStarted(List<SeatInfo> seats) implements GameEvent {}
+
+    // Starts a round: hands are packed as in Dice, one per seat
+    record DiceRolled(int roundNumber, int openerSeat, long[] hands) implements GameEvent {}
+
+    record BidPlaced(int seat, int quantity, int faceValue) implements GameEvent {}
+
+    record Challenged(int seat, int actualCount) implements GameEvent {}
+
+    record DieLost(int seat) implements GameEvent {}
+
+    record PlayerEliminated(int seat) implements GameEvent {}
+
+    record GameOver(int winnerSeat) implements GameEvent {}
+
+    record SeatInfo(Long playerId, Long userId, String username, int playerOrder, int diceCount) {}
+
+    /**
+     * An event at its place in one game's log. {@code seq} starts at 1 and has no gaps.
+     */
+    record Logged(Long gameId, long seq, GameEvent event, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,133 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.model.GameEventRecord;
+import com.example.liarsdice.model.GameSnapshot;
+import com.example.liarsdice.repository.GameEventRepository;
+import com.example.liarsdice.repository.GameRepository;
+import com.example.liarsdice.repository.GameSnapshotRepository;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Reads and writes the game event log and its snapshots. Events reach it from the
+ * {@link MoveJournal} through {@link GameWriteBehind}; {@link GameEngine} asks for a
+ * snapshot every {@code snapshot-every} events, so rebuilding any game replays at most
+ * that many.
+ */
+@Component
+public class GameEventLog {
+
+    private static final Map<Class<?>, String> TYPE_NAMES = new HashMap<>();
+
+    static {
+        for (JsonSubTypes.Type type : GameEvent.class.getAnnotation(JsonSubTypes.class).value()) {
+            TYPE_NAMES.put(type.value(), type.name());
+        }
+    }
+
+    private final GameEventRepository gameEventRepository;
+    private final GameSnapshotRepository gameSnapshotRepository;
+    private final GameRepository gameRepository;
+    private final ObjectMapper objectMapper;
+    private final int snapshotEvery;
+
+    public GameEventLog(GameEventRepository gameEventRepository, GameSnapshotRepository gameSnapshotRepository,
+                        GameRepository gameRepository, ObjectMapper objectMapper,
+                        @Value("${liarsdice.engine.snapshot-every:32}") int snapshotEvery) {
+        this.gameEventRepository = gameEventRepository;
+        this.gameSnapshotRepository = gameSnapshotRepository;
+        this.gameRepository = gameRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    public boolean snapshotDue(GameTable table) {
+        return table.eventsSinceSnapshot() >= snapshotEvery;
+    }
+
+    /**
+     * Rebuilds a game's table from its latest snapshot and the events since. Must be
+     * called inside a transaction.
+     *
+     * @return null if the game has no event log
+     */
+    public GameTable restore(Long gameId, Long roomId, SplittableRandom random) {
+        TableSnapshot snapshot = gameSnapshotRepository.findById(gameId)
+                .map(row -> read(row.getPayload(), TableSnapshot.class))
+                .orElse(null);
+        List<GameEventRecord> rows = gameEventRepository.findTail(gameId, snapshot != null ? snapshot.seq() : 0);
+        if (snapshot == null && rows.isEmpty()) {
+            return null;
+        }
+
+        return GameTable.restore(gameId, roomId, snapshot, toLogged(gameId, rows), random);
+    }
+
+    /**
+     * A game's whole log in order, in one query.
+     */
+    public List<GameEvent.Logged> readAll(Long gameId) {
+        return toLogged(gameId, gameEventRepository.findTail(gameId, 0));
+    }
+
+    /**
+     * Writes events in the caller's transaction.
+     */
+    public void append(List<GameEvent.Logged> events) {
+        List<GameEventRecord> records = new ArrayList<>(events.size());
+        for (GameEvent.Logged logged : events) {
+            records.add(toRecord(logged));
+        }
+        gameEventRepository.saveAll(records);
+    }
+
+    /**
+     * The seq of the last event of a game in the database, 0 if it has none.
+     */
+    public long lastSeq(Long gameId) {
+        return gameEventRepository.findLastSeq(gameId);
+    }
+
+    GameEventRecord toRecord(GameEvent.Logged logged) {
+        return new GameEventRecord(gameRepository.getReferenceById(logged.gameId()), logged.seq(),
+                TYPE_NAMES.get(logged.event().getClass()), write(logged.event()), logged.createdAt());
+    }
+
+    GameSnapshot toRecord(Long gameId, TableSnapshot snapshot) {
+        return new GameSnapshot(gameId, snapshot.seq(), write(snapshot));
+    }
+
+    private List<GameEvent.Logged> toLogged(Long gameId, List<GameEventRecord> rows) {
+        List<GameEvent.Logged> events = new ArrayList<>(rows.size());
+        for (GameEventRecord row : rows) {
+            events.add(new GameEvent.Logged(gameId, row.getSeq(), read(row.getPayload(), GameEvent.class),
+                    row.getCreatedAt()));
+        }
+        return events;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T read(String payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt " + type.getSimpleName() + " in the game event log", e);
+        }
+    }
+}
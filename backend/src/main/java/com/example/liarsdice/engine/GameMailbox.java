@@ -0,0 +1,67 @@
+package com.example.liarsdice.engine;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer mailbox for one game. Commands run one at a time in submission
+ * order on a shared executor, so the state they touch needs no locks, while
+ * mailboxes of different games drain in parallel. A mailbox hands its worker
+ * back after {@code throughput} commands so one busy game cannot starve others.
+ */
+public class GameMailbox {
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor executor;
+    private final int throughput;
+
+    public GameMailbox(Executor executor, int throughput) {
+        this.executor = executor;
+        this.throughput = throughput;
+    }
+
+    public <T> CompletableFuture<T> ask(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queue.add(() -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        schedule();
+        return result;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < throughput; i++) {
+                Runnable command = queue.poll();
+                if (command == null) {
+                    break;
+                }
+                command.run();
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.exception.GameException;
+import com.example.liarsdice.model.Game;
+import com.example.liarsdice.model.GameMove;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Authoritative in-memory state for one IN_PROGRESS game: seats, dice, turn order,
+ * the standing bid and the round counter. All rule checks for a move happen here, so
+ * the hot path never touches the database; the resulting changes are handed to
+ * {@link GameWriteBehind} as {@link PendingMove}s and {@link TableState}s.
+ * <p>
+ * Every change is made by recording a {@link GameEvent} and applying it, so a table
+ * can be rebuilt with {@link #restore} from its latest {@link TableSnapshot} and the
+ * events logged after it.
+ * <p>
+ * A table is not thread-safe. It is only touched from its game's {@link GameMailbox},
+ * which runs one command at a time.
+ */
+public class GameTable {
+
+    private final Long gameId;
+    private final Long roomId;
+    private final List<Seat> seats;
+    private final long[] hands;
+    private final SplittableRandom random;
+
+    private volatile Game.GameStatus status = Game.GameStatus.IN_PROGRESS;
+    private int roundNumber;
+    private int currentSeat;
+    private int bidQuantity;
+    private int bidFaceValue;
+    private int bidderSeat = -1;
+    private long version;
+    private GameStateResponse.GameMove lastMove;
+    private GameDelta lastDelta;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    private long eventSeq;
+    private long snapshotSeq;
+    private final List<GameEvent.Logged> lastEvents = new ArrayList<>();
+
+    /**
+     * Starts a game: logs the seating and the first roll.
+     */
+    public GameTable(Long gameId, Long roomId, List<Seat> seats, int roundNumber, int currentSeat, SplittableRandom random) {
+        this(gameId, roomId, seats, random);
+        LocalDateTime at = LocalDateTime.now();
+        record(new GameEvent.GameStarted(seatInfos()), at);
+        record(new GameEvent.DiceRolled(roundNumber, currentSeat, rollHands()), at);
+    }
+
+    private GameTable(Long gameId, Long roomId, List<Seat> seats, SplittableRandom random) {
+        if (seats.isEmpty()) {
+            throw new GameException("A game needs at least one seat");
+        }
+        this.gameId = gameId;
+        this.roomId = roomId;
+        this.seats = seats;
+        this.hands = new long[seats.size()];
+        this.random = random;
+    }
+
+    /**
+     * Rebuilds a table from its latest snapshot, or from the start of the log if there
+     * is none, and the events after it, in order. Costs one step per replayed event.
+     */
+    public static GameTable restore(Long gameId, Long roomId, TableSnapshot snapshot,
+                                    List<GameEvent.Logged> events, SplittableRandom random) {
+        GameTable table;
+        if (snapshot != null) {
+            table = new GameTable(gameId, roomId, seatsOf(snapshot.seats()), random);
+            table.load(snapshot);
+        } else if (!events.isEmpty() && events.get(0).event() instanceof GameEvent.GameStarted started) {
+            table = new GameTable(gameId, roomId, seatsOf(started.seats()), random);
+        } else {
+            throw new GameException("Event log of game " + gameId + " does not start with the game");
+        }
+
+        for (GameEvent.Logged logged : events) {
+            if (logged.seq() <= table.eventSeq) {
+                continue;
+            }
+            if (logged.seq() != table.eventSeq + 1) {
+                throw new GameException("Event log of game " + gameId + " is missing event " + (table.eventSeq + 1));
+            }
+            table.apply(logged.event(), logged.createdAt());
+            table.eventSeq = logged.seq();
+        }
+        return table;
+    }
+
+    public void bid(Long userId, int quantity, int faceValue) {
+        Seat bidder = requireTurn(userId);
+        validateBid(quantity, faceValue);
+
+        lastEvents.clear();
+        record(new GameEvent.BidPlaced(currentSeat, quantity, faceValue), LocalDateTime.now());
+        lastDelta = new GameDelta(version - 1, version, null, null, seats.get(currentSeat).getUsername(),
+                new GameDelta.Bid(bidder.getUsername(), quantity, faceValue), null, lastMove, null);
+    }
+
+    public ChallengeResult challenge(Long userId) {
+        Seat challenger = requireTurn(userId);
+
+        if (bidderSeat < 0) {
+            throw new GameException("There is no bid to challenge");
+        }
+
+        Seat bidder = seats.get(bidderSeat);
+        int actualCount = Dice.countMatching(hands, hands.length, bidFaceValue);
+        boolean bidStands = actualCount >= bidQuantity;
+        int loserSeat = bidStands ? currentSeat : bidderSeat;
+        Seat loser = seats.get(loserSeat);
+        int quantity = bidQuantity;
+        int faceValue = bidFaceValue;
+
+        // One timestamp for everything the challenge sets off
+        LocalDateTime at = LocalDateTime.now();
+        lastEvents.clear();
+        record(new GameEvent.Challenged(currentSeat, actualCount), at);
+        record(new GameEvent.DieLost(loserSeat), at);
+        if (!loser.isActive()) {
+            record(new GameEvent.PlayerEliminated(loserSeat), at);
+        }
+
+        ChallengeResult result = new ChallengeResult(challenger.getUsername(), bidder.getUsername(),
+                quantity, faceValue, actualCount, loser.getUsername(), !loser.isActive(), false);
+
+        if (activeSeats() <= 1) {
+            record(new GameEvent.GameOver(nextActiveSeat(loserSeat)), at);
+            result = result.asGameOver();
+        } else {
+            // The loser opens the next round, or the next player if the loser was knocked out
+            int opener = loser.isActive() ? loserSeat : nextActiveSeat(loserSeat);
+            record(new GameEvent.DiceRolled(roundNumber + 1, opener, rollHands()), at);
+        }
+        boolean finished = status == Game.GameStatus.FINISHED;
+        lastDelta = new GameDelta(version - 1, version,
+                finished ? status.toString() : null,
+                finished ? null : roundNumber,
+                finished ? null : seats.get(currentSeat).getUsername(),
+                null, Map.of(loser.getUsername(), loser.getDiceCount()), lastMove, result);
+        return result;
+    }
+
+    public GameStateResponse toResponse(Long viewerId) {
+        GameStateResponse response = new GameStateResponse();
+        response.setGameId(gameId);
+        response.setStatus(status.toString());
+        response.setCurrentPlayerUsername(status == Game.GameStatus.IN_PROGRESS ? currentSeatOrNull().getUsername() : null);
+        response.setRoundNumber(roundNumber);
+        response.setVersion(version);
+        response.setLastMove(lastMove);
+        response.setUpdatedAt(updatedAt);
+
+        List<GameStateResponse.PlayerState> players = new ArrayList<>(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            Seat seat = seats.get(i);
+            GameStateResponse.PlayerState playerState = new GameStateResponse.PlayerState();
+            playerState.setUsername(seat.getUsername());
+            playerState.setDiceCount(seat.getDiceCount());
+            playerState.setActive(seat.isActive());
+            playerState.setPlayerOrder(seat.getPlayerOrder());
+            // Only show dice to the player themselves
+            if (seat.getUserId().equals(viewerId)) {
+                playerState.setDice(Dice.toList(hands[i]));
+            }
+            players.add(playerState);
+        }
+        response.setPlayers(players);
+        return response;
+    }
+
+    public TableState toTableState() {
+        List<TableState.SeatState> seatStates = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            seatStates.add(new TableState.SeatState(seat.getPlayerId(), seat.getDiceCount(), seat.isActive()));
+        }
+        Seat current = currentSeatOrNull();
+        return new TableState(gameId, version, status, roundNumber,
+                current != null ? current.getUserId() : null, seatStates);
+    }
+
+    public boolean isFinished() {
+        return status == Game.GameStatus.FINISHED;
+    }
+
+    /**
+     * The events the most recent bid or challenge logged, or those of the game's start
+     * before any move. Only valid until the next command.
+     */
+    public List<GameEvent.Logged> lastEvents() {
+        return Collections.unmodifiableList(lastEvents);
+    }
+
+    /**
+     * Captures the table for the event log; later rebuilds replay only what follows.
+     */
+    public TableSnapshot snapshot() {
+        snapshotSeq = eventSeq;
+        return new TableSnapshot(eventSeq, version, status, roundNumber, currentSeat, bidQuantity, bidFaceValue,
+                bidderSeat, seatInfos(), hands.clone(), lastMove, updatedAt);
+    }
+
+    public long eventsSinceSnapshot() {
+        return eventSeq - snapshotSeq;
+    }
+
+    /**
+     * What the most recent bid or challenge changed.
+     */
+    public GameDelta lastDelta() {
+        return lastDelta;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The dice of the seat held by {@code userId}, or null if that user is not seated.
+     */
+    public List<Integer> diceOf(Long userId) {
+        for (int i = 0; i < seats.size(); i++) {
+            if (seats.get(i).getUserId().equals(userId)) {
+                return Dice.toList(hands[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The packed hand (see {@link Dice}) of the seat held by {@code userId}, or an
+     * empty hand if that user is not seated.
+     */
+    public long handOf(Long userId) {
+        for (int i = 0; i < seats.size(); i++) {
+            if (seats.get(i).getUserId().equals(userId)) {
+                return hands[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The current round's hands of whichever of {@code usernames} are seated.
+     */
+    public SeatHands handsOf(Collection<String> usernames) {
+        Map<String, Long> byUsername = new HashMap<>(usernames.size() * 2);
+        for (int i = 0; i < seats.size(); i++) {
+            if (usernames.contains(seats.get(i).getUsername())) {
+                byUsername.put(seats.get(i).getUsername(), hands[i]);
+            }
+        }
+        return new SeatHands(roundNumber, byUsername);
+    }
+
+    /**
+     * Dice held by each active seat other than the one held by {@code userId}, in seat order.
+     */
+    public int[] otherHandSizes(Long userId) {
+        int[] sizes = new int[seats.size()];
+        int count = 0;
+        for (Seat seat : seats) {
+            if (seat.isActive() && !seat.getUserId().equals(userId)) {
+                sizes[count++] = seat.getDiceCount();
+            }
+        }
+        return Arrays.copyOf(sizes, count);
+    }
+
+    /**
+     * The standing bid's quantity, or 0 if nobody has bid this round.
+     */
+    public int getBidQuantity() {
+        return bidQuantity;
+    }
+
+    public int getBidFaceValue() {
+        return bidFaceValue;
+    }
+
+    /**
+     * Position of {@code username} in seat order, matching the player list of
+     * {@link #toResponse}, or -1 if not seated.
+     */
+    public int seatIndexOf(String username) {
+        for (int i = 0; i < seats.size(); i++) {
+            if (seats.get(i).getUsername().equals(username)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public Long userIdFor(String username) {
+        for (Seat seat : seats) {
+            if (seat.getUsername().equals(username)) {
+                return seat.getUserId();
+            }
+        }
+        return null;
+    }
+
+    public Long getCurrentUserId() {
+        Seat current = currentSeatOrNull();
+        return status == Game.GameStatus.IN_PROGRESS && current != null ? current.getUserId() : null;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Checks a bid against the standing bid without applying it.
+     */
+    public void validateBid(int quantity, int faceValue) {
+        if (quantity < 1) {
+            throw new GameException("Bid quantity must be at least 1");
+        }
+        if (faceValue < 1 || faceValue > Dice.FACES) {
+            throw new GameException("Bid face value must be between 1 and 6");
+        }
+        if (quantity > totalDice()) {
+            throw new GameException("Bid quantity cannot exceed the number of dice in play");
+        }
+        if (bidderSeat >= 0 && !raises(quantity, faceValue)) {
+            throw new GameException("Bid must raise the quantity, or keep it and raise the face value");
+        }
+    }
+
+    // Rule helpers
+    private Seat requireTurn(Long userId) {
+        if (status != Game.GameStatus.IN_PROGRESS) {
+            throw new GameException("Game is not in progress");
+        }
+        Seat seat = seats.get(currentSeat);
+        if (!seat.getUserId().equals(userId)) {
+            throw new GameException("It's not your turn");
+        }
+        return seat;
+    }
+
+    private boolean raises(int quantity, int faceValue) {
+        return quantity > bidQuantity || (quantity == bidQuantity && faceValue > bidFaceValue);
+    }
+
+    private int totalDice() {
+        int total = 0;
+        for (Seat seat : seats) {
+            total += seat.getDiceCount();
+        }
+        return total;
+    }
+
+    private int activeSeats() {
+        int active = 0;
+        for (Seat seat : seats) {
+            if (seat.isActive()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    private int nextActiveSeat(int from) {
+        for (int step = 1; step <= seats.size(); step++) {
+            int candidate = (from + step) % seats.size();
+            if (seats.get(candidate).isActive()) {
+                return candidate;
+            }
+        }
+        return from;
+    }
+
+    private Seat currentSeatOrNull() {
+        Seat seat = seats.get(currentSeat);
+        return seat.isActive() ? seat : null;
+    }
+
+    private long[] rollHands() {
+        long[] rolled = new long[seats.size()];
+        for (int i = 0; i < rolled.length; i++) {
+            rolled[i] = Dice.roll(seats.get(i).getDiceCount(), random);
+        }
+        return rolled;
+    }
+
+    // Event log
+    private void record(GameEvent event, LocalDateTime at) {
+        apply(event, at);
+        lastEvents.add(new GameEvent.Logged(gameId, ++eventSeq, event, at));
+    }
+
+    private void apply(GameEvent event, LocalDateTime at) {
+        if (event instanceof GameEvent.DiceRolled rolled) {
+            roundNumber = rolled.roundNumber();
+            currentSeat = rolled.openerSeat();
+            System.arraycopy(rolled.hands(), 0, hands, 0, hands.length);
+            clearBid();
+        } else if (event instanceof GameEvent.BidPlaced bid) {
+            bidQuantity = bid.quantity();
+            bidFaceValue = bid.faceValue();
+            bidderSeat = bid.seat();
+            lastMove = moveView(seats.get(bid.seat()), GameMove.MoveType.BID, bid.quantity(), bid.faceValue(), at);
+            currentSeat = nextActiveSeat(bid.seat());
+            touch(at);
+        } else if (event instanceof GameEvent.Challenged challenged) {
+            lastMove = moveView(seats.get(challenged.seat()), GameMove.MoveType.CHALLENGE, null, null, at);
+            touch(at);
+        } else if (event instanceof GameEvent.DieLost lost) {
+            seats.get(lost.seat()).loseDie();
+        } else if (event instanceof GameEvent.GameOver over) {
+            status = Game.GameStatus.FINISHED;
+            currentSeat = over.winnerSeat();
+        }
+        // GameStarted and PlayerEliminated record what the seats already show
+    }
+
+    private void load(TableSnapshot snapshot) {
+        eventSeq = snapshot.seq();
+        snapshotSeq = snapshot.seq();
+        version = snapshot.version();
+        status = snapshot.status();
+        roundNumber = snapshot.roundNumber();
+        currentSeat = snapshot.currentSeat();
+        bidQuantity = snapshot.bidQuantity();
+        bidFaceValue = snapshot.bidFaceValue();
+        bidderSeat = snapshot.bidderSeat();
+        System.arraycopy(snapshot.hands(), 0, hands, 0, hands.length);
+        lastMove = snapshot.lastMove();
+        updatedAt = snapshot.updatedAt();
+    }
+
+    private List<GameEvent.SeatInfo> seatInfos() {
+        List<GameEvent.SeatInfo> infos = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            infos.add(new GameEvent.SeatInfo(seat.getPlayerId(), seat.getUserId(), seat.getUsername(),
+                    seat.getPlayerOrder(), seat.getDiceCount()));
+        }
+        return infos;
+    }
+
+    private static List<Seat> seatsOf(List<GameEvent.SeatInfo> infos) {
+        List<Seat> seats = new ArrayList<>(infos.size());
+        for (GameEvent.SeatInfo info : infos) {
+            seats.add(new Seat(info.playerId(), info.userId(), info.username(), info.playerOrder(), info.diceCount()));
+        }
+        return seats;
+    }
+
+    private void clearBid() {
+        bidQuantity = 0;
+        bidFaceValue = 0;
+        bidderSeat = -1;
+    }
+
+    private void touch(LocalDateTime at) {
+        version++;
+        updatedAt = at;
+    }
+
+    private GameStateResponse.GameMove moveView(Seat seat, GameMove.MoveType type, Integer quantity, Integer faceValue,
+                                                LocalDateTime at) {
+        return new GameStateResponse.GameMove(seat.getUsername(), type, quantity, faceValue, at);
+    }
+
+    /**
+     * One player's place at the table. {@code playerId} is the id of the backing
+     * {@code players} row so write-behind can update it without a lookup.
+     */
+    public static class Seat {
+        private final Long playerId;
+        private final Long userId;
+        private final String username;
+        private final int playerOrder;
+        private int diceCount;
+
+        public Seat(Long playerId, Long userId, String username, int playerOrder, int diceCount) {
+            this.playerId = playerId;
+            this.userId = userId;
+            this.username = username;
+            this.playerOrder = playerOrder;
+            this.diceCount = diceCount;
+        }
+
+        void loseDie() {
+            if (diceCount > 0) {
+                diceCount--;
+            }
+        }
+
+        public boolean isActive() {
+            return diceCount > 0;
+        }
+
+        public Long getPlayerId() { return playerId; }
+        public Long getUserId() { return userId; }
+        public String getUsername() { return username; }
+        public int getPlayerOrder() { return playerOrder; }
+        public int getDiceCount() { return diceCount; }
+    }
+
+    public record ChallengeResult(String challenger, String bidder, int bidQuantity, int bidFaceValue,
+                                  int actualCount, String loser, boolean loserEliminated, boolean gameOver) {
+
+        ChallengeResult asGameOver() {
+            return new ChallengeResult(challenger, bidder, bidQuantity, bidFaceValue,
+                    actualCount, loser, loserEliminated, true);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.liarsdice.engine;
+
+/**
+ * Notified on a game's mailbox after each change to its table, so the table can be
+ * read safely for the duration of the call.
+ */
+public interface GameUpdateListener {
+
+    /**
+     * @param delta what changed, or null when the table was just opened
+     */
+    void onGameChanged(GameTable table, GameDelta delta);
+
+    /**
+     * Called once a game's table is no longer held by this node's engine: the game
+     * finished, was handed to another node, or was dropped after a failed write.
+     */
+    default void onGameReleased(Long gameId) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.model.Game;
+import com.example.liarsdice.model.GameMove;
+import com.example.liarsdice.model.GameSnapshot;
+import com.example.liarsdice.model.Player;
+import com.example.liarsdice.repository.GameMoveRepository;
+import com.example.liarsdice.repository.GameRepository;
+import com.example.liarsdice.repository.GameSnapshotRepository;
+import com.example.liarsdice.repository.PlayerRepository;
+import com.example.liarsdice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes engine output to the existing repositories in batches. Moves and game events
+ * are shipped from the {@link MoveJournal} in journal order; table states and snapshots
+ * are coalesced so only the newest of each game is written per flush.
+ */
+@Component
+public class GameWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameWriteBehind.class);
+
+    private final Map<Long, TableState> dirtyTables = new ConcurrentHashMap<>();
+    private final Map<Long, TableSnapshot> pendingSnapshots = new ConcurrentHashMap<>();
+
+    private final GameRepository gameRepository;
+    private final PlayerRepository playerRepository;
+    private final GameMoveRepository gameMoveRepository;
+    private final UserRepository userRepository;
+    private final GameSnapshotRepository gameSnapshotRepository;
+    private final GameEventLog eventLog;
+    private final MoveJournal journal;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${liarsdice.engine.flush-batch-size:500}")
+    private int batchSize;
+
+    public GameWriteBehind(GameRepository gameRepository, PlayerRepository playerRepository,
+                           GameMoveRepository gameMoveRepository, UserRepository userRepository,
+                           GameSnapshotRepository gameSnapshotRepository,
+                           GameEventLog eventLog, MoveJournal journal, TransactionTemplate transactionTemplate) {
+        this.gameRepository = gameRepository;
+        this.playerRepository = playerRepository;
+        this.gameMoveRepository = gameMoveRepository;
+        this.userRepository = userRepository;
+        this.gameSnapshotRepository = gameSnapshotRepository;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void markDirty(TableState state) {
+        dirtyTables.merge(state.gameId(), state, (current, next) -> next.version() > current.version() ? next : current);
+    }
+
+    public void recordSnapshot(Long gameId, TableSnapshot snapshot) {
+        pendingSnapshots.merge(gameId, snapshot, (current, next) -> next.seq() > current.seq() ? next : current);
+    }
+
+    public int pendingCount() {
+        return journal.backlog() + dirtyTables.size() + pendingSnapshots.size();
+    }
+
+    /**
+     * Writes up to one batch of journaled events, with the moves among them, and the
+     * dirty table state and pending snapshot of every game whose events are all in that
+     * batch or already written, in a single transaction. A game with events still in the
+     * backlog keeps its state back, so the database never holds a state or snapshot ahead
+     * of the event log it is restored from.
+     *
+     * @return ids of games whose FINISHED state was written, so the engine can release them
+     */
+    public synchronized List<Long> flush() {
+        List<Long> finished = write();
+        return finished != null ? finished : List.of();
+    }
+
+    /**
+     * Flushes until nothing of {@code gameId} is left to write, so its table can be
+     * loaded from the database by another node. Other games' writes go out with it.
+     *
+     * @return false if a flush failed first
+     */
+    public synchronized boolean flushGame(Long gameId) {
+        while (journal.holds(gameId) || dirtyTables.containsKey(gameId) || pendingSnapshots.containsKey(gameId)) {
+            if (write() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Null if the transaction failed and everything was re-queued
+    private List<Long> write() {
+        // States and snapshots are taken before the journal is read: their events were
+        // journaled before they were queued, so are in this batch or left in the backlog
+        Map<Long, TableSnapshot> snapshots = new HashMap<>();
+        for (Long gameId : pendingSnapshots.keySet()) {
+            TableSnapshot snapshot = pendingSnapshots.remove(gameId);
+            if (snapshot != null) {
+                snapshots.put(gameId, snapshot);
+            }
+        }
+
+        Map<Long, TableState> states = new HashMap<>();
+        for (Long gameId : dirtyTables.keySet()) {
+            TableState state = dirtyTables.remove(gameId);
+            if (state != null) {
+                states.put(gameId, state);
+            }
+        }
+
+        List<MoveJournal.Entry> entries = journal.poll(batchSize);
+        // Games with events left over wait for a later pass
+        for (Long gameId : journal.backloggedGames()) {
+            TableSnapshot snapshot = snapshots.remove(gameId);
+            if (snapshot != null) {
+                recordSnapshot(gameId, snapshot);
+            }
+            TableState state = states.remove(gameId);
+            if (state != null) {
+                markDirty(state);
+            }
+        }
+
+        if (entries.isEmpty() && states.isEmpty() && snapshots.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeStates(states.values());
+                writeJournaled(entries);
+                writeSnapshots(snapshots);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Write-behind flush failed, re-queueing {} events and {} game states: {}",
+                    entries.size(), states.size(), e.getMessage());
+            journal.requeue(entries);
+            snapshots.forEach(this::recordSnapshot);
+            states.values().forEach(this::markDirty);
+            return null;
+        }
+        journal.shipped(entries);
+
+        logger.debug("Flushed {} events and {} game states", entries.size(), states.size());
+        return states.values().stream()
+                .filter(state -> state.status() == Game.GameStatus.FINISHED)
+                .map(TableState::gameId)
+                .collect(Collectors.toList());
+    }
+
+    private void writeStates(Collection<TableState> states) {
+        for (TableState state : states) {
+            Game game = gameRepository.findById(state.gameId()).orElse(null);
+            if (game == null) {
+                logger.warn("Dropping write-behind state for missing game {}", state.gameId());
+                continue;
+            }
+            game.setStatus(state.status());
+            game.setRoundNumber(state.roundNumber());
+            game.setCurrentPlayer(state.currentUserId() != null ?
+                    userRepository.getReferenceById(state.currentUserId()) : null);
+
+            Map<Long, TableState.SeatState> seats = state.seats().stream()
+                    .collect(Collectors.toMap(TableState.SeatState::playerId, Function.identity()));
+            for (Player player : playerRepository.findAllById(seats.keySet())) {
+                TableState.SeatState seat = seats.get(player.getId());
+                player.setDiceCount(seat.diceCount());
+                player.setIsActive(seat.active());
+            }
+        }
+    }
+
+    /**
+     * Writes journaled events and the moves among them in the caller's transaction.
+     */
+    void writeJournaled(List<MoveJournal.Entry> entries) {
+        List<GameEvent.Logged> events = new ArrayList<>(entries.size());
+        List<PendingMove> moves = new ArrayList<>();
+        for (MoveJournal.Entry entry : entries) {
+            events.add(entry.event());
+            PendingMove move = entry.toMove();
+            if (move != null) {
+                moves.add(move);
+            }
+        }
+        eventLog.append(events);
+        writeMoves(moves);
+    }
+
+    private void writeMoves(List<PendingMove> moves) {
+        List<GameMove> entities = new ArrayList<>(moves.size());
+        for (PendingMove pending : moves) {
+            GameMove entity = new GameMove(
+                    gameRepository.getReferenceById(pending.gameId()),
+                    userRepository.getReferenceById(pending.userId()),
+                    pending.moveType());
+            entity.setBidQuantity(pending.bidQuantity());
+            entity.setBidFaceValue(pending.bidFaceValue());
+            entity.setCreatedAt(pending.createdAt());
+            entities.add(entity);
+        }
+        // Sent in JDBC batches of hibernate.jdbc.batch_size at commit
+        gameMoveRepository.saveAll(entities);
+    }
+
+    private void writeSnapshots(Map<Long, TableSnapshot> snapshots) {
+        List<GameSnapshot> rows = new ArrayList<>(snapshots.size());
+        snapshots.forEach((gameId, snapshot) -> rows.add(eventLog.toRecord(gameId, snapshot)));
+        gameSnapshotRepository.saveAll(rows);
+    }
+}
@@ -0,0 +1,525 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.exception.GameException;
+import com.example.liarsdice.model.GameMove;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal of the game events that moves produce, so a move can be
+ * acknowledged once it is on local disk rather than after a Postgres transaction.
+ * <p>
+ * Events are written as fixed-size records into memory-mapped segment files. A sync
+ * thread forces the current segment every {@code fsync-interval-ms}, which makes
+ * everything appended since the last force durable at once (group commit); callers
+ * wait for that with {@link #awaitDurable}. When a command's records don't fit in
+ * what is left of a segment the next one is started, and {@link GameWriteBehind}
+ * ships the journaled events to {@code game_events} and {@code game_moves}, after
+ * which a segment is deleted.
+ * <p>
+ * Segments left over from a previous run are read back on startup as {@link #recovered()}
+ * entries, up to the first torn or corrupt record, and are only deleted once the engine
+ * has written them to the database.
+ * <pre>
+ * 0  magic u32      24 created at, epoch micros (UTC)   42 face value / opener u16
+ * 4  crc32 u32      32 acting user id (0 if none)       44 quantity / actual count / round u32
+ * 8  game id        40 event type u8                    48 six packed hands (dice rolls only)
+ * 16 seq            41 seat u8 (hand count for rolls)
+ * </pre>
+ */
+@Component
+public class MoveJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoveJournal.class);
+
+    public static final int RECORD_SIZE = 96;
+    public static final int MAX_SEATS = 6;
+
+    private static final int MAGIC = 0x4C444A31;
+    private static final String SUFFIX = ".journal";
+
+    private static final byte DICE_ROLLED = 1;
+    private static final byte BID_PLACED = 2;
+    private static final byte CHALLENGED = 3;
+    private static final byte DIE_LOST = 4;
+    private static final byte PLAYER_ELIMINATED = 5;
+    private static final byte GAME_OVER = 6;
+
+    private final Path dir;
+    private final int segmentRecords;
+    private final long syncIntervalNanos;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ConcurrentLinkedQueue<Entry> backlog = new ConcurrentLinkedQueue<>();
+    private final List<Entry> recovered = new ArrayList<>();
+    private final List<Path> recoveredFiles = new ArrayList<>();
+
+    private final Object durableLock = new Object();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread syncer;
+
+    private Segment current;
+    private long nextIndex;
+    private volatile long appended;
+    private volatile long durable;
+    private volatile boolean closed;
+
+    @Autowired
+    public MoveJournal(@Value("${liarsdice.journal.dir:data/journal}") String dir,
+                       @Value("${liarsdice.journal.segment-bytes:67108864}") long segmentBytes,
+                       @Value("${liarsdice.journal.fsync-interval-ms:2}") long syncIntervalMillis) {
+        this(Paths.get(dir), (int) Math.max(1, segmentBytes / RECORD_SIZE),
+                TimeUnit.MILLISECONDS.toNanos(Math.max(1, syncIntervalMillis)));
+    }
+
+    public MoveJournal(Path dir, int segmentRecords, long syncIntervalNanos) {
+        this.dir = dir;
+        this.segmentRecords = segmentRecords;
+        this.syncIntervalNanos = syncIntervalNanos;
+        try {
+            Files.createDirectories(dir);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open move journal in " + dir, e);
+        }
+        // Indexes carry on from the old segments, which stay on disk until discarded
+        appended = nextIndex;
+        durable = nextIndex;
+        current = openSegment(nextIndex);
+
+        syncer = new Thread(this::syncLoop, "move-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Appends the events of one command. Events are queued for shipping as soon as they
+     * are written; they are durable once {@link #awaitDurable} returns for the position.
+     *
+     * @param userId the player who made the move, recorded against its bid or challenge
+     * @return the journal position after the last record, to wait on
+     */
+    public synchronized long append(List<GameEvent.Logged> events, Long userId) {
+        if (closed) {
+            throw new GameException("Move journal is closed");
+        }
+        if (events.size() > segmentRecords) {
+            throw new IllegalArgumentException("A command of " + events.size() + " events does not fit a segment");
+        }
+        // All or nothing: every record is encoded, and the segment to hold them opened,
+        // before any is written, so a command that fails leaves no trace to ship or recover
+        ByteBuffer records = ByteBuffer.allocate(events.size() * RECORD_SIZE);
+        for (int i = 0; i < events.size(); i++) {
+            encode(events.get(i), actorOf(events.get(i), userId));
+            records.put(i * RECORD_SIZE, scratch, 0, RECORD_SIZE);
+        }
+        if (nextIndex - current.base + events.size() > segmentRecords) {
+            // A segment may end short; recovery stops at its first empty record
+            roll();
+        }
+        List<Entry> entries = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            current.buffer.put((int) (nextIndex - current.base) * RECORD_SIZE, records, i * RECORD_SIZE, RECORD_SIZE);
+            current.outstanding.incrementAndGet();
+            entries.add(new Entry(nextIndex, events.get(i), actorOf(events.get(i), userId)));
+            nextIndex++;
+        }
+        backlog.addAll(entries);
+        appended = nextIndex;
+        return nextIndex;
+    }
+
+    /**
+     * Blocks until everything up to {@code position} has been forced to disk.
+     */
+    public void awaitDurable(long position) {
+        if (durable >= position) {
+            return;
+        }
+        synchronized (durableLock) {
+            while (durable < position) {
+                if (closed) {
+                    throw new GameException("Move journal closed before the move was saved");
+                }
+                try {
+                    durableLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GameException("Interrupted while saving the move");
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes up to {@code max} journaled entries to ship, oldest first. Each must be handed
+     * back to {@link #shipped} or {@link #requeue}.
+     */
+    public List<Entry> poll(int max) {
+        List<Entry> entries = new ArrayList<>();
+        Entry entry;
+        while (entries.size() < max && (entry = backlog.poll()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public void requeue(List<Entry> entries) {
+        backlog.addAll(entries);
+    }
+
+    /**
+     * Records that entries are in the database. Full segments with nothing left to ship
+     * are deleted.
+     */
+    public void shipped(List<Entry> entries) {
+        Map<Segment, Integer> counts = new HashMap<>();
+        for (Entry entry : entries) {
+            Map.Entry<Long, Segment> segment = segments.floorEntry(entry.index());
+            if (segment != null) {
+                counts.merge(segment.getValue(), 1, Integer::sum);
+            }
+        }
+        counts.forEach((segment, count) -> {
+            if (segment.outstanding.addAndGet(-count) == 0 && segment.sealed) {
+                delete(segment);
+            }
+        });
+    }
+
+    public int backlog() {
+        return backlog.size();
+    }
+
+    /**
+     * Whether anything of {@code gameId} is still waiting to be shipped.
+     */
+    public boolean holds(Long gameId) {
+        for (Entry entry : backlog) {
+            if (entry.event().gameId().equals(gameId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ids of every game with something still waiting to be shipped.
+     */
+    public Set<Long> backloggedGames() {
+        Set<Long> games = new HashSet<>();
+        for (Entry entry : backlog) {
+            games.add(entry.event().gameId());
+        }
+        return games;
+    }
+
+    /**
+     * Entries read back from the segments of a previous run, in journal order.
+     */
+    public List<Entry> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Deletes the segments of a previous run once their entries are in the database.
+     */
+    public void discardRecovered() {
+        for (Path file : recoveredFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete journal segment {}: {}", file, e.getMessage());
+            }
+        }
+        recoveredFiles.clear();
+        recovered.clear();
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            sync();
+            closed = true;
+        }
+        syncer.interrupt();
+        synchronized (durableLock) {
+            durableLock.notifyAll();
+        }
+        for (Segment segment : segments.values()) {
+            if (segment.outstanding.get() == 0) {
+                // Everything in it reached the database
+                delete(segment);
+                continue;
+            }
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                logger.debug("Error closing journal segment {}: {}", segment.file, e.getMessage());
+            }
+        }
+    }
+
+    private void syncLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(syncIntervalNanos);
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                logger.error("Move journal sync failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void sync() {
+        synchronized (durableLock) {
+            long target = appended;
+            if (target <= durable) {
+                return;
+            }
+            // Earlier segments were forced when they were rolled
+            current.buffer.force();
+            durable = target;
+            durableLock.notifyAll();
+        }
+    }
+
+    private void roll() {
+        // Opened first, so the current segment stays usable if this fails
+        Segment next = openSegment(nextIndex);
+        current.buffer.force();
+        current.sealed = true;
+        Segment full = current;
+        current = next;
+        if (full.outstanding.get() == 0) {
+            delete(full);
+        }
+    }
+
+    private Segment openSegment(long base) {
+        Path file = dir.resolve(String.format("%020d%s", base, SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+            Segment segment = new Segment(base, file, channel, buffer);
+            segments.put(base, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment " + file, e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        if (segments.remove(segment.base, segment)) {
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                logger.warn("Could not delete journal segment {}: {}", segment.file, e.getMessage());
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int count = 0;
+                while ((count + 1) * RECORD_SIZE <= buffer.capacity()) {
+                    Entry entry = decode(buffer, count * RECORD_SIZE, base + count);
+                    if (entry == null) {
+                        break;
+                    }
+                    recovered.add(entry);
+                    count++;
+                }
+                nextIndex = Math.max(nextIndex, base + count);
+                if (count == 0) {
+                    Files.delete(file);
+                    continue;
+                }
+            }
+            recoveredFiles.add(file);
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("Read {} journaled events from {} segments", recovered.size(), recoveredFiles.size());
+        }
+    }
+
+    private static Long actorOf(GameEvent.Logged logged, Long userId) {
+        return logged.event() instanceof GameEvent.BidPlaced || logged.event() instanceof GameEvent.Challenged
+                ? userId : null;
+    }
+
+    private void encode(GameEvent.Logged logged, Long userId) {
+        ByteBuffer buffer = scratch.clear();
+        buffer.putInt(MAGIC).putInt(0)
+                .putLong(logged.gameId())
+                .putLong(logged.seq())
+                .putLong(toMicros(logged.createdAt()))
+                .putLong(userId != null ? userId : 0);
+
+        GameEvent event = logged.event();
+        if (event instanceof GameEvent.DiceRolled rolled) {
+            if (rolled.hands().length > MAX_SEATS) {
+                throw new IllegalArgumentException("Journal records hold at most " + MAX_SEATS + " hands");
+            }
+            buffer.put(DICE_ROLLED).put((byte) rolled.hands().length)
+                    .putShort((short) rolled.openerSeat()).putInt(rolled.roundNumber());
+            for (long hand : rolled.hands()) {
+                buffer.putLong(hand);
+            }
+        } else if (event instanceof GameEvent.BidPlaced bid) {
+            buffer.put(BID_PLACED).put((byte) bid.seat()).putShort((short) bid.faceValue()).putInt(bid.quantity());
+        } else if (event instanceof GameEvent.Challenged challenged) {
+            buffer.put(CHALLENGED).put((byte) challenged.seat()).putShort((short) 0).putInt(challenged.actualCount());
+        } else if (event instanceof GameEvent.DieLost lost) {
+            buffer.put(DIE_LOST).put((byte) lost.seat()).putShort((short) 0).putInt(0);
+        } else if (event instanceof GameEvent.PlayerEliminated eliminated) {
+            buffer.put(PLAYER_ELIMINATED).put((byte) eliminated.seat()).putShort((short) 0).putInt(0);
+        } else if (event instanceof GameEvent.GameOver over) {
+            buffer.put(GAME_OVER).put((byte) over.winnerSeat()).putShort((short) 0).putInt(0);
+        } else {
+            // Game starts carry names and are written to the database directly
+            throw new IllegalArgumentException("Cannot journal " + event.getClass().getSimpleName());
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+
+        crc.reset();
+        crc.update(buffer.array(), 8, RECORD_SIZE - 8);
+        buffer.putInt(4, (int) crc.getValue());
+    }
+
+    private Entry decode(ByteBuffer buffer, int offset, long index) {
+        if (buffer.getInt(offset) != MAGIC) {
+            return null;
+        }
+        byte[] body = new byte[RECORD_SIZE - 8];
+        buffer.get(offset + 8, body);
+        crc.reset();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            logger.warn("Journal record {} is torn, ignoring it and anything after it in its segment", index);
+            return null;
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(body);
+        long gameId = record.getLong();
+        long seq = record.getLong();
+        LocalDateTime createdAt = fromMicros(record.getLong());
+        long userId = record.getLong();
+        byte type = record.get();
+        int seat = record.get() & 0xFF;
+        int small = record.getShort() & 0xFFFF;
+        int value = record.getInt();
+
+        GameEvent event = switch (type) {
+            case DICE_ROLLED -> {
+                long[] hands = new long[Math.min(seat, MAX_SEATS)];
+                for (int i = 0; i < hands.length; i++) {
+                    hands[i] = record.getLong();
+                }
+                yield new GameEvent.DiceRolled(value, small, hands);
+            }
+            case BID_PLACED -> new GameEvent.BidPlaced(seat, value, small);
+            case CHALLENGED -> new GameEvent.Challenged(seat, value);
+            case DIE_LOST -> new GameEvent.DieLost(seat);
+            case PLAYER_ELIMINATED -> new GameEvent.PlayerEliminated(seat);
+            case GAME_OVER -> new GameEvent.GameOver(seat);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+        return new Entry(index, new GameEvent.Logged(gameId, seq, event, createdAt), userId != 0 ? userId : null);
+    }
+
+    private static long toMicros(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + at.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * A journaled event. {@code userId} is the player behind a bid or challenge, null
+     * for the events that follow from it.
+     */
+    public record Entry(long index, GameEvent.Logged event, Long userId) {
+
+        /**
+         * The {@code game_moves} row this entry stands for, if it is a move.
+         */
+        public PendingMove toMove() {
+            GameEvent.Logged logged = event;
+            if (logged.event() instanceof GameEvent.BidPlaced bid) {
+                return new PendingMove(logged.gameId(), userId, GameMove.MoveType.BID,
+                        bid.quantity(), bid.faceValue(), logged.createdAt());
+            }
+            if (logged.event() instanceof GameEvent.Challenged) {
+                return new PendingMove(logged.gameId(), userId, GameMove.MoveType.CHALLENGE,
+                        null, null, logged.createdAt());
+            }
+            return null;
+        }
+    }
+
+    private static final class Segment {
+        private final long base;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean sealed;
+
+        private Segment(long base, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.base = base;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.model.GameMove;
+
+import java.time.LocalDateTime;
+
+/**
+ * A move accepted by the engine that has not yet been written to {@code game_moves}.
+ */
+public record PendingMove(Long gameId, Long userId, GameMove.MoveType moveType,
+                          Integer bidQuantity, Integer bidFaceValue, LocalDateTime createdAt) {
+
+    public static PendingMove bid(Long gameId, Long userId, int quantity, int faceValue) {
+        return new PendingMove(gameId, userId, GameMove.MoveType.BID, quantity, faceValue, LocalDateTime.now());
+    }
+
+    public static PendingMove challenge(Long gameId, Long userId) {
+        return new PendingMove(gameId, userId, GameMove.MoveType.CHALLENGE, null, null, LocalDateTime.now());
+    }
+}
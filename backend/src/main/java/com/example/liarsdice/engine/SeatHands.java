@@ -0,0 +1,24 @@
+package com.example.liarsdice.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Packed hands of some of a table's seats, keyed by username, as rolled for
+ * {@code roundNumber}. Hands are private to their seat, so they never travel with a
+ * game's public updates; a node asks the game's owner for just the seats it serves.
+ */
+public record SeatHands(int roundNumber, Map<String, Long> hands) {
+
+    /**
+     * These hands and {@code other}'s, if both are for the same round; otherwise {@code other}.
+     */
+    public SeatHands merge(SeatHands other) {
+        if (other.roundNumber != roundNumber) {
+            return other;
+        }
+        Map<String, Long> merged = new HashMap<>(hands);
+        merged.putAll(other.hands);
+        return new SeatHands(roundNumber, merged);
+    }
+}
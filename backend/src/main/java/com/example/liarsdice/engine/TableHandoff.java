@@ -0,0 +1,10 @@
+package com.example.liarsdice.engine;
+
+/**
+ * Told before the engine loads a game it doesn't hold from the database, so that
+ * another node that held the game can write out what it has first.
+ */
+public interface TableHandoff {
+
+    void beforeLoad(Long gameId);
+}
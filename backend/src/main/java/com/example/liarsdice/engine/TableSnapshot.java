@@ -0,0 +1,15 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.model.Game;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything a {@link GameTable} holds after the first {@code seq} events of its log.
+ * Taken every few events so rebuilding a table only replays the events since.
+ */
+public record TableSnapshot(long seq, long version, Game.GameStatus status, int roundNumber, int currentSeat,
+                            int bidQuantity, int bidFaceValue, int bidderSeat, List<GameEvent.SeatInfo> seats,
+                            long[] hands, GameStateResponse.GameMove lastMove, LocalDateTime updatedAt) {}
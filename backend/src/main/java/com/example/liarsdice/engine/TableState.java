@@ -0,0 +1,15 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.model.Game;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of the persistent columns of a {@link GameTable}. {@code version}
+ * increases with every change so write-behind can keep only the newest copy per game.
+ */
+public record TableState(Long gameId, long version, Game.GameStatus status, int roundNumber,
+                         Long currentUserId, List<SeatState> seats) {
+
+    public record SeatState(Long playerId, int diceCount, boolean active) {}
+}
@@ -0,0 +1,30 @@
+package com.example.liarsdice.lobby;
+
+import com.example.liarsdice.dto.response.RoomResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One room entering, changing in, or leaving the lobby, as of index {@code version}.
+ * {@code room} is null for removals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LobbyChange(Type type, Long roomId, RoomResponse room, long version) {
+
+    public enum Type {
+        ADDED,
+        CHANGED,
+        REMOVED
+    }
+
+    /**
+     * Folds a later change to the same room into this one; null if the two cancel out.
+     */
+    public LobbyChange then(LobbyChange next) {
+        if (next.type == Type.REMOVED) {
+            // A room that came and went within the window was never seen
+            return type == Type.ADDED ? null : next;
+        }
+        Type merged = type == Type.ADDED ? Type.ADDED : Type.CHANGED;
+        return new LobbyChange(merged, roomId, next.room, next.version);
+    }
+}
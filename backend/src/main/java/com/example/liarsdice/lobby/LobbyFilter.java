@@ -0,0 +1,36 @@
+package com.example.liarsdice.lobby;
+
+import com.example.liarsdice.dto.response.RoomResponse;
+
+/**
+ * Which active rooms a lobby listing shows. Null fields don't filter. Fill levels
+ * are whole percentages of seats taken.
+ */
+public record LobbyFilter(Integer minOpenSeats, Boolean hasPassword, Integer minFillPercent, Integer maxFillPercent) {
+
+    // What GET /rooms has always listed: active rooms with a free seat
+    public static final LobbyFilter AVAILABLE = new LobbyFilter(1, null, null, null);
+
+    public LobbyFilter {
+        if (minOpenSeats != null && minOpenSeats < 0) {
+            throw new IllegalArgumentException("Open seats cannot be negative");
+        }
+        if ((minFillPercent != null && (minFillPercent < 0 || minFillPercent > 100))
+                || (maxFillPercent != null && (maxFillPercent < 0 || maxFillPercent > 100))) {
+            throw new IllegalArgumentException("Fill levels must be between 0 and 100");
+        }
+    }
+
+    public boolean matches(RoomResponse room) {
+        int open = room.getMaxPlayers() - room.getCurrentPlayers();
+        if (minOpenSeats != null && open < minOpenSeats) {
+            return false;
+        }
+        if (hasPassword != null && room.isHasPassword() != hasPassword) {
+            return false;
+        }
+        int fill = room.getCurrentPlayers() * 100 / room.getMaxPlayers();
+        return (minFillPercent == null || fill >= minFillPercent)
+                && (maxFillPercent == null || fill <= maxFillPercent);
+    }
+}
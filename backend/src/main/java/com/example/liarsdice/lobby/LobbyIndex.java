@@ -0,0 +1,277 @@
+package com.example.liarsdice.lobby;
+
+import com.example.liarsdice.dto.request.PageCursor;
+import com.example.liarsdice.dto.response.ApiResponse;
+import com.example.liarsdice.dto.response.CursorPage;
+import com.example.liarsdice.dto.response.RoomResponse;
+import com.example.liarsdice.repository.RoomRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every active room, held in memory so the lobby is listed without touching the
+ * database. Loaded once at startup and then kept current by {@link RoomChangedEvent}s,
+ * applied only after the change has committed.
+ * <p>
+ * Listings are paged by {@code (created_at, id)}, newest first. The first page of each
+ * filter is served as a pre-serialized response body, built on first use and reused
+ * until the next room change. {@link LobbyListener}s hear about
+ * each change as it is applied. Room names are searched through a {@link RoomNameIndex},
+ * so a search costs the same however many rooms have ever been created.
+ */
+@Component
+public class LobbyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LobbyIndex.class);
+
+    // Newest rooms first
+    private static final Comparator<RoomKey> ORDER = Comparator
+            .comparing(RoomKey::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(RoomKey::id, Comparator.reverseOrder());
+
+    private static final Comparator<Ranked> BEST = Comparator.comparingInt(Ranked::rank)
+            .thenComparing(Ranked::key, ORDER);
+
+    private static final int MAX_SNAPSHOTS = 256;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final Map<Long, RoomResponse> rooms = new ConcurrentHashMap<>();
+    private final NavigableMap<RoomKey, RoomResponse> newestFirst = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<SnapshotKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final List<LobbyListener> listeners = new CopyOnWriteArrayList<>();
+    private final RoomNameIndex names = new RoomNameIndex();
+
+    private final RoomRepository roomRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public LobbyIndex(RoomRepository roomRepository, PlatformTransactionManager transactionManager,
+                      ObjectMapper objectMapper) {
+        this.roomRepository = roomRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void load() {
+        List<RoomResponse> active = readOnlyTransaction.execute(status -> roomRepository.findActiveWithCreator()
+                .stream()
+                .map(RoomResponse::new)
+                .toList());
+        synchronized (this) {
+            for (RoomResponse room : active) {
+                put(room);
+            }
+            changed();
+        }
+        logger.info("Lobby index loaded with {} active rooms", rooms.size());
+    }
+
+    public void addListener(LobbyListener listener) {
+        listeners.add(listener);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        LobbyChange change;
+        synchronized (this) {
+            RoomResponse previous;
+            LobbyChange.Type type;
+            if (event.room() != null) {
+                previous = put(event.room());
+                type = previous == null ? LobbyChange.Type.ADDED : LobbyChange.Type.CHANGED;
+            } else {
+                previous = rooms.remove(event.roomId());
+                if (previous != null) {
+                    newestFirst.remove(RoomKey.of(previous));
+                }
+                names.remove(event.roomId());
+                type = LobbyChange.Type.REMOVED;
+            }
+            if (previous == null && type == LobbyChange.Type.REMOVED) {
+                return;
+            }
+            change = new LobbyChange(type, event.roomId(), event.room(), changed());
+        }
+        for (LobbyListener listener : listeners) {
+            listener.onLobbyChanged(change);
+        }
+    }
+
+    public List<RoomResponse> find(LobbyFilter filter) {
+        List<RoomResponse> matching = new ArrayList<>();
+        for (RoomResponse room : newestFirst.values()) {
+            if (filter.matches(room)) {
+                matching.add(room);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * A page of the listing, newest first, starting after {@code after} (null for the
+     * first page). Walks the ordered rooms from the cursor, so a page costs the same
+     * however deep into the lobby it is.
+     */
+    public CursorPage<RoomResponse> page(LobbyFilter filter, PageCursor after, int limit) {
+        checkLimit(limit);
+        Collection<RoomResponse> candidates = after == null
+                ? newestFirst.values()
+                : newestFirst.tailMap(new RoomKey(after.createdAt(), after.id()), false).values();
+
+        List<RoomResponse> items = new ArrayList<>(limit);
+        for (RoomResponse room : candidates) {
+            if (!filter.matches(room)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                RoomResponse last = items.get(limit - 1);
+                return new CursorPage<>(items, PageCursor.of(last.getCreatedAt(), last.getId()).encode());
+            }
+            items.add(room);
+        }
+        return new CursorPage<>(items, null);
+    }
+
+    /**
+     * Active rooms whose name contains {@code query}, ignoring case. An exact name match
+     * ranks first, then names starting with the query, then names with a word starting
+     * with it, then any other match; newest first within each. The cursor carries the
+     * rank, so later pages continue in the same order.
+     */
+    public CursorPage<RoomResponse> search(String query, PageCursor after, int limit) {
+        checkLimit(limit);
+        String normalized = RoomNameIndex.normalize(query);
+        Ranked from = after == null ? null : new Ranked(null, after.rank(), new RoomKey(after.createdAt(), after.id()));
+
+        // Keep only the best limit + 1 matches, worst on top to be evicted first
+        PriorityQueue<Ranked> top = new PriorityQueue<>(limit + 2, BEST.reversed());
+        for (Long roomId : names.search(normalized)) {
+            RoomResponse room = rooms.get(roomId);
+            if (room == null) {
+                continue;
+            }
+            Ranked ranked = new Ranked(room, names.rank(roomId, normalized), RoomKey.of(room));
+            if (from != null && BEST.compare(ranked, from) <= 0) {
+                continue;
+            }
+            if (top.size() <= limit) {
+                top.add(ranked);
+            } else if (BEST.compare(ranked, top.peek()) < 0) {
+                top.poll();
+                top.add(ranked);
+            }
+        }
+
+        List<Ranked> ordered = new ArrayList<>(top);
+        ordered.sort(BEST);
+        List<RoomResponse> items = new ArrayList<>(Math.min(limit, ordered.size()));
+        for (int i = 0; i < ordered.size() && i < limit; i++) {
+            items.add(ordered.get(i).room());
+        }
+        String next = null;
+        if (ordered.size() > limit) {
+            Ranked last = ordered.get(limit - 1);
+            next = new PageCursor(last.rank(), last.key().createdAt(), last.key().id()).encode();
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    /**
+     * The serialized {@code ApiResponse} body for the first page of a listing, with the
+     * cursor for the page after it.
+     */
+    public Listing snapshot(LobbyFilter filter, int limit) {
+        long current = version.get();
+        SnapshotKey key = new SnapshotKey(filter, limit);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.version() == current) {
+            return snapshot.listing();
+        }
+
+        CursorPage<RoomResponse> page = page(filter, null, limit);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ApiResponse.success("Rooms retrieved successfully", page.items()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize rooms", e);
+        }
+        if (snapshots.size() >= MAX_SNAPSHOTS) {
+            snapshots.clear();
+        }
+        Listing listing = new Listing(body, page.nextCursor());
+        snapshots.put(key, new Snapshot(current, listing));
+        return listing;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int activeRooms() {
+        return rooms.size();
+    }
+
+    private RoomResponse put(RoomResponse room) {
+        RoomResponse previous = rooms.put(room.getId(), room);
+        RoomKey key = RoomKey.of(room);
+        // Replaced in place when the key is unchanged, so readers never miss the room
+        if (previous != null && !RoomKey.of(previous).equals(key)) {
+            newestFirst.remove(RoomKey.of(previous));
+        }
+        newestFirst.put(key, room);
+        names.put(room.getId(), room.getName());
+        return previous;
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private long changed() {
+        long next = version.incrementAndGet();
+        snapshots.clear();
+        return next;
+    }
+
+    /**
+     * A serialized first page and the cursor for the next one, null if there is none.
+     */
+    public record Listing(byte[] body, String nextCursor) {}
+
+    private record RoomKey(LocalDateTime createdAt, long id) {
+        static RoomKey of(RoomResponse room) {
+            return new RoomKey(room.getCreatedAt(), room.getId());
+        }
+    }
+
+    private record Ranked(RoomResponse room, int rank, RoomKey key) {}
+
+    private record SnapshotKey(LobbyFilter filter, int limit) {}
+
+    private record Snapshot(long version, Listing listing) {}
+}
@@ -0,0 +1,9 @@
+package com.example.liarsdice.lobby;
+
+/**
+ * Notified by {@link LobbyIndex} after each change it applies.
+ */
+public interface LobbyListener {
+
+    void onLobbyChanged(LobbyChange change);
+}
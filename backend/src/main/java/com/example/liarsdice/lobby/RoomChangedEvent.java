@@ -0,0 +1,18 @@
+package com.example.liarsdice.lobby;
+
+import com.example.liarsdice.dto.response.RoomResponse;
+
+/**
+ * Published by {@code RoomService} whenever a room is created, joined, left or closed.
+ * {@code room} is the room as committed, or null once it has left the lobby.
+ */
+public record RoomChangedEvent(Long roomId, RoomResponse room) {
+
+    public static RoomChangedEvent updated(RoomResponse room) {
+        return new RoomChangedEvent(room.getId(), room.isActive() ? room : null);
+    }
+
+    public static RoomChangedEvent removed(Long roomId) {
+        return new RoomChangedEvent(roomId, null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.liarsdice.lobby;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram index over the names of active rooms. A query is answered by intersecting
+ * the posting sets of its trigrams, smallest first, and checking the few survivors
+ * for a real substring match, so the cost follows the number of matching rooms rather
+ * than the number of rooms. Queries shorter than a trigram check every indexed name.
+ * <p>
+ * Writes come from {@link LobbyIndex} under its lock; reads need none.
+ */
+class RoomNameIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    void put(Long roomId, String name) {
+        String normalized = normalize(name);
+        String previous = names.put(roomId, normalized);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            removeGrams(roomId, previous);
+        }
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(roomId);
+        }
+    }
+
+    void remove(Long roomId) {
+        String previous = names.remove(roomId);
+        if (previous != null) {
+            removeGrams(roomId, previous);
+        }
+    }
+
+    /**
+     * Ids of rooms whose name contains {@code query}, ignoring case, in no particular order.
+     */
+    List<Long> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        if (normalized.length() < GRAM) {
+            List<Long> matches = new ArrayList<>();
+            names.forEach((roomId, name) -> {
+                if (name.contains(normalized)) {
+                    matches.add(roomId);
+                }
+            });
+            return matches;
+        }
+
+        List<Set<Long>> sets = new ArrayList<>();
+        for (String gram : grams(normalized)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            sets.add(posting);
+        }
+        sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        // Walk the rarest trigram's rooms and probe the rest, without copying any set
+        List<Long> matches = new ArrayList<>();
+        candidates:
+        for (Long roomId : sets.get(0)) {
+            for (int i = 1; i < sets.size(); i++) {
+                if (!sets.get(i).contains(roomId)) {
+                    continue candidates;
+                }
+            }
+            String name = names.get(roomId);
+            // Shared trigrams don't guarantee they appear in order
+            if (name != null && name.contains(normalized)) {
+                matches.add(roomId);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * How well a room's name matches an already normalized query, lower is better: 0 for
+     * the whole name, 1 for a prefix, 2 for the start of a later word, 3 for anything else.
+     */
+    int rank(Long roomId, String normalizedQuery) {
+        String name = names.get(roomId);
+        if (name == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (name.equals(normalizedQuery)) {
+            return 0;
+        }
+        if (name.startsWith(normalizedQuery)) {
+            return 1;
+        }
+        int at = name.indexOf(normalizedQuery);
+        if (at > 0 && !Character.isLetterOrDigit(name.charAt(at - 1))) {
+            return 2;
+        }
+        return 3;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void removeGrams(Long roomId, String name) {
+        for (String gram : grams(name)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(roomId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram, posting);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        if (text.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.liarsdice.lobby;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Seat counts and members of rooms, held in memory so joins race on a compare-and-set
+ * instead of on the room's row. Only joins that win a seat here go on to the database,
+ * where a conditional update still guards the count; a room crowded by hundreds of
+ * joins sends no more than its free seats' worth of writes.
+ * <p>
+ * A room's seats are loaded on first use and dropped when it closes, or whenever the
+ * database disagrees with them.
+ */
+@Component
+public class RoomSeats {
+
+    public enum Reservation {
+        RESERVED,
+        ALREADY_SEATED,
+        FULL
+    }
+
+    private final Map<Long, Seats> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * The seats of a room, loaded from the given count and members if not held yet.
+     */
+    public Seats of(Long roomId, int capacity, int occupied, Supplier<Collection<Long>> members) {
+        return rooms.computeIfAbsent(roomId, id -> new Seats(capacity, occupied, members.get()));
+    }
+
+    public void evict(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    public static final class Seats {
+
+        private final int capacity;
+        private final AtomicInteger occupied;
+        private final Set<Long> members = ConcurrentHashMap.newKeySet();
+
+        // A count ahead of the members loaded keeps its extra seats taken
+        Seats(int capacity, int occupied, Collection<Long> members) {
+            this.capacity = capacity;
+            this.members.addAll(members);
+            this.occupied = new AtomicInteger(Math.max(occupied, this.members.size()));
+        }
+
+        public Reservation reserve(Long userId) {
+            if (members.contains(userId)) {
+                return Reservation.ALREADY_SEATED;
+            }
+            int taken;
+            do {
+                taken = occupied.get();
+                if (taken >= capacity) {
+                    return Reservation.FULL;
+                }
+            } while (!occupied.compareAndSet(taken, taken + 1));
+
+            // Two joins by the same user can both get this far; only one keeps its seat
+            if (!members.add(userId)) {
+                occupied.decrementAndGet();
+                return Reservation.ALREADY_SEATED;
+            }
+            return Reservation.RESERVED;
+        }
+
+        /**
+         * Frees the user's seat.
+         *
+         * @return false if the user held no seat
+         */
+        public boolean release(Long userId) {
+            if (members.remove(userId)) {
+                occupied.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isMember(Long userId) {
+            return members.contains(userId);
+        }
+
+        public int occupied() {
+            return occupied.get();
+        }
+
+        public Set<Long> members() {
+            return Collections.unmodifiableSet(members);
+        }
+    }
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class GameMove {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_moves_id_seq")
+    @SequenceGenerator(name = "game_moves_id_seq", sequenceName = "game_moves_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,7 +36,9 @@ public class GameMove {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     // Constructors
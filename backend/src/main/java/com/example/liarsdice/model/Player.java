@@ -2,14 +2,13 @@ package com.example.liarsdice.model;
 
 import jakarta.persistence.*;
 
-import java.util.List;
-
 @Entity
 @Table(name = "players")
 public class Player {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "players_id_seq")
+    @SequenceGenerator(name = "players_id_seq", sequenceName = "players_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,10 +28,6 @@ public class Player {
     @Column(name = "player_order")
     private Integer playerOrder;
 
-    // Transient field to hold current dice values (not persisted)
-    @Transient
-    private List<Integer> currentDice;
-
     // Constructors
     public Player() {}
 
@@ -104,12 +99,4 @@ public class Player {
     public void setPlayerOrder(Integer playerOrder) {
         this.playerOrder = playerOrder;
     }
-
-    public List<Integer> getCurrentDice() {
-        return currentDice;
-    }
-
-    public void setCurrentDice(List<Integer> currentDice) {
-        this.currentDice = currentDice;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.liarsdice.odds;
+
+/**
+ * Exact upper-tail probabilities of a binomial distribution, computed once for every
+ * number of unseen dice up to {@code maxDice}. A lookup is two array reads.
+ */
+final class BinomialTable {
+
+    // tails[n][k] = P(at least k of n dice count), for k from 0 to n + 1
+    private final double[][] tails;
+
+    BinomialTable(int maxDice, double chance) {
+        tails = new double[maxDice + 1][];
+        for (int n = 0; n <= maxDice; n++) {
+            double[] exactly = new double[n + 1];
+            // P(k) from P(k-1), starting at (1-p)^n, keeps every term within double range
+            exactly[0] = Math.pow(1 - chance, n);
+            for (int k = 1; k <= n; k++) {
+                exactly[k] = exactly[k - 1] * (n - k + 1) / k * chance / (1 - chance);
+            }
+            double[] tail = new double[n + 2];
+            for (int k = n; k >= 0; k--) {
+                tail[k] = Math.min(1.0, tail[k + 1] + exactly[k]);
+            }
+            tails[n] = tail;
+        }
+    }
+
+    /**
+     * The chance that at least {@code needed} of {@code dice} unseen dice count.
+     */
+    double atLeast(int dice, int needed) {
+        if (needed <= 0) {
+            return 1.0;
+        }
+        if (needed > dice) {
+            return 0.0;
+        }
+        return tails[dice][needed];
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.liarsdice.odds;
+
+import com.example.liarsdice.engine.Dice;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the chance a bid holds by rolling the unseen hands many times over. Trials
+ * are split in halves across a fork-join pool down to a fixed batch size; each half
+ * takes its own {@link SplittableRandom} split from its parent's, so no task shares a
+ * generator or any other mutable state and the result depends only on the seed.
+ */
+public final class MonteCarloOdds {
+
+    static final int BATCH = 1024;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloOdds(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param needed     how many dice must count among the unseen hands for the bid to hold
+     * @param handSizes  dice in each unseen hand
+     */
+    public double chance(OddsRule rule, int faceValue, int needed, int[] handSizes, int trials, long seed) {
+        if (needed <= 0) {
+            return 1.0;
+        }
+        long hits = pool.invoke(new Trials(rule, faceValue, needed, handSizes, trials, new SplittableRandom(seed)));
+        return (double) hits / trials;
+    }
+
+    private static final class Trials extends RecursiveTask<Long> {
+        private final OddsRule rule;
+        private final int faceValue;
+        private final int needed;
+        private final int[] handSizes;
+        private final int trials;
+        private final SplittableRandom random;
+
+        private Trials(OddsRule rule, int faceValue, int needed, int[] handSizes, int trials, SplittableRandom random) {
+            this.rule = rule;
+            this.faceValue = faceValue;
+            this.needed = needed;
+            this.handSizes = handSizes;
+            this.trials = trials;
+            this.random = random;
+        }
+
+        @Override
+        protected Long compute() {
+            if (trials <= BATCH) {
+                return run();
+            }
+            int half = trials / 2;
+            Trials left = new Trials(rule, faceValue, needed, handSizes, half, random.split());
+            left.fork();
+            long right = new Trials(rule, faceValue, needed, handSizes, trials - half, random).compute();
+            return right + left.join();
+        }
+
+        private long run() {
+            long hits = 0;
+            for (int trial = 0; trial < trials; trial++) {
+                int counted = 0;
+                for (int i = 0; i < handSizes.length && counted < needed; i++) {
+                    counted += rule.count(Dice.roll(handSizes[i], random), faceValue);
+                }
+                if (counted >= needed) {
+                    hits++;
+                }
+            }
+            return hits;
+        }
+    }
+}
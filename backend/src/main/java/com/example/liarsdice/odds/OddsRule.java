@@ -0,0 +1,95 @@
+package com.example.liarsdice.odds;
+
+import com.example.liarsdice.engine.Dice;
+
+/**
+ * How dice count toward a bid. The game itself plays {@link #STANDARD}; the others are
+ * house variants players can ask the odds for.
+ */
+public enum OddsRule {
+
+    /**
+     * Only dice showing the bid face count.
+     */
+    STANDARD {
+        @Override
+        public int count(long hand, int faceValue) {
+            return Dice.count(hand, faceValue);
+        }
+
+        @Override
+        public double dieChance(int faceValue) {
+            return 1.0 / Dice.FACES;
+        }
+    },
+
+    /**
+     * Ones count as any face, except that a bid on ones counts only ones.
+     */
+    ONES_WILD {
+        @Override
+        public int count(long hand, int faceValue) {
+            return faceValue == 1 ? Dice.count(hand, 1) : Dice.count(hand, faceValue) + Dice.count(hand, 1);
+        }
+
+        @Override
+        public double dieChance(int faceValue) {
+            return faceValue == 1 ? 1.0 / Dice.FACES : 2.0 / Dice.FACES;
+        }
+    },
+
+    /**
+     * Ones are wild, but a hand of five dice all showing different faces counts for
+     * nothing. Whether a die counts depends on the rest of its hand, so there is no
+     * binomial shortcut.
+     */
+    STRAIGHTS_VOID {
+        @Override
+        public int count(long hand, int faceValue) {
+            return isStraight(hand) ? 0 : ONES_WILD.count(hand, faceValue);
+        }
+
+        @Override
+        public double dieChance(int faceValue) {
+            return Double.NaN;
+        }
+
+        @Override
+        public double approximateDieChance(int faceValue) {
+            // Straights only take dice away, so this overstates the odds a little
+            return ONES_WILD.dieChance(faceValue);
+        }
+    };
+
+    public abstract int count(long hand, int faceValue);
+
+    /**
+     * The chance that a single unseen die counts toward a bid on {@code faceValue}, or NaN
+     * if dice don't count independently of each other.
+     */
+    public abstract double dieChance(int faceValue);
+
+    /**
+     * The nearest per-die chance for a binomial estimate: {@link #dieChance} where dice
+     * are independent, otherwise that of the closest rule where they are.
+     */
+    public double approximateDieChance(int faceValue) {
+        return dieChance(faceValue);
+    }
+
+    public boolean isIndependent() {
+        return !Double.isNaN(dieChance(1));
+    }
+
+    private static boolean isStraight(long hand) {
+        if (Dice.size(hand) != 5) {
+            return false;
+        }
+        for (int face = 1; face <= Dice.FACES; face++) {
+            if (Dice.count(hand, face) > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.liarsdice.odds;
+
+import com.example.liarsdice.engine.Dice;
+
+/**
+ * {@link BinomialTable}s for every per-die chance a rule can have, a whole number of
+ * sixths, built up front for up to {@link #MAX_DICE} unseen dice.
+ */
+public final class OddsTables {
+
+    public static final int MAX_DICE = 64;
+
+    private final BinomialTable[] bySixths = new BinomialTable[Dice.FACES];
+
+    public OddsTables() {
+        for (int sixths = 1; sixths < Dice.FACES; sixths++) {
+            bySixths[sixths] = new BinomialTable(MAX_DICE, (double) sixths / Dice.FACES);
+        }
+    }
+
+    /**
+     * The chance that at least {@code needed} of {@code dice} unseen dice count, when
+     * each counts with {@code dieChance}.
+     */
+    public double atLeast(double dieChance, int dice, int needed) {
+        int sixths = (int) Math.round(dieChance * Dice.FACES);
+        if (sixths < 1 || sixths >= Dice.FACES || dice > MAX_DICE) {
+            throw new IllegalArgumentException("No table for " + dice + " dice at chance " + dieChance);
+        }
+        return bySixths[sixths].atLeast(dice, needed);
+    }
+
+    /**
+     * Like {@link #atLeast}, but for any number of dice: past {@link #MAX_DICE} the tail
+     * is summed directly, which is linear in {@code dice} rather than a lookup.
+     */
+    public double estimate(double dieChance, int dice, int needed) {
+        if (dice <= MAX_DICE) {
+            return atLeast(dieChance, dice, needed);
+        }
+        if (needed <= 0) {
+            return 1.0;
+        }
+        if (needed > dice) {
+            return 0.0;
+        }
+        // Same recurrence as BinomialTable, for one row
+        double exactly = Math.pow(1 - dieChance, dice);
+        double below = 0;
+        for (int k = 0; k < needed; k++) {
+            below += exactly;
+            exactly = exactly * (dice - k) / (k + 1) * dieChance / (1 - dieChance);
+        }
+        return Math.max(0.0, 1.0 - below);
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.liarsdice.replay;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.dto.response.ReplayFrame;
+import com.example.liarsdice.engine.Dice;
+import com.example.liarsdice.engine.GameEvent;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.exception.GameException;
+import com.example.liarsdice.model.Game;
+import com.example.liarsdice.model.GameMove;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A finished game's moves and round results packed into primitive arrays, built in one
+ * pass over its event log. Every round keeps a checkpoint of the dice each seat held when
+ * it started, so {@link #frameAt} seeks to any move with a binary search over rounds and
+ * one step from the checkpoint, independent of how long the game ran.
+ */
+public final class GameReplay {
+
+    private static final int BID = 0;
+    private static final int CHALLENGE = 1;
+
+    private final Long gameId;
+    private final List<GameEvent.SeatInfo> seats;
+
+    // One int per move: type, seat, quantity (actual count for challenges) and face value
+    private final int[] moves;
+    private final long[] movedAt;
+
+    // Per round: index of its first move, its number, opener, loser and, per seat, hands and starting dice
+    private final int[] roundStart;
+    private final int[] roundNumbers;
+    private final int[] openers;
+    private final int[] losers;
+    private final long[] hands;
+    private final byte[] checkpoints;
+
+    private GameReplay(Long gameId, List<GameEvent.SeatInfo> seats, int[] moves, long[] movedAt, int[] roundStart,
+                       int[] roundNumbers, int[] openers, int[] losers, long[] hands, byte[] checkpoints) {
+        this.gameId = gameId;
+        this.seats = seats;
+        this.moves = moves;
+        this.movedAt = movedAt;
+        this.roundStart = roundStart;
+        this.roundNumbers = roundNumbers;
+        this.openers = openers;
+        this.losers = losers;
+        this.hands = hands;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Packs a game's complete event log, in seq order.
+     */
+    public static GameReplay of(Long gameId, List<GameEvent.Logged> events) {
+        if (events.isEmpty() || !(events.get(0).event() instanceof GameEvent.GameStarted started)) {
+            throw new GameException("Event log of game " + gameId + " does not start with the game");
+        }
+        List<GameEvent.SeatInfo> seats = List.copyOf(started.seats());
+        int seatCount = seats.size();
+        byte[] dice = new byte[seatCount];
+        for (int i = 0; i < seatCount; i++) {
+            dice[i] = (byte) seats.get(i).diceCount();
+        }
+
+        int moveCount = 0;
+        int roundCount = 0;
+        for (GameEvent.Logged logged : events) {
+            GameEvent event = logged.event();
+            if (event instanceof GameEvent.BidPlaced || event instanceof GameEvent.Challenged) {
+                moveCount++;
+            } else if (event instanceof GameEvent.DiceRolled) {
+                roundCount++;
+            }
+        }
+
+        int[] moves = new int[moveCount];
+        long[] movedAt = new long[moveCount];
+        int[] roundStart = new int[roundCount];
+        int[] roundNumbers = new int[roundCount];
+        int[] openers = new int[roundCount];
+        int[] losers = new int[roundCount];
+        long[] hands = new long[roundCount * seatCount];
+        byte[] checkpoints = new byte[roundCount * seatCount];
+        Arrays.fill(losers, -1);
+        boolean over = false;
+
+        int move = 0;
+        int round = -1;
+        for (GameEvent.Logged logged : events) {
+            GameEvent event = logged.event();
+            if (event instanceof GameEvent.DiceRolled rolled) {
+                round++;
+                roundStart[round] = move;
+                roundNumbers[round] = rolled.roundNumber();
+                openers[round] = rolled.openerSeat();
+                System.arraycopy(rolled.hands(), 0, hands, round * seatCount, seatCount);
+                System.arraycopy(dice, 0, checkpoints, round * seatCount, seatCount);
+            } else if (event instanceof GameEvent.BidPlaced bid) {
+                movedAt[move] = toMillis(logged.createdAt());
+                moves[move++] = pack(BID, bid.seat(), bid.quantity(), bid.faceValue());
+            } else if (event instanceof GameEvent.Challenged challenged) {
+                movedAt[move] = toMillis(logged.createdAt());
+                moves[move++] = pack(CHALLENGE, challenged.seat(), challenged.actualCount(), 0);
+            } else if (event instanceof GameEvent.DieLost lost) {
+                dice[lost.seat()]--;
+                losers[round] = lost.seat();
+            } else if (event instanceof GameEvent.GameOver) {
+                over = true;
+            }
+        }
+        if (!over) {
+            throw new GameException("Game " + gameId + " has not finished");
+        }
+        return new GameReplay(gameId, seats, moves, movedAt, roundStart, roundNumbers, openers, losers, hands,
+                checkpoints);
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public int moveCount() {
+        return moves.length;
+    }
+
+    /**
+     * The table after the first {@code move} moves; 0 is the opening roll.
+     */
+    public ReplayFrame frameAt(int move) {
+        if (move < 0 || move > moves.length) {
+            throw new GameException("Move must be between 0 and " + moves.length);
+        }
+        if (move == 0) {
+            return frame(0, 0, Game.GameStatus.IN_PROGRESS, openers[0], null, null, checkpointOf(0));
+        }
+
+        int index = move - 1;
+        int round = roundOf(index);
+        int packed = moves[index];
+        int seat = seatOf(packed);
+        int[] dice = checkpointOf(round);
+        LocalDateTime at = fromMillis(movedAt[index]);
+
+        if (typeOf(packed) == BID) {
+            GameStateResponse.GameMove lastMove = new GameStateResponse.GameMove(usernameOf(seat),
+                    GameMove.MoveType.BID, quantityOf(packed), faceOf(packed), at);
+            return frame(move, round, Game.GameStatus.IN_PROGRESS, nextActiveSeat(seat, dice), lastMove, null, dice);
+        }
+
+        // A challenge always answers the bid just before it, in the same round
+        int bid = moves[index - 1];
+        int loser = losers[round];
+        dice[loser]--;
+        boolean gameOver = round == roundStart.length - 1;
+        GameTable.ChallengeResult challenge = new GameTable.ChallengeResult(usernameOf(seat), usernameOf(seatOf(bid)),
+                quantityOf(bid), faceOf(bid), quantityOf(packed), usernameOf(loser), dice[loser] == 0, gameOver);
+        GameStateResponse.GameMove lastMove = new GameStateResponse.GameMove(usernameOf(seat),
+                GameMove.MoveType.CHALLENGE, null, null, at);
+        return frame(move, round, gameOver ? Game.GameStatus.FINISHED : Game.GameStatus.IN_PROGRESS,
+                gameOver ? -1 : openers[round + 1], lastMove, challenge, dice);
+    }
+
+    private ReplayFrame frame(int move, int round, Game.GameStatus status, int currentSeat,
+                              GameStateResponse.GameMove lastMove, GameTable.ChallengeResult challenge, int[] dice) {
+        int seatCount = seats.size();
+        List<GameStateResponse.PlayerState> players = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            GameEvent.SeatInfo seat = seats.get(i);
+            GameStateResponse.PlayerState player = new GameStateResponse.PlayerState();
+            player.setUsername(seat.username());
+            player.setPlayerOrder(seat.playerOrder());
+            player.setDiceCount(dice[i]);
+            player.setActive(dice[i] > 0);
+            player.setDice(Dice.toList(hands[round * seatCount + i]));
+            players.add(player);
+        }
+        return new ReplayFrame(gameId, move, moves.length, roundNumbers[round], status.toString(),
+                currentSeat >= 0 ? usernameOf(currentSeat) : null, lastMove, challenge, players);
+    }
+
+    // The last round starting at or before the move
+    private int roundOf(int index) {
+        int low = 0;
+        int high = roundStart.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (roundStart[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int[] checkpointOf(int round) {
+        int seatCount = seats.size();
+        int[] dice = new int[seatCount];
+        for (int i = 0; i < seatCount; i++) {
+            dice[i] = checkpoints[round * seatCount + i];
+        }
+        return dice;
+    }
+
+    private int nextActiveSeat(int from, int[] dice) {
+        for (int step = 1; step <= dice.length; step++) {
+            int candidate = (from + step) % dice.length;
+            if (dice[candidate] > 0) {
+                return candidate;
+            }
+        }
+        return from;
+    }
+
+    private String usernameOf(int seat) {
+        return seats.get(seat).username();
+    }
+
+    private static int pack(int type, int seat, int quantity, int faceValue) {
+        return type << 28 | seat << 20 | quantity << 4 | faceValue;
+    }
+
+    private static int typeOf(int move) {
+        return move >>> 28;
+    }
+
+    private static int seatOf(int move) {
+        return (move >>> 20) & 0xFF;
+    }
+
+    private static int quantityOf(int move) {
+        return (move >>> 4) & 0xFFFF;
+    }
+
+    private static int faceOf(int move) {
+        return move & 0xF;
+    }
+
+    private static long toMillis(LocalDateTime at) {
+        return at.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.liarsdice.repository;
+
+import com.example.liarsdice.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Heartbeats use the database clock, so nodes' own clocks needn't agree
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO cluster_nodes (node_id, url, heartbeat_at) VALUES (:nodeId, :url, now()) " +
+            "ON CONFLICT (node_id) DO UPDATE SET url = EXCLUDED.url, heartbeat_at = EXCLUDED.heartbeat_at",
+            nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId, @Param("url") String url);
+
+    @Query(value = "SELECT * FROM cluster_nodes WHERE heartbeat_at > now() - make_interval(secs => :ttlSeconds)",
+            nativeQuery = true)
+    List<ClusterNode> findLive(@Param("ttlSeconds") double ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM cluster_nodes WHERE heartbeat_at < now() - make_interval(secs => :ttlSeconds)",
+            nativeQuery = true)
+    int deleteExpired(@Param("ttlSeconds") double ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.nodeId = :nodeId")
+    int deleteNode(@Param("nodeId") String nodeId);
+}
@@ -0,0 +1,19 @@
+package com.example.liarsdice.repository;
+
+import com.example.liarsdice.model.GameEventRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GameEventRepository extends JpaRepository<GameEventRecord, Long> {
+
+    @Query("SELECT e FROM GameEventRecord e WHERE e.game.id = :gameId AND e.seq > :afterSeq ORDER BY e.seq")
+    List<GameEventRecord> findTail(@Param("gameId") Long gameId, @Param("afterSeq") long afterSeq);
+
+    @Query("SELECT COALESCE(MAX(e.seq), 0) FROM GameEventRecord e WHERE e.game.id = :gameId")
+    long findLastSeq(@Param("gameId") Long gameId);
+}
@@ -2,18 +2,37 @@ package com.example.liarsdice.repository;
 
 import com.example.liarsdice.model.Game;
 import com.example.liarsdice.model.GameMove;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GameMoveRepository extends JpaRepository<GameMove, Long> {
 
-    List<GameMove> findByGameOrderByCreatedAtAsc(Game game);
+    // Keyset pages in (created_at, id) order, served by idx_game_moves_game_created_id
+    @Query("SELECT gm FROM GameMove gm JOIN FETCH gm.player WHERE gm.game.id = :gameId " +
+            "ORDER BY gm.createdAt, gm.id")
+    List<GameMove> findFirstPage(@Param("gameId") Long gameId, Limit limit);
+
+    @Query("SELECT gm FROM GameMove gm JOIN FETCH gm.player WHERE gm.game.id = :gameId " +
+            "AND (gm.createdAt > :createdAt OR (gm.createdAt = :createdAt AND gm.id > :id)) " +
+            "ORDER BY gm.createdAt, gm.id")
+    List<GameMove> findPageAfter(@Param("gameId") Long gameId, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT gm FROM GameMove gm JOIN FETCH gm.player WHERE gm.game.id = :gameId ORDER BY gm.createdAt, gm.id")
+    Stream<GameMove> streamByGameId(@Param("gameId") Long gameId);
 
     @Query("SELECT gm FROM GameMove gm WHERE gm.game = :game ORDER BY gm.createdAt DESC")
     List<GameMove> findByGameOrderByCreatedAtDesc(@Param("game") Game game);
@@ -3,6 +3,7 @@ package com.example.liarsdice.repository;
 import com.example.liarsdice.model.Game;
 import com.example.liarsdice.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +23,9 @@ public interface GameRepository extends JpaRepository<Game, Long> {
 
     @Query("SELECT g FROM Game g WHERE g.room.id = :roomId AND g.status IN ('WAITING', 'IN_PROGRESS')")
     Optional<Game> findActiveGameByRoomId(@Param("roomId") Long roomId);
+
+    // Only one of several concurrent starts gets a row back
+    @Modifying
+    @Query("UPDATE Game g SET g.status = 'IN_PROGRESS' WHERE g.id = :gameId AND g.status = 'WAITING'")
+    int markStarted(@Param("gameId") Long gameId);
 }
\ No newline at end of file
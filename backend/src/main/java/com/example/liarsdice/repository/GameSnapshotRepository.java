@@ -0,0 +1,9 @@
+package com.example.liarsdice.repository;
+
+import com.example.liarsdice.model.GameSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GameSnapshotRepository extends JpaRepository<GameSnapshot, Long> {
+}
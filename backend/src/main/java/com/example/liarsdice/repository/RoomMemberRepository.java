@@ -0,0 +1,31 @@
+package com.example.liarsdice.repository;
+
+import com.example.liarsdice.model.RoomMember;
+import com.example.liarsdice.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RoomMemberRepository extends JpaRepository<RoomMember, Long> {
+
+    @Query("SELECT m.user.id FROM RoomMember m WHERE m.room.id = :roomId")
+    List<Long> findUserIdsByRoomId(@Param("roomId") Long roomId);
+
+    @Query("SELECT m.user FROM RoomMember m WHERE m.room.id = :roomId ORDER BY m.joinedAt, m.id")
+    List<User> findUsersInJoinOrder(@Param("roomId") Long roomId);
+
+    // Returns 0 if the user is already a member
+    @Modifying
+    @Query(value = "INSERT INTO room_members (room_id, user_id, joined_at) VALUES (:roomId, :userId, now()) " +
+            "ON CONFLICT (room_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("roomId") Long roomId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RoomMember m WHERE m.room.id = :roomId AND m.user.id = :userId")
+    int deleteMember(@Param("roomId") Long roomId, @Param("userId") Long userId);
+}
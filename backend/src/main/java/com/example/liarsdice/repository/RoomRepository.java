@@ -3,6 +3,7 @@ package com.example.liarsdice.repository;
 import com.example.liarsdice.model.Room;
 import com.example.liarsdice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,9 +17,19 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     List<Room> findByCreator(User creator);
 
+    @Query("SELECT r FROM Room r JOIN FETCH r.creator WHERE r.isActive = true")
+    List<Room> findActiveWithCreator();
+
     @Query("SELECT r FROM Room r WHERE r.isActive = true AND r.currentPlayers < r.maxPlayers")
     List<Room> findAvailableRooms();
 
-    @Query("SELECT r FROM Room r WHERE r.isActive = true AND r.name LIKE %:name%")
-    List<Room> findByNameContainingAndIsActiveTrue(@Param("name") String name);
+    // Conditional on a free seat, so concurrent joins can never oversell the room
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Room r SET r.currentPlayers = r.currentPlayers + 1 " +
+            "WHERE r.id = :roomId AND r.isActive = true AND r.currentPlayers < r.maxPlayers")
+    int reserveSeat(@Param("roomId") Long roomId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Room r SET r.currentPlayers = r.currentPlayers - 1 WHERE r.id = :roomId AND r.currentPlayers > 0")
+    int releaseSeat(@Param("roomId") Long roomId);
 }
\ No newline at end of file
@@ -1,40 +1,100 @@
 package com.example.liarsdice.service;
 
 import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.request.PageCursor;
+import com.example.liarsdice.dto.response.CursorPage;
 import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.GameEventLog;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.engine.PendingMove;
+import com.example.liarsdice.exception.GameException;
 import com.example.liarsdice.model.*;
+import com.example.liarsdice.repository.GameMoveRepository;
 import com.example.liarsdice.repository.GameRepository;
+import com.example.liarsdice.repository.PlayerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class GameService {
 
+    public static final int MAX_HISTORY_PAGE = 500;
+
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+
     @Autowired
     private RoomService roomService;
 
-    private final Random random = new Random();
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private GameEventLog gameEventLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
 
+    public GameService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Timed(value = "liarsdice.game.state", histogram = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public GameStateResponse getGameState(Long gameId, User currentUser) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        // IN_PROGRESS games are served straight from the engine
+        Optional<GameStateResponse> live = gameEngine.ask(gameId, table -> table.toResponse(currentUser.getId()));
+        if (live.isPresent()) {
+            return live.get();
+        }
+
+        return readOnlyTransaction.execute(status -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game not found"));
 
-        // Get players for this game (this would need a PlayerRepository in a full implementation)
-        List<GameStateResponse.PlayerState> players = getPlayersForGame(game, currentUser);
+            // Finished games are rebuilt from their latest snapshot and the events after it
+            GameTable rebuilt = gameEventLog.restore(gameId, game.getRoom().getId(), new SplittableRandom());
+            if (rebuilt != null) {
+                return rebuilt.toResponse(currentUser.getId());
+            }
 
-        // Get last move (this would need a GameMoveRepository in a full implementation)
-        GameStateResponse.GameMove lastMove = getLastMoveForGame(game);
+            List<GameStateResponse.PlayerState> players = getPlayersForGame(game);
+            GameStateResponse.GameMove lastMove = getLastMoveForGame(game);
 
-        return new GameStateResponse(game, players, lastMove);
+            return new GameStateResponse(game, players, lastMove);
+        });
     }
 
+    @Timed(value = "liarsdice.game.start", histogram = true)
     public GameStateResponse startGame(Long gameId, User user) {
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
@@ -53,150 +113,170 @@ public class GameService {
             throw new RuntimeException("Need at least 2 players to start the game");
         }
 
+        if (gameRepository.markStarted(gameId) == 0) {
+            throw new RuntimeException("Game is not in waiting state");
+        }
         game.setStatus(Game.GameStatus.IN_PROGRESS);
-        game = gameRepository.save(game);
 
-        // Initialize game state (roll dice for all players, set first player, etc.)
-        initializeGameState(game);
+        // Initialize game state (create players, roll dice, set first player)
+        GameTable table = initializeGameState(game);
 
-        return getGameState(gameId, user);
+        // Not served by the engine until this transaction commits, and read by no one else until then
+        return table.toResponse(user.getId());
     }
 
+    /**
+     * Moves run entirely against the in-memory {@link GameTable} on the game's mailbox,
+     * so concurrent moves for one game are applied in order without row locks. The move
+     * and the resulting game/player state are written to the database by write-behind.
+     */
+    @Timed(value = "liarsdice.game.move", extraTags = {"via", "rest"}, histogram = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public GameStateResponse makeMove(Long gameId, GameMoveRequest request, User user) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
-
-        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
-            throw new RuntimeException("Game is not in progress");
+        if (!request.isBid() && !request.isChallenge()) {
+            throw new RuntimeException("Invalid move type");
         }
 
-        // Validate it's the player's turn
-        if (game.getCurrentPlayer() == null || !game.getCurrentPlayer().getId().equals(user.getId())) {
-            throw new RuntimeException("It's not your turn");
-        }
+        return gameEngine.ask(gameId, table -> applyMove(table, user.getId(), request))
+                .orElseThrow(() -> new RuntimeException("Game is not in progress"));
+    }
 
-        // Process the move
-        if (request.isBid()) {
-            processBid(game, user, request);
-        } else if (request.isChallenge()) {
-            processChallenge(game, user, request);
-        } else {
+    /**
+     * A move sent over the game's WebSocket. The player is known from the handshake by
+     * username only, and is resolved against the table's seats rather than the database.
+     */
+    @Timed(value = "liarsdice.game.move", extraTags = {"via", "websocket"}, histogram = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public GameStateResponse makeMove(Long gameId, GameMoveRequest request, String username) {
+        if (!request.isBid() && !request.isChallenge()) {
             throw new RuntimeException("Invalid move type");
         }
 
-        return getGameState(gameId, user);
+        return gameEngine.ask(gameId, table -> {
+            Long userId = table.userIdFor(username);
+            if (userId == null) {
+                throw new GameException("You are not playing in this game");
+            }
+            return applyMove(table, userId, request);
+        }).orElseThrow(() -> new RuntimeException("Game is not in progress"));
     }
 
-    public List<GameStateResponse.GameMove> getGameHistory(Long gameId) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+    /**
+     * A page of a game's moves in play order, starting after {@code after} (null for the
+     * first page). Moves reach the database through write-behind, so the newest ones may
+     * lag by one flush interval.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<GameStateResponse.GameMove> getGameHistory(Long gameId, PageCursor after, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_HISTORY_PAGE);
+        }
+        if (!gameRepository.existsById(gameId)) {
+            throw new RuntimeException("Game not found");
+        }
 
-        // This would fetch from GameMoveRepository in a full implementation
-        return getGameMovesForGame(game);
+        // One extra row tells us whether there is a next page
+        Limit rows = Limit.of(limit + 1);
+        List<GameMove> moves = after == null
+                ? gameMoveRepository.findFirstPage(gameId, rows)
+                : gameMoveRepository.findPageAfter(gameId, after.createdAt(), after.id(), rows);
+
+        String next = null;
+        if (moves.size() > limit) {
+            moves = moves.subList(0, limit);
+            GameMove last = moves.get(limit - 1);
+            next = PageCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<GameStateResponse.GameMove> items = new ArrayList<>(moves.size());
+        for (GameMove move : moves) {
+            items.add(new GameStateResponse.GameMove(move));
+        }
+        return new CursorPage<>(items, next);
     }
 
-    private void initializeGameState(Game game) {
-        // In a full implementation, this would:
-        // 1. Create Player entities for all users in the room
-        // 2. Roll initial dice for each player
-        // 3. Set the first current player
-        // 4. Save all the initial state
-
-        // For now, just set a placeholder current player
-        game.setCurrentPlayer(game.getRoom().getCreator());
-        gameRepository.save(game);
+    /**
+     * Writes every move of a game as one JSON object per line, read through a database
+     * cursor so memory use doesn't grow with the length of the game.
+     */
+    @Transactional(readOnly = true)
+    public void exportGameHistory(Long gameId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(GameStateResponse.GameMove.class);
+        try (Stream<GameMove> moves = gameMoveRepository.streamByGameId(gameId)) {
+            Iterator<GameMove> iterator = moves.iterator();
+            while (iterator.hasNext()) {
+                GameMove move = iterator.next();
+                out.write(writer.writeValueAsBytes(new GameStateResponse.GameMove(move)));
+                out.write('\n');
+                // Written rows are done with, keep the persistence context from growing
+                entityManager.detach(move);
+            }
+        }
+        out.flush();
     }
 
-    private void processBid(Game game, User user, GameMoveRequest request) {
-        // Validate bid
-        if (request.getBidQuantity() == null || request.getBidFaceValue() == null) {
-            throw new RuntimeException("Bid must include quantity and face value");
-        }
+    public boolean gameExists(Long gameId) {
+        return gameRepository.existsById(gameId);
+    }
 
-        if (request.getBidQuantity() < 1) {
-            throw new RuntimeException("Bid quantity must be at least 1");
+    private GameTable initializeGameState(Game game) {
+        // Seated members in join order; rooms from before membership was recorded fall back to the creator
+        List<User> participants = roomService.getMembers(game.getRoom().getId());
+        if (participants.isEmpty()) {
+            participants = List.of(game.getRoom().getCreator());
         }
 
-        if (request.getBidFaceValue() < 1 || request.getBidFaceValue() > 6) {
-            throw new RuntimeException("Bid face value must be between 1 and 6");
+        List<Player> players = new ArrayList<>(participants.size());
+        for (int i = 0; i < participants.size(); i++) {
+            players.add(new Player(game, participants.get(i), i + 1));
         }
+        // Ids come from the pooled sequence, so the rows go out as one JDBC batch at flush
+        players = playerRepository.saveAll(players);
 
-        // Create and save game move
-        GameMove move = new GameMove(game, user, request.getBidQuantity(), request.getBidFaceValue());
-        // In full implementation: gameMoveRepository.save(move);
-
-        // Set next player
-        setNextPlayer(game);
+        game.setCurrentPlayer(players.get(0).getUser());
         gameRepository.save(game);
-    }
 
-    private void processChallenge(Game game, User user, GameMoveRequest request) {
-        // Create and save challenge move
-        GameMove move = new GameMove(game, user, GameMove.MoveType.CHALLENGE);
-        // In full implementation: gameMoveRepository.save(move);
+        return gameEngine.open(game, players);
+    }
 
-        // Resolve challenge (count actual dice, determine winner/loser)
-        resolveChallenge(game);
+    private GameStateResponse applyMove(GameTable table, Long userId, GameMoveRequest request) {
+        // Process the move
+        if (request.isBid()) {
+            processBid(table, userId, request);
+        } else {
+            processChallenge(table, userId);
+        }
+        return table.toResponse(userId);
     }
 
-    private void resolveChallenge(Game game) {
-        // In a full implementation, this would:
-        // 1. Get the last bid
-        // 2. Count all dice matching the bid
-        // 3. Determine if challenge succeeds or fails
-        // 4. Remove dice from losing player
-        // 5. Check for game end condition
-        // 6. Start new round or end game
+    private void processBid(GameTable table, Long userId, GameMoveRequest request) {
+        // Validate bid
+        if (request.getBidQuantity() == null || request.getBidFaceValue() == null) {
+            throw new RuntimeException("Bid must include quantity and face value");
+        }
 
-        // For now, just advance to next round
-        game.setRoundNumber(game.getRoundNumber() + 1);
-        gameRepository.save(game);
+        table.bid(userId, request.getBidQuantity(), request.getBidFaceValue());
+        gameEngine.changed(table, PendingMove.bid(table.getGameId(), userId,
+                request.getBidQuantity(), request.getBidFaceValue()));
     }
 
-    private void setNextPlayer(Game game) {
-        // In a full implementation, this would cycle through active players
-        // For now, keep the same player (placeholder)
+    private void processChallenge(GameTable table, Long userId) {
+        // Resolve challenge (count actual dice, determine loser, start next round or end game)
+        table.challenge(userId);
+        gameEngine.changed(table, PendingMove.challenge(table.getGameId(), userId));
     }
 
-    private List<GameStateResponse.PlayerState> getPlayersForGame(Game game, User currentUser) {
-        // Placeholder implementation
-        // In a full implementation, this would fetch from PlayerRepository
+    private List<GameStateResponse.PlayerState> getPlayersForGame(Game game) {
         List<GameStateResponse.PlayerState> players = new ArrayList<>();
-
-        // Add room creator as a player
-        GameStateResponse.PlayerState creatorState = new GameStateResponse.PlayerState();
-        creatorState.setUsername(game.getRoom().getCreator().getUsername());
-        creatorState.setDiceCount(5);
-        creatorState.setActive(true);
-        creatorState.setPlayerOrder(1);
-
-        // Only show dice to the player themselves
-        if (game.getRoom().getCreator().getId().equals(currentUser.getId())) {
-            creatorState.setDice(generateRandomDice(5));
+        for (Player player : playerRepository.findByGameOrderByPlayerOrder(game)) {
+            players.add(new GameStateResponse.PlayerState(player));
         }
-
-        players.add(creatorState);
         return players;
     }
 
     private GameStateResponse.GameMove getLastMoveForGame(Game game) {
-        // Placeholder implementation
-        // In a full implementation, this would fetch the most recent move from GameMoveRepository
-        return null;
-    }
-
-    private List<GameStateResponse.GameMove> getGameMovesForGame(Game game) {
-        // Placeholder implementation
-        // In a full implementation, this would fetch all moves from GameMoveRepository
-        return new ArrayList<>();
-    }
-
-    private List<Integer> generateRandomDice(int count) {
-        List<Integer> dice = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            dice.add(random.nextInt(6) + 1);
-        }
-        return dice;
+        return gameMoveRepository.findLastMoveByGame(game)
+                .map(GameStateResponse.GameMove::new)
+                .orElse(null);
     }
 
     public Optional<Game> findActiveGameByRoomId(Long roomId) {
@@ -0,0 +1,145 @@
+package com.example.liarsdice.service;
+
+import com.example.liarsdice.dto.response.OddsResponse;
+import com.example.liarsdice.engine.Dice;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.odds.MonteCarloOdds;
+import com.example.liarsdice.odds.OddsRule;
+import com.example.liarsdice.odds.OddsTables;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Odds that a bid holds, given the asking player's own dice. Rules where every unseen
+ * die counts independently are answered from exact binomial tables, which is cheaper
+ * than any cache. Other rules, or more unseen dice than the tables cover, are
+ * simulated on a dedicated fork-join pool and the estimate is cached per rule, face,
+ * dice still needed and unseen hand sizes. No request waits for a simulation: until
+ * its key's estimate is in, askers get the nearest binomial answer, and only the
+ * first of them starts the simulation.
+ */
+@Service
+public class OddsService {
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    private final OddsTables tables = new OddsTables();
+    private final Map<SimulationKey, CompletableFuture<Double>> simulations = new ConcurrentHashMap<>();
+    private final ForkJoinPool pool;
+    private final MonteCarloOdds monteCarlo;
+    private final int trials;
+    private final int maxEntries;
+
+    public OddsService(@Value("${liarsdice.odds.parallelism:0}") int parallelism,
+                       @Value("${liarsdice.odds.trials:20000}") int trials,
+                       @Value("${liarsdice.odds.cache-size:10000}") int maxEntries) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.monteCarlo = new MonteCarloOdds(pool);
+        this.trials = trials;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Rates a bid for {@code userId}, or the standing bid if {@code quantity} and
+     * {@code faceValue} are null.
+     */
+    public OddsResponse getOdds(Long gameId, Long userId, Integer quantity, Integer faceValue, OddsRule rule) {
+        View view = gameEngine.ask(gameId, table -> new View(table.diceOf(userId) != null, table.handOf(userId),
+                        table.otherHandSizes(userId), table.getBidQuantity(), table.getBidFaceValue()))
+                .orElseThrow(() -> new RuntimeException("Game is not in progress"));
+        if (!view.seated()) {
+            throw new RuntimeException("You are not playing in this game");
+        }
+
+        if (quantity == null || faceValue == null) {
+            if (view.bidQuantity() == 0) {
+                throw new RuntimeException("There is no bid yet; pass a quantity and face value");
+            }
+            quantity = view.bidQuantity();
+            faceValue = view.bidFaceValue();
+        }
+        if (quantity < 1 || faceValue < 1 || faceValue > Dice.FACES) {
+            throw new RuntimeException("Bid must have a quantity of at least 1 and a face value between 1 and 6");
+        }
+
+        int ownCount = rule.count(view.hand(), faceValue);
+        int unseen = Arrays.stream(view.otherHands()).sum();
+        int needed = quantity - ownCount;
+
+        if (rule.isIndependent() && unseen <= OddsTables.MAX_DICE) {
+            double chance = tables.atLeast(rule.dieChance(faceValue), unseen, needed);
+            return new OddsResponse(quantity, faceValue, rule.name(), ownCount, unseen, chance, true);
+        }
+        if (needed <= 0 || needed > unseen) {
+            return new OddsResponse(quantity, faceValue, rule.name(), ownCount, unseen, needed <= 0 ? 1.0 : 0.0, true);
+        }
+        Double simulated = simulated(rule, faceValue, needed, view.otherHands());
+        double chance = simulated != null ? simulated : tables.estimate(rule.approximateDieChance(faceValue), unseen, needed);
+        return new OddsResponse(quantity, faceValue, rule.name(), ownCount, unseen, chance, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * The cached estimate for this key, or null if it isn't in yet, in which case the
+     * simulation is started unless one already runs.
+     */
+    private Double simulated(OddsRule rule, int faceValue, int needed, int[] otherHands) {
+        // Hands are interchangeable, so sorted sizes make one key for every seating
+        int[] sizes = otherHands.clone();
+        Arrays.sort(sizes);
+        SimulationKey key = new SimulationKey(rule, faceValue, needed, Arrays.toString(sizes));
+
+        CompletableFuture<Double> existing = simulations.get(key);
+        if (existing != null) {
+            return existing.getNow(null);
+        }
+        CompletableFuture<Double> created = new CompletableFuture<>();
+        if (simulations.putIfAbsent(key, created) != null) {
+            return null;
+        }
+        if (simulations.size() > maxEntries) {
+            evict();
+        }
+        pool.execute(() -> {
+            try {
+                created.complete(monteCarlo.chance(rule, faceValue, needed, sizes, trials, key.hashCode()));
+            } catch (RuntimeException e) {
+                // Let the next asker try again
+                simulations.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        });
+        return null;
+    }
+
+    private void evict() {
+        // Any tenth of the finished estimates will do; a dropped one costs one more
+        // simulation. Running ones stay, or a second simulation of the key would start.
+        int excess = simulations.size() - maxEntries + maxEntries / 10;
+        Iterator<CompletableFuture<Double>> estimates = simulations.values().iterator();
+        while (excess > 0 && estimates.hasNext()) {
+            if (estimates.next().isDone()) {
+                estimates.remove();
+                excess--;
+            }
+        }
+    }
+
+    private record View(boolean seated, long hand, int[] otherHands, int bidQuantity, int bidFaceValue) {}
+
+    private record SimulationKey(OddsRule rule, int faceValue, int needed, String handSizes) {}
+}
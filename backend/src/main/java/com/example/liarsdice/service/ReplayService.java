@@ -0,0 +1,91 @@
+package com.example.liarsdice.service;
+
+import com.example.liarsdice.dto.response.ReplayFrame;
+import com.example.liarsdice.engine.GameEvent;
+import com.example.liarsdice.engine.GameEventLog;
+import com.example.liarsdice.model.Game;
+import com.example.liarsdice.replay.GameReplay;
+import com.example.liarsdice.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays of finished games. A game's whole event log is read in one query and packed
+ * into a {@link GameReplay}; the most recently replayed games are kept, least recently
+ * used first out, so scrubbing back and forth through a game never goes back to the
+ * database. Finished games don't change, so nothing is ever invalidated.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReplayService {
+
+    public static final int MAX_FRAMES = 100;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameEventLog gameEventLog;
+
+    private final Map<Long, GameReplay> cache;
+
+    public ReplayService(@Value("${liarsdice.replay.cache-size:256}") int cacheSize) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, GameReplay> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * The table after move {@code from} and each of the moves that follow it, up to
+     * {@code count} frames in all. Cached replays are served without a transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ReplayFrame> getFrames(Long gameId, int from, int count) {
+        if (count < 1 || count > MAX_FRAMES) {
+            throw new RuntimeException("Count must be between 1 and " + MAX_FRAMES);
+        }
+        GameReplay replay = getReplay(gameId);
+        if (from < 0 || from > replay.moveCount()) {
+            throw new RuntimeException("Move must be between 0 and " + replay.moveCount());
+        }
+        int to = Math.min(replay.moveCount(), from + count - 1);
+        List<ReplayFrame> frames = new ArrayList<>(to - from + 1);
+        for (int move = from; move <= to; move++) {
+            frames.add(replay.frameAt(move));
+        }
+        return frames;
+    }
+
+    private GameReplay getReplay(Long gameId) {
+        GameReplay cached = cache.get(gameId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        // Hands of a game still being played are secret
+        if (game.getStatus() != Game.GameStatus.FINISHED) {
+            throw new RuntimeException("Only finished games can be replayed");
+        }
+        List<GameEvent.Logged> events = gameEventLog.readAll(gameId);
+        if (events.isEmpty()) {
+            throw new RuntimeException("Game was played before replays were recorded");
+        }
+        GameReplay replay = GameReplay.of(gameId, events);
+        cache.put(gameId, replay);
+        return replay;
+    }
+}
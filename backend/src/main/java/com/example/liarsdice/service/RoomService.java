@@ -2,14 +2,28 @@ package com.example.liarsdice.service;
 
 import com.example.liarsdice.dto.request.CreateRoomRequest;
 import com.example.liarsdice.dto.request.JoinRoomRequest;
+import com.example.liarsdice.dto.request.PageCursor;
+import com.example.liarsdice.dto.response.CursorPage;
 import com.example.liarsdice.dto.response.RoomResponse;
+import com.example.liarsdice.lobby.LobbyFilter;
+import com.example.liarsdice.lobby.LobbyIndex;
+import com.example.liarsdice.lobby.RoomChangedEvent;
+import com.example.liarsdice.lobby.RoomSeats;
+import com.example.liarsdice.model.Game;
 import com.example.liarsdice.model.Room;
 import com.example.liarsdice.model.User;
+import com.example.liarsdice.repository.RoomMemberRepository;
 import com.example.liarsdice.repository.RoomRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +39,23 @@ public class RoomService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RoomMemberRepository roomMemberRepository;
+
+    // Lazy, as GameService needs this service too
+    @Autowired
+    @Lazy
+    private GameService gameService;
+
+    @Autowired
+    private LobbyIndex lobbyIndex;
+
+    @Autowired
+    private RoomSeats roomSeats;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<RoomResponse> getAllRooms() {
         return roomRepository.findByIsActiveTrue()
                 .stream()
@@ -32,16 +63,20 @@ public class RoomService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<RoomResponse> getAvailableRooms() {
-        return roomRepository.findAvailableRooms()
-                .stream()
-                .map(RoomResponse::new)
-                .collect(Collectors.toList());
+        // Served from the lobby index, which mirrors the active rooms in memory
+        return lobbyIndex.find(LobbyFilter.AVAILABLE);
     }
 
     public Optional<RoomResponse> getRoomById(Long roomId) {
         return roomRepository.findById(roomId)
-                .map(RoomResponse::new);
+                .map(room -> {
+                    RoomResponse response = new RoomResponse(room);
+                    gameService.findActiveGameByRoomId(roomId)
+                            .ifPresent(game -> response.setGameId(game.getId()));
+                    return response;
+                });
     }
 
     public RoomResponse createRoom(CreateRoomRequest request, User creator) {
@@ -52,17 +87,27 @@ public class RoomService {
 
         Room room = new Room(request.getName(), creator, passwordHash, request.getMaxPlayers());
         room = roomRepository.save(room);
+        // The room's game waits here until its creator starts it
+        Game game = gameService.createGameForRoom(room);
 
-        return new RoomResponse(room);
+        RoomResponse response = published(new RoomResponse(room));
+        response.setGameId(game.getId());
+        return response;
     }
 
+    /**
+     * Seats are claimed on the room's in-memory {@link RoomSeats} first, so joins racing
+     * for a full room are turned away without touching the database. The winners record
+     * their membership and take the seat with a conditional update; if either fails the
+     * reservation is handed back when the transaction rolls back.
+     */
+    @Timed(value = "liarsdice.room.join", histogram = true)
     public RoomResponse joinRoom(Long roomId, JoinRoomRequest request, User user) {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
-        if (!room.canJoin()) {
-            throw new RuntimeException("Cannot join room: " +
-                    (room.isFull() ? "Room is full" : "Room is not active"));
+        if (!room.getIsActive()) {
+            throw new RuntimeException("Cannot join room: Room is not active");
         }
 
         // Check password if room has one
@@ -73,27 +118,65 @@ public class RoomService {
             }
         }
 
-        // Add user to room (increment current players)
-        room.setCurrentPlayers(room.getCurrentPlayers() + 1);
-        room = roomRepository.save(room);
+        RoomSeats.Seats seats = seatsOf(room);
+        RoomSeats.Reservation reservation = seats.reserve(user.getId());
+        if (reservation == RoomSeats.Reservation.FULL) {
+            throw new RuntimeException("Cannot join room: Room is full");
+        }
+        if (reservation == RoomSeats.Reservation.ALREADY_SEATED) {
+            return new RoomResponse(room);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    seats.release(user.getId());
+                }
+            }
+        });
 
-        return new RoomResponse(room);
+        if (roomMemberRepository.insertIfAbsent(roomId, user.getId()) == 0) {
+            // Already a member according to the database, so memory was behind
+            roomSeats.evict(roomId);
+            return new RoomResponse(room);
+        }
+        if (roomRepository.reserveSeat(roomId) == 0) {
+            roomSeats.evict(roomId);
+            throw new RuntimeException("Cannot join room: Room is full");
+        }
+
+        room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new RuntimeException("Room not found"));
+        return published(new RoomResponse(room));
     }
 
     public void leaveRoom(Long roomId, User user) {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
-        if (room.getCurrentPlayers() > 0) {
-            room.setCurrentPlayers(room.getCurrentPlayers() - 1);
+        RoomSeats.Seats seats = seatsOf(room);
+        // Only a member has a seat to give back; V8 made members of everyone counted before
+        if (roomMemberRepository.deleteMember(roomId, user.getId()) > 0) {
+            roomRepository.releaseSeat(roomId);
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seats.release(user.getId());
+            }
+        });
+
+        room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new RuntimeException("Room not found"));
 
         // If room creator leaves and room is empty, deactivate room
         if (room.getCreator().getId().equals(user.getId()) && room.getCurrentPlayers() == 0) {
             room.setIsActive(false);
+            room = roomRepository.save(room);
+            roomSeats.evict(roomId);
         }
 
-        roomRepository.save(room);
+        published(new RoomResponse(room));
     }
 
     public void deleteRoom(Long roomId, User user) {
@@ -107,13 +190,32 @@ public class RoomService {
 
         room.setIsActive(false);
         roomRepository.save(room);
+        roomSeats.evict(roomId);
+        eventPublisher.publishEvent(RoomChangedEvent.removed(roomId));
     }
 
-    public List<RoomResponse> searchRooms(String name) {
-        return roomRepository.findByNameContainingAndIsActiveTrue(name)
-                .stream()
-                .map(RoomResponse::new)
-                .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CursorPage<RoomResponse> searchRooms(String name, PageCursor after, int limit) {
+        return lobbyIndex.search(name, after, limit);
+    }
+
+    /**
+     * Users seated in a room, in the order they joined.
+     */
+    @Transactional(readOnly = true)
+    public List<User> getMembers(Long roomId) {
+        return roomMemberRepository.findUsersInJoinOrder(roomId);
+    }
+
+    private RoomSeats.Seats seatsOf(Room room) {
+        return roomSeats.of(room.getId(), room.getMaxPlayers(), room.getCurrentPlayers(),
+                () -> roomMemberRepository.findUserIdsByRoomId(room.getId()));
+    }
+
+    // Listeners such as the lobby index see the change once it commits
+    private RoomResponse published(RoomResponse room) {
+        eventPublisher.publishEvent(RoomChangedEvent.updated(room));
+        return room;
     }
 
     public Room findById(Long roomId) {
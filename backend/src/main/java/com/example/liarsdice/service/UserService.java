@@ -1,5 +1,6 @@
 package com.example.liarsdice.service;
 
+import com.example.liarsdice.config.JwtPrincipalCache;
 import com.example.liarsdice.model.User;
 import com.example.liarsdice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,10 +19,12 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtPrincipalCache principalCache;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtPrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -58,7 +61,20 @@ public class UserService implements UserDetailsService {
         }
 
         user.setEmail(email);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Cached tokens still hold the old principal; dropped again once this commits
+        principalCache.invalidateUser(user.getUsername());
+        return saved;
+    }
+
+    public void changePassword(User user, String currentPassword, String newPassword) {
+        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+            throw new RuntimeException("Current password is incorrect");
+        }
+
+        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        userRepository.save(user);
+        principalCache.invalidateUser(user.getUsername());
     }
 
     public boolean existsByUsername(String username) {
@@ -0,0 +1,50 @@
+package com.example.liarsdice.websocket;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Everything a client may send over a game or room socket, keyed by the {@code type}
+ * field; the lobby socket only takes a {@code resync}. Anything else, including unknown
+ * fields, is rejected by {@link ClientCommandReader}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ClientCommand.Bid.class, name = "bid"),
+        @JsonSubTypes.Type(value = ClientCommand.Challenge.class, name = "challenge"),
+        @JsonSubTypes.Type(value = ClientCommand.Ready.class, name = "ready"),
+        @JsonSubTypes.Type(value = ClientCommand.Chat.class, name = "chat"),
+        @JsonSubTypes.Type(value = ClientCommand.Ping.class, name = "ping"),
+        @JsonSubTypes.Type(value = ClientCommand.Ack.class, name = "ack"),
+        @JsonSubTypes.Type(value = ClientCommand.Resync.class, name = "resync")
+})
+public sealed interface ClientCommand {
+
+    record Bid(@NotNull(message = "Bid must include quantity and face value")
+               @Min(value = 1, message = "Bid quantity must be at least 1")
+               Integer quantity,
+               @NotNull(message = "Bid must include quantity and face value")
+               @Min(value = 1, message = "Bid face value must be between 1 and 6")
+               @Max(value = 6, message = "Bid face value must be between 1 and 6")
+               Integer faceValue) implements ClientCommand {}
+
+    record Challenge() implements ClientCommand {}
+
+    record Ready() implements ClientCommand {}
+
+    record Chat(@NotBlank(message = "Chat message is required")
+                @Size(max = 500, message = "Chat message is limited to 500 characters")
+                String text) implements ClientCommand {}
+
+    // The nonce is echoed back so clients can measure round trips
+    record Ping(Long nonce) implements ClientCommand {}
+
+    record Ack(@NotNull(message = "Ack must include a version") Long version) implements ClientCommand {}
+
+    record Resync() implements ClientCommand {}
+}
@@ -0,0 +1,62 @@
+package com.example.liarsdice.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Turns inbound text frames into {@link ClientCommand}s. The reader for the command
+ * hierarchy is built once, so each frame is a single streaming pass straight into
+ * the right record. Callers refuse frames over the size limit before parsing, and
+ * parsed commands are checked against their constraints.
+ */
+@Component
+public class ClientCommandReader {
+
+    private final ObjectReader reader;
+    private final Validator validator;
+    private final int maxFrameBytes;
+
+    public ClientCommandReader(ObjectMapper objectMapper, Validator validator,
+                               @Value("${liarsdice.websocket.max-inbound-bytes:1024}") int maxFrameBytes) {
+        this.reader = objectMapper.readerFor(ClientCommand.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.validator = validator;
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    /**
+     * Checked on the decoded text, whose length in characters never exceeds its UTF-8
+     * size, so this costs nothing per frame; the container's own buffer limit bounds
+     * what reaches the handler at all.
+     */
+    public boolean isOversized(String payload) {
+        return payload.length() > maxFrameBytes;
+    }
+
+    public ClientCommand read(String payload) {
+        ClientCommand command;
+        try {
+            command = reader.readValue(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid message format");
+        }
+        if (command == null) {
+            throw new IllegalArgumentException("Invalid message format");
+        }
+
+        Set<ConstraintViolation<ClientCommand>> violations = validator.validate(command);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return command;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.engine.GameDelta;
+
+import java.util.Arrays;
+
+/**
+ * The most recent deltas of one game, used to bring a session from the version it
+ * holds up to date without a full snapshot. A game's version is its table version,
+ * which each bid or challenge moves up by one, so the deltas sit in a fixed ring
+ * indexed by the version each starts from: finding where a reconnecting session
+ * resumes is one lookup, and appending never allocates.
+ */
+class GameDeltaLog {
+
+    private final GameDelta[] ring;
+    private long newest = -1;
+
+    GameDeltaLog(int capacity) {
+        this.ring = new GameDelta[capacity];
+    }
+
+    synchronized void append(GameDelta delta) {
+        if (newest >= 0 && delta.fromVersion() != newest) {
+            // A gap; nothing held leads up to this delta any more
+            clear();
+        }
+        ring[slot(delta.fromVersion())] = delta;
+        newest = delta.version();
+    }
+
+    synchronized void clear() {
+        Arrays.fill(ring, null);
+        newest = -1;
+    }
+
+    /**
+     * Merges every delta after {@code version} into one.
+     *
+     * @return null if the deltas right after {@code version} are no longer held,
+     * or there is nothing newer than {@code version}
+     */
+    synchronized GameDelta since(long version) {
+        if (version < 0 || version >= newest) {
+            return null;
+        }
+        GameDelta merged = null;
+        long from = version;
+        while (from < newest) {
+            GameDelta delta = ring[slot(from)];
+            if (delta == null || delta.fromVersion() != from) {
+                // Overwritten by a later delta, so the session is too far behind
+                return null;
+            }
+            merged = merged == null ? delta : merged.merge(delta);
+            from = delta.version();
+        }
+        return merged;
+    }
+
+    private int slot(long version) {
+        return (int) Math.floorMod(version, (long) ring.length);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.engine.Dice;
+import com.example.liarsdice.engine.GameDelta;
+import com.example.liarsdice.engine.GameTable;
+
+import java.nio.ByteBuffer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compact binary encoding of game pushes, for sessions that negotiate the
+ * {@value #SUBPROTOCOL} subprotocol. A message is one or more fixed-size frames,
+ * big-endian, each starting with a type byte. Players are referred to by seat
+ * index, the position in the player list of the last snapshot.
+ * <pre>
+ * BID       (9 bytes)  type=1, version u32, bidder u8, quantity u8, face u8, next player u8
+ * CHALLENGE (13 bytes) type=2, version u32, challenger u8, bidder u8, quantity u8, face u8,
+ *                      actual count u8, loser u8, loser's dice u8, flags u8 (1 eliminated, 2 game over)
+ * TURN      (8 bytes)  type=3, version u32, round u16, current player u8
+ * HAND      (7 bytes)  type=4, count of each face 1-6 as u8
+ * </pre>
+ * A resolved challenge is CHALLENGE followed by TURN for the next round and then
+ * the recipient's own HAND; only the HAND differs between recipients. Anything
+ * that doesn't fit these frames (snapshots, merged catch-up deltas, chat) stays JSON.
+ */
+public final class GameFrameCodec {
+
+    public static final String SUBPROTOCOL = "liarsdice.binary.v1";
+
+    public static final byte BID = 1;
+    public static final byte CHALLENGE = 2;
+    public static final byte TURN = 3;
+    public static final byte HAND = 4;
+
+    static final int BID_SIZE = 9;
+    static final int CHALLENGE_SIZE = 13;
+    static final int TURN_SIZE = 8;
+    static final int HAND_SIZE = 1 + Dice.FACES;
+
+    private static final int ELIMINATED = 1;
+    private static final int GAME_OVER = 2;
+
+    private GameFrameCodec() {}
+
+    /**
+     * Encodes the part of a single-move delta every recipient shares.
+     *
+     * @return null if the delta spans more than one move and has no binary form
+     */
+    public static byte[] encode(GameTable table, GameDelta delta) {
+        return encode(table::seatIndexOf, delta);
+    }
+
+    /**
+     * Encodes a delta with seat indexes looked up through {@code seatIndexOf}, for
+     * nodes that hold the game's state but not its table.
+     */
+    public static byte[] encode(ToIntFunction<String> seatIndexOf, GameDelta delta) {
+        if (delta.version() != delta.fromVersion() + 1) {
+            return null;
+        }
+        if (delta.bid() != null) {
+            return ByteBuffer.allocate(BID_SIZE)
+                    .put(BID)
+                    .putInt((int) delta.version())
+                    .put((byte) seatIndexOf.applyAsInt(delta.bid().playerUsername()))
+                    .put((byte) delta.bid().quantity())
+                    .put((byte) delta.bid().faceValue())
+                    .put((byte) seatIndexOf.applyAsInt(delta.currentPlayerUsername()))
+                    .array();
+        }
+        GameTable.ChallengeResult result = delta.challenge();
+        if (result == null) {
+            return null;
+        }
+        boolean nextRound = delta.roundNumber() != null;
+        ByteBuffer buffer = ByteBuffer.allocate(CHALLENGE_SIZE + (nextRound ? TURN_SIZE : 0))
+                .put(CHALLENGE)
+                .putInt((int) delta.version())
+                .put((byte) seatIndexOf.applyAsInt(result.challenger()))
+                .put((byte) seatIndexOf.applyAsInt(result.bidder()))
+                .put((byte) result.bidQuantity())
+                .put((byte) result.bidFaceValue())
+                .put((byte) result.actualCount())
+                .put((byte) seatIndexOf.applyAsInt(result.loser()))
+                .put((byte) delta.diceCounts().getOrDefault(result.loser(), 0).intValue())
+                .put((byte) ((result.loserEliminated() ? ELIMINATED : 0) | (result.gameOver() ? GAME_OVER : 0)));
+        if (nextRound) {
+            buffer.put(TURN)
+                    .putInt((int) delta.version())
+                    .putShort((short) delta.roundNumber().intValue())
+                    .put((byte) seatIndexOf.applyAsInt(delta.currentPlayerUsername()));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Appends the recipient's own packed hand to a shared message.
+     */
+    public static byte[] withHand(byte[] shared, long hand) {
+        ByteBuffer buffer = ByteBuffer.allocate(shared.length + HAND_SIZE).put(shared).put(HAND);
+        for (int face = 1; face <= Dice.FACES; face++) {
+            buffer.put((byte) Dice.count(hand, face));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Walks the frames of a message. Used by tests and non-browser clients.
+     */
+    public static void decode(ByteBuffer buffer, FrameVisitor visitor) {
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            switch (type) {
+                case BID -> visitor.bid(Integer.toUnsignedLong(buffer.getInt()),
+                        u8(buffer), u8(buffer), u8(buffer), u8(buffer));
+                case CHALLENGE -> {
+                    long version = Integer.toUnsignedLong(buffer.getInt());
+                    int challenger = u8(buffer);
+                    int bidder = u8(buffer);
+                    int quantity = u8(buffer);
+                    int faceValue = u8(buffer);
+                    int actualCount = u8(buffer);
+                    int loser = u8(buffer);
+                    int loserDice = u8(buffer);
+                    int flags = u8(buffer);
+                    visitor.challenge(version, challenger, bidder, quantity, faceValue, actualCount, loser,
+                            loserDice, (flags & ELIMINATED) != 0, (flags & GAME_OVER) != 0);
+                }
+                case TURN -> visitor.turn(Integer.toUnsignedLong(buffer.getInt()),
+                        Short.toUnsignedInt(buffer.getShort()), u8(buffer));
+                case HAND -> {
+                    long hand = 0;
+                    for (int face = 1; face <= Dice.FACES; face++) {
+                        hand |= (long) u8(buffer) << (8 * (face - 1));
+                    }
+                    visitor.hand(hand);
+                }
+                default -> throw new IllegalArgumentException("Unknown frame type " + type);
+            }
+        }
+    }
+
+    private static int u8(ByteBuffer buffer) {
+        return buffer.get() & 0xFF;
+    }
+
+    public interface FrameVisitor {
+        void bid(long version, int bidder, int quantity, int faceValue, int nextPlayer);
+
+        void challenge(long version, int challenger, int bidder, int quantity, int faceValue, int actualCount,
+                       int loser, int loserDice, boolean loserEliminated, boolean gameOver);
+
+        void turn(long version, int roundNumber, int currentPlayer);
+
+        void hand(long hand);
+    }
+}
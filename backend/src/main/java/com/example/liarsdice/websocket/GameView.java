@@ -0,0 +1,163 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.backplane.GameUpdate;
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.Dice;
+import com.example.liarsdice.engine.GameDelta;
+import com.example.liarsdice.engine.SeatHands;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One node's picture of a game, built from the {@link GameUpdate}s it receives rather
+ * than from the game's table, which may live on another node. Holds what pushes to this
+ * node's sessions need: the latest state, the recent deltas and the hands of the seats
+ * watching from here. Updates carry no hands, so those are offered separately, and may
+ * arrive for a round the state has not reached yet.
+ * Callers hold the view's lock while reading or applying to it.
+ */
+class GameView {
+
+    private final GameDeltaLog log;
+    private GameStateResponse state;
+    // Hands known for the state's round, and any offered for a later one
+    private SeatHands hands;
+    private SeatHands nextHands;
+
+    GameView(int deltaHistory) {
+        this.log = new GameDeltaLog(deltaHistory);
+    }
+
+    /**
+     * Brings the view up to {@code update}.
+     *
+     * @return false if the view already held that version or a later one
+     */
+    boolean apply(GameUpdate update) {
+        if (state != null && update.version() <= state.getVersion()) {
+            return false;
+        }
+        GameDelta delta = update.delta();
+        if (state == null || delta == null || delta.fromVersion() != state.getVersion()) {
+            // Updates were missed, so the deltas held no longer lead up to this one
+            log.clear();
+        }
+        if (delta != null) {
+            log.append(delta);
+        }
+        state = update.state();
+        if (nextHands != null && nextHands.roundNumber() <= update.roundNumber()) {
+            if (nextHands.roundNumber() == update.roundNumber()) {
+                hands = nextHands;
+            }
+            nextHands = null;
+        }
+        return true;
+    }
+
+    /**
+     * Adds hands fetched from the game's owner. Hands for a round the state has already
+     * left are dropped.
+     */
+    void offerHands(SeatHands offered) {
+        int round = state != null ? state.getRoundNumber() : -1;
+        if (offered.roundNumber() < round) {
+            return;
+        }
+        if (offered.roundNumber() == round) {
+            hands = hands != null ? hands.merge(offered) : offered;
+        } else {
+            nextHands = nextHands != null ? nextHands.merge(offered) : offered;
+        }
+    }
+
+    /**
+     * Which of {@code usernames} have no hand held for {@code roundNumber}.
+     */
+    List<String> missingHands(int roundNumber, Collection<String> usernames) {
+        SeatHands held = hands != null && hands.roundNumber() == roundNumber ? hands
+                : nextHands != null && nextHands.roundNumber() == roundNumber ? nextHands : null;
+        List<String> missing = new ArrayList<>();
+        for (String username : usernames) {
+            if (held == null || !held.hands().containsKey(username)) {
+                missing.add(username);
+            }
+        }
+        return missing;
+    }
+
+    boolean isEmpty() {
+        return state == null;
+    }
+
+    boolean isFinished() {
+        return state != null && "FINISHED".equals(state.getStatus());
+    }
+
+    long getVersion() {
+        return state.getVersion();
+    }
+
+    GameDeltaLog log() {
+        return log;
+    }
+
+    /**
+     * The state as {@code username} sees it: with their own dice if they are seated.
+     */
+    GameStateResponse stateFor(String username) {
+        Long hand = handOf(username);
+        if (hand == null) {
+            return state;
+        }
+        GameStateResponse response = new GameStateResponse();
+        response.setGameId(state.getGameId());
+        response.setStatus(state.getStatus());
+        response.setCurrentPlayerUsername(state.getCurrentPlayerUsername());
+        response.setRoundNumber(state.getRoundNumber());
+        response.setVersion(state.getVersion());
+        response.setLastMove(state.getLastMove());
+        response.setUpdatedAt(state.getUpdatedAt());
+        List<GameStateResponse.PlayerState> players = new ArrayList<>(state.getPlayers().size());
+        for (GameStateResponse.PlayerState player : state.getPlayers()) {
+            if (username.equals(player.getUsername())) {
+                GameStateResponse.PlayerState own = new GameStateResponse.PlayerState();
+                own.setUsername(player.getUsername());
+                own.setDiceCount(player.getDiceCount());
+                own.setActive(player.isActive());
+                own.setPlayerOrder(player.getPlayerOrder());
+                own.setDice(Dice.toList(hand));
+                player = own;
+            }
+            players.add(player);
+        }
+        response.setPlayers(players);
+        return response;
+    }
+
+    /**
+     * The packed hand of {@code username} this round, or null if they are not seated or
+     * it has not been fetched.
+     */
+    Long handOf(String username) {
+        if (username == null || hands == null || hands.roundNumber() != state.getRoundNumber()) {
+            return null;
+        }
+        return hands.hands().get(username);
+    }
+
+    /**
+     * Position of {@code username} in the player list, or -1 if not seated.
+     */
+    int seatIndexOf(String username) {
+        List<GameStateResponse.PlayerState> players = state.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getUsername().equals(username)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,34 +1,119 @@
 package com.example.liarsdice.websocket;
 
+import com.example.liarsdice.backplane.Backplane;
+import com.example.liarsdice.backplane.BackplaneListener;
+import com.example.liarsdice.backplane.BackplaneMessage;
+import com.example.liarsdice.backplane.GameUpdate;
+import com.example.liarsdice.backplane.RoomBroadcast;
+import com.example.liarsdice.cluster.GameRouter;
+import com.example.liarsdice.config.JwtHandshakeInterceptor;
+import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.Dice;
+import com.example.liarsdice.engine.GameDelta;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.engine.GameUpdateListener;
+import com.example.liarsdice.engine.SeatHands;
+import com.example.liarsdice.service.GameService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Game and room sockets. Everything pushed to them goes through the {@link Backplane},
+ * so sessions on every node see it: room broadcasts as a frame encoded once by the
+ * node that sent them, and game changes as {@link GameUpdate}s that each node applies
+ * to its own {@link GameView} before fanning them out to its sessions. A socket can
+ * therefore stay on whichever node it reached; only its moves go to the game's owner,
+ * through the {@link GameRouter}. Hands stay off the backplane: the owner reads its own
+ * sessions' from the table, and other nodes fetch just their seated sessions' from the
+ * owner as each round starts.
+ */
 @Component
-public class GameWebSocketHandler implements WebSocketHandler {
+public class GameWebSocketHandler implements WebSocketHandler, SubProtocolCapable, GameUpdateListener,
+        BackplaneListener {
 
     private static final Logger logger = LoggerFactory.getLogger(GameWebSocketHandler.class);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String GAME_CHANNEL = "game:";
+    private static final String ROOM_CHANNEL = "room:";
 
-    // Map to store game/room sessions
+    private final ObjectMapper objectMapper;
+    private final GameEngine gameEngine;
+    private final GameService gameService;
+    private final ClientCommandReader commandReader;
+    private final OutboundQueues outboundQueues;
+    private final Backplane backplane;
+    private final GameRouter gameRouter;
+    private final int deltaHistory;
+
+    // Map to store game/room sessions, keyed by channel ("game:12", "room:34")
     private final Map<String, CopyOnWriteArraySet<WebSocketSession>> gameRooms = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToRoom = new ConcurrentHashMap<>();
 
+    // This node's view of each game, and the version each game session holds
+    private final Map<Long, GameView> views = new ConcurrentHashMap<>();
+    private final Map<String, GameSubscription> subscriptions = new ConcurrentHashMap<>();
+
+    // How many payloads were encoded, across how many broadcasts
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder serializations = new LongAdder();
+    private final DistributionSummary fanOutSize;
+
+    // How reconnecting sessions were brought up to date
+    private final Counter resumesReplayed;
+    private final Counter resumesFromSnapshot;
+    private final Counter resumesCurrent;
+
+    public GameWebSocketHandler(ObjectMapper objectMapper, GameEngine gameEngine, GameService gameService,
+                                ClientCommandReader commandReader, OutboundQueues outboundQueues, Backplane backplane,
+                                GameRouter gameRouter,
+                                @Value("${liarsdice.websocket.delta-history:64}") int deltaHistory,
+                                MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.gameEngine = gameEngine;
+        this.gameService = gameService;
+        this.commandReader = commandReader;
+        this.outboundQueues = outboundQueues;
+        this.backplane = backplane;
+        this.gameRouter = gameRouter;
+        this.deltaHistory = deltaHistory;
+        this.fanOutSize = DistributionSummary.builder("liarsdice.websocket.fanout")
+                .description("Sessions sent each broadcast")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.resumesReplayed = resumes(meterRegistry, "replayed");
+        this.resumesFromSnapshot = resumes(meterRegistry, "snapshot");
+        this.resumesCurrent = resumes(meterRegistry, "current");
+        gameEngine.addListener(this);
+        backplane.addListener(this);
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         logger.info("WebSocket connection established: {}", session.getId());
+        outboundQueues.register(session);
 
         String uri = session.getUri().getPath();
-        String roomId = extractRoomIdFromUri(uri);
+        String roomId = extractChannelFromUri(uri);
 
         if (roomId != null) {
             gameRooms.computeIfAbsent(roomId, k -> new CopyOnWriteArraySet<>()).add(session);
@@ -38,7 +123,11 @@ public class GameWebSocketHandler implements WebSocketHandler {
             sendMessage(session, createMessage("connected", "Connected to room " + roomId, null));
 
             // Notify other users in the room
-            broadcastToRoom(roomId, createMessage("user_joined", "A user joined the room", null), session);
+            broadcastToRoom(roomId, createMessage("user_joined", "A user joined the room", null), session, false);
+
+            if (roomId.startsWith(GAME_CHANNEL)) {
+                subscribeToGame(session, Long.valueOf(roomId.substring(GAME_CHANNEL.length())));
+            }
 
             logger.info("User joined room: {}", roomId);
         }
@@ -46,21 +135,24 @@ public class GameWebSocketHandler implements WebSocketHandler {
 
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
-        logger.info("Received message from session {}: {}", session.getId(), message.getPayload());
+        if (!(message instanceof TextMessage textMessage)) {
+            sendMessage(session, createMessage("error", "Only text commands are accepted", null));
+            return;
+        }
+        String payload = textMessage.getPayload();
+        if (commandReader.isOversized(payload)) {
+            logger.warn("Closing session {}: message of {} characters is over the limit", session.getId(), payload.length());
+            session.close(CloseStatus.TOO_BIG_TO_PROCESS);
+            return;
+        }
 
         try {
-            String payload = message.getPayload().toString();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> messageData = objectMapper.readValue(payload, Map.class);
-
-            String roomId = sessionToRoom.get(session.getId());
-            if (roomId != null) {
-                // Echo the message to all users in the room
-                broadcastToRoom(roomId, messageData, null);
-            }
-        } catch (Exception e) {
-            logger.error("Error handling message", e);
-            sendMessage(session, createMessage("error", "Invalid message format", null));
+            ClientCommand command = commandReader.read(payload);
+            logger.debug("Received {} from session {}", command.getClass().getSimpleName(), session.getId());
+            dispatch(session, command);
+        } catch (RuntimeException e) {
+            logger.debug("Rejected message from session {}: {}", session.getId(), e.getMessage());
+            sendMessage(session, createMessage("error", e.getMessage(), null));
         }
     }
 
@@ -73,6 +165,8 @@ public class GameWebSocketHandler implements WebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
         logger.info("WebSocket connection closed: {} with status: {}", session.getId(), closeStatus);
 
+        subscriptions.remove(session.getId());
+        outboundQueues.remove(session.getId());
         String roomId = sessionToRoom.remove(session.getId());
         if (roomId != null) {
             CopyOnWriteArraySet<WebSocketSession> roomSessions = gameRooms.get(roomId);
@@ -80,11 +174,14 @@ public class GameWebSocketHandler implements WebSocketHandler {
                 roomSessions.remove(session);
 
                 // Notify other users in the room
-                broadcastToRoom(roomId, createMessage("user_left", "A user left the room", null), null);
+                broadcastToRoom(roomId, createMessage("user_left", "A user left the room", null), null, false);
 
-                // Clean up empty rooms
+                // Clean up empty rooms, and the view of a game nobody here watches any more
                 if (roomSessions.isEmpty()) {
                     gameRooms.remove(roomId);
+                    if (roomId.startsWith(GAME_CHANNEL)) {
+                        views.remove(Long.valueOf(roomId.substring(GAME_CHANNEL.length())));
+                    }
                 }
             }
         }
@@ -95,34 +192,354 @@ public class GameWebSocketHandler implements WebSocketHandler {
         return false;
     }
 
+    @Override
+    public List<String> getSubProtocols() {
+        // Clients that don't ask for the binary protocol get JSON
+        return List.of(GameFrameCodec.SUBPROTOCOL);
+    }
+
+    /**
+     * Publishes a change to a game this node holds the table of. Runs on the game's
+     * mailbox, so each game's updates are published in order, and the hands of the
+     * players watching from here can be read off the table as they stand.
+     */
+    @Override
+    public void onGameChanged(GameTable table, GameDelta delta) {
+        GameUpdate update = GameUpdate.of(table, delta);
+        if (gameRooms.containsKey(GAME_CHANNEL + update.gameId())) {
+            GameView view = views.computeIfAbsent(update.gameId(), id -> new GameView(deltaHistory));
+            synchronized (view) {
+                List<String> missing = view.missingHands(update.roundNumber(),
+                        seatedWatchers(update.gameId(), update.state()));
+                if (!missing.isEmpty()) {
+                    view.offerHands(table.handsOf(missing));
+                }
+            }
+        }
+        backplane.publish(update);
+    }
+
+    /**
+     * Forgets this node's view of a game whose table has left the engine. Sessions still
+     * watching it start a new view from the next update, wherever the game went.
+     */
+    @Override
+    public void onGameReleased(Long gameId) {
+        views.remove(gameId);
+    }
+
+    @Override
+    public void onMessage(BackplaneMessage message) {
+        if (message instanceof RoomBroadcast broadcast) {
+            deliver(broadcast);
+        } else if (message instanceof GameUpdate update) {
+            pushUpdate(update);
+        }
+    }
+
+    /**
+     * Pushes a game change to every session on this node watching the game. Each session
+     * gets only what changed since the version it holds; a session that has fallen
+     * further behind than the delta history gets a full snapshot instead.
+     */
+    private void pushUpdate(GameUpdate update) {
+        CopyOnWriteArraySet<WebSocketSession> roomSessions = gameRooms.get(GAME_CHANNEL + update.gameId());
+        if (roomSessions == null) {
+            // Every node hears every game; only keep views of the ones watched here
+            views.remove(update.gameId());
+            return;
+        }
+        GameView view = views.computeIfAbsent(update.gameId(), id -> new GameView(deltaHistory));
+        if (!gameRouter.isLocal(update.gameId())) {
+            // The owner offered its own sessions' hands before publishing; it can't be asked from its mailbox
+            loadHands(update.gameId(), view, update.state());
+        }
+        synchronized (view) {
+            if (!view.apply(update)) {
+                return;
+            }
+            GameFanOut fanOut = new GameFanOut(update.gameId(), view);
+            for (WebSocketSession session : roomSessions) {
+                GameSubscription subscription = subscriptions.get(session.getId());
+                if (subscription != null && session.isOpen()) {
+                    fanOut.catchUp(subscription);
+                }
+            }
+            fanOut.finish();
+        }
+        release(update.gameId(), view);
+    }
+
+    private void deliver(RoomBroadcast broadcast) {
+        CopyOnWriteArraySet<WebSocketSession> roomSessions = gameRooms.get(broadcast.channel());
+        if (roomSessions == null) {
+            return;
+        }
+        // Every recipient on this node shares one message
+        TextMessage frame = null;
+        int recipients = 0;
+        for (WebSocketSession session : roomSessions) {
+            if (session.isOpen() && !session.getId().equals(broadcast.excludeSessionId())) {
+                if (frame == null) {
+                    frame = new TextMessage(broadcast.frame());
+                }
+                outboundQueues.send(session, frame, broadcast.stateUpdate());
+                recipients++;
+            }
+        }
+        if (recipients > 0) {
+            broadcasts.increment();
+            fanOutSize.record(recipients);
+            logger.debug("Broadcast to {} sessions on {}", recipients, broadcast.channel());
+        }
+    }
+
+    // Inbound commands
+    private void dispatch(WebSocketSession session, ClientCommand command) {
+        if (command instanceof ClientCommand.Ping ping) {
+            sendMessage(session, createMessage("pong", null, ping.nonce()));
+            return;
+        }
+
+        GameSubscription subscription = subscriptions.get(session.getId());
+        if (command instanceof ClientCommand.Ack ack) {
+            acknowledge(requireGame(subscription), ack.version());
+            return;
+        }
+        if (command instanceof ClientCommand.Resync) {
+            resync(requireGame(subscription));
+            return;
+        }
+
+        String username = (String) session.getAttributes().get(JwtHandshakeInterceptor.USERNAME_ATTRIBUTE);
+        if (username == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        String roomId = sessionToRoom.get(session.getId());
+
+        if (command instanceof ClientCommand.Bid bid) {
+            move(session, requireGame(subscription), new GameMoveRequest("BID", bid.quantity(), bid.faceValue()), username);
+        } else if (command instanceof ClientCommand.Challenge) {
+            move(session, requireGame(subscription), new GameMoveRequest("CHALLENGE"), username);
+        } else if (command instanceof ClientCommand.Ready) {
+            broadcastToRoom(roomId, createMessage("player_ready", username + " is ready",
+                    Map.of("username", username)), null, false);
+        } else if (command instanceof ClientCommand.Chat chat) {
+            broadcastToRoom(roomId, createMessage("chat", chat.text(),
+                    Map.of("username", username, "text", chat.text())), null, false);
+        }
+    }
+
+    private void move(WebSocketSession session, GameSubscription subscription, GameMoveRequest request, String username) {
+        // The new state reaches every watcher, this one included, as a pushed delta
+        GameStateResponse state = gameRouter.isLocal(subscription.gameId)
+                ? gameService.makeMove(subscription.gameId, request, username)
+                : gameRouter.forwardMove(subscription.gameId, request, username);
+        sendMessage(session, createMessage("move_accepted", "Move accepted", Map.of("version", state.getVersion())));
+    }
+
+    private GameSubscription requireGame(GameSubscription subscription) {
+        if (subscription == null) {
+            throw new RuntimeException("Only game sockets accept game commands");
+        }
+        return subscription;
+    }
+
+    // Game subscriptions
+    private void subscribeToGame(WebSocketSession session, Long gameId) {
+        // A reconnecting client passes the last version it holds, the game's sequence number,
+        // and is sent only what it missed; a snapshot only if that is no longer in the history
+        String version = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("version");
+        long resumeFrom = parseVersion(version);
+        GameSubscription subscription = new GameSubscription(session, gameId,
+                (String) session.getAttributes().get(JwtHandshakeInterceptor.USERNAME_ATTRIBUTE),
+                GameFrameCodec.SUBPROTOCOL.equals(session.getAcceptedProtocol()),
+                resumeFrom);
+        subscriptions.put(session.getId(), subscription);
+
+        GameView view = viewOf(gameId);
+        if (view != null) {
+            GameStateResponse state;
+            synchronized (view) {
+                state = view.stateFor(null);
+            }
+            loadHands(gameId, view, state);
+            CatchUp caughtUp;
+            synchronized (view) {
+                caughtUp = new GameFanOut(gameId, view).catchUp(subscription);
+            }
+            if (resumeFrom >= 0) {
+                (caughtUp == CatchUp.DELTA ? resumesReplayed
+                        : caughtUp == CatchUp.SNAPSHOT ? resumesFromSnapshot : resumesCurrent).increment();
+            }
+            release(gameId, view);
+        }
+    }
+
+    private void acknowledge(GameSubscription subscription, long version) {
+        if (version >= subscription.sent) {
+            return;
+        }
+        GameView view = viewOf(subscription.gameId);
+        if (view == null) {
+            return;
+        }
+        synchronized (view) {
+            if (version < subscription.sent) {
+                // The client is missing something we sent; replay from what it confirmed
+                subscription.sent = version;
+                new GameFanOut(subscription.gameId, view).catchUp(subscription);
+            }
+        }
+        release(subscription.gameId, view);
+    }
+
+    private void resync(GameSubscription subscription) {
+        GameView view = viewOf(subscription.gameId);
+        if (view == null) {
+            return;
+        }
+        synchronized (view) {
+            new GameFanOut(subscription.gameId, view).sendSnapshot(subscription);
+        }
+        release(subscription.gameId, view);
+    }
+
+    /**
+     * This node's view of a game, started from the game's table, here or on its owner, if
+     * no update for it has arrived yet.
+     *
+     * @return null if the game is not in progress
+     */
+    private GameView viewOf(Long gameId) {
+        GameView view = views.get(gameId);
+        if (view != null) {
+            return view;
+        }
+        Optional<GameUpdate> current = gameRouter.isLocal(gameId)
+                ? gameEngine.ask(gameId, table -> GameUpdate.of(table, null))
+                : gameRouter.fetchUpdate(gameId);
+        if (current.isEmpty()) {
+            return null;
+        }
+        view = views.computeIfAbsent(gameId, id -> new GameView(deltaHistory));
+        synchronized (view) {
+            // An update may have got here first, in which case this one is stale
+            view.apply(current.get());
+        }
+        return view;
+    }
+
+    /**
+     * Fetches the hands the view lacks for {@code state}'s round, of the players seated
+     * there whose sessions are on this node. Only the game's owner has them.
+     */
+    private void loadHands(Long gameId, GameView view, GameStateResponse state) {
+        List<String> missing;
+        synchronized (view) {
+            missing = view.missingHands(state.getRoundNumber(), seatedWatchers(gameId, state));
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            Optional<SeatHands> hands = gameRouter.isLocal(gameId)
+                    ? gameEngine.ask(gameId, table -> table.handsOf(missing))
+                    : gameRouter.fetchHands(gameId, missing);
+            if (hands.isPresent()) {
+                synchronized (view) {
+                    view.offerHands(hands.get());
+                }
+            }
+        } catch (RuntimeException e) {
+            // The players go without their dice until the next round, or they reconnect
+            logger.warn("Could not fetch hands for game {}: {}", gameId, e.getMessage());
+        }
+    }
+
+    // Players seated in the game whose sessions watch it from this node
+    private List<String> seatedWatchers(Long gameId, GameStateResponse state) {
+        List<String> watchers = new ArrayList<>();
+        CopyOnWriteArraySet<WebSocketSession> roomSessions = gameRooms.get(GAME_CHANNEL + gameId);
+        if (roomSessions == null) {
+            return watchers;
+        }
+        for (WebSocketSession session : roomSessions) {
+            GameSubscription subscription = subscriptions.get(session.getId());
+            if (subscription != null && subscription.username != null && !watchers.contains(subscription.username)) {
+                for (GameStateResponse.PlayerState player : state.getPlayers()) {
+                    if (subscription.username.equals(player.getUsername())) {
+                        watchers.add(subscription.username);
+                        break;
+                    }
+                }
+            }
+        }
+        return watchers;
+    }
+
+    // Nothing more will happen in a finished game
+    private void release(Long gameId, GameView view) {
+        synchronized (view) {
+            if (view.isFinished()) {
+                views.remove(gameId, view);
+            }
+        }
+    }
+
+    private static Counter resumes(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("liarsdice.websocket.resumes")
+                .description("Game sessions that reconnected with the version they held")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     // Utility methods
-    private String extractRoomIdFromUri(String uri) {
-        // Extract room/game ID from URI like /ws/game/123 or /ws/room/456
+    private long parseVersion(String version) {
+        try {
+            return version != null ? Long.parseLong(version) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String extractChannelFromUri(String uri) {
+        // Extract room/game channel from URI like /ws/game/123 or /ws/room/456
         String[] parts = uri.split("/");
         if (parts.length >= 3) {
-            return parts[parts.length - 1]; // Last part is the ID
+            String kind = parts[parts.length - 2];
+            return ("game".equals(kind) ? GAME_CHANNEL : ROOM_CHANNEL) + parts[parts.length - 1];
         }
         return null;
     }
 
+    private TextMessage encode(Object message) throws IOException {
+        serializations.increment();
+        return new TextMessage(objectMapper.writeValueAsString(message));
+    }
+
     private void sendMessage(WebSocketSession session, Map<String, Object> message) {
         try {
-            String json = objectMapper.writeValueAsString(message);
-            session.sendMessage(new TextMessage(json));
+            outboundQueues.send(session, encode(message), false);
         } catch (IOException e) {
-            logger.error("Error sending message to session {}: {}", session.getId(), e.getMessage());
+            logger.error("Error encoding message for session {}: {}", session.getId(), e.getMessage());
         }
     }
 
-    private void broadcastToRoom(String roomId, Map<String, Object> message, WebSocketSession excludeSession) {
-        CopyOnWriteArraySet<WebSocketSession> roomSessions = gameRooms.get(roomId);
-        if (roomSessions != null) {
-            for (WebSocketSession session : roomSessions) {
-                if (session.isOpen() && !session.equals(excludeSession)) {
-                    sendMessage(session, message);
-                }
-            }
+    // State updates may be dropped from a full queue in favour of later ones
+    private void broadcastToRoom(String roomId, Map<String, Object> message, WebSocketSession excludeSession,
+                                 boolean stateUpdate) {
+        // Nothing in a room broadcast is private, so every recipient on every node gets the same frame
+        String frame;
+        try {
+            frame = objectMapper.writeValueAsString(message);
+            serializations.increment();
+        } catch (IOException e) {
+            logger.error("Error encoding broadcast for {}: {}", roomId, e.getMessage());
+            return;
         }
+        backplane.publish(new RoomBroadcast(roomId, frame, excludeSession != null ? excludeSession.getId() : null,
+                stateUpdate));
     }
 
     private Map<String, Object> createMessage(String type, String message, Object data) {
@@ -136,10 +553,187 @@ public class GameWebSocketHandler implements WebSocketHandler {
 
     // Public methods for external use
     public void broadcastGameUpdate(String gameId, Object gameState) {
-        broadcastToRoom(gameId, createMessage("game_update", "Game state updated", gameState), null);
+        broadcastToRoom(GAME_CHANNEL + gameId, createMessage("game_update", "Game state updated", gameState), null, true);
     }
 
     public void broadcastRoomUpdate(String roomId, Object roomState) {
-        broadcastToRoom(roomId, createMessage("room_update", "Room state updated", roomState), null);
+        broadcastToRoom(ROOM_CHANNEL + roomId, createMessage("room_update", "Room state updated", roomState), null, true);
+    }
+
+    public long getBroadcastCount() {
+        return broadcasts.sum();
+    }
+
+    public long getSerializationCount() {
+        return serializations.sum();
+    }
+
+    public int getViewCount() {
+        return views.size();
+    }
+
+    public int getOpenSessionCount() {
+        return sessionToRoom.size();
+    }
+
+    public int getChannelCount() {
+        return gameRooms.size();
+    }
+
+    public Map<String, OutboundQueue.Stats> getSendStats() {
+        return outboundQueues.stats();
+    }
+
+    /**
+     * One pass of game pushes. Sessions holding the same version get the same delta, so
+     * its frame is encoded once and shared; a recipient's own dice are the only part
+     * encoded per session, spliced onto the end of the shared JSON. Snapshots for
+     * spectators are shared the same way, while seated players' snapshots carry their
+     * dice inside the player list and are encoded individually. Binary sessions get
+     * {@link GameFrameCodec} frames for single-move deltas, shared the same way.
+     */
+    private final class GameFanOut {
+        private final Long gameId;
+        private final GameView view;
+        private final Map<Long, GameDelta> deltas = new HashMap<>();
+        private final Map<Long, TextMessage> deltaFrames = new HashMap<>();
+        private final Map<Long, byte[]> binaryFrames = new HashMap<>();
+        private TextMessage spectatorSnapshot;
+        private int encoded;
+        private int recipients;
+
+        GameFanOut(Long gameId, GameView view) {
+            this.gameId = gameId;
+            this.view = view;
+        }
+
+        CatchUp catchUp(GameSubscription subscription) {
+            if (outboundQueues.takeStale(subscription.session)) {
+                // Pushes were dropped from a full send queue; only a snapshot can repair that
+                subscription.sent = -1;
+            }
+            if (subscription.sent == view.getVersion()) {
+                return CatchUp.CURRENT;
+            }
+            GameDelta delta = subscription.sent >= 0
+                    ? deltas.computeIfAbsent(subscription.sent, view.log()::since)
+                    : null;
+            if (delta == null) {
+                sendSnapshot(subscription);
+                return CatchUp.SNAPSHOT;
+            }
+
+            if (subscription.binary && sendBinary(subscription, delta)) {
+                return CatchUp.DELTA;
+            }
+            try {
+                TextMessage frame = deltaFrames.get(subscription.sent);
+                if (frame == null) {
+                    frame = encode(createMessage("game_delta", "Game state changed", delta));
+                    deltaFrames.put(subscription.sent, frame);
+                    encoded++;
+                }
+                Long hand = view.handOf(subscription.username);
+                if (delta.roundNumber() != null && hand != null) {
+                    // A new round re-rolled every hand; only the owner sees theirs
+                    frame = withDice(frame, Dice.toList(hand));
+                }
+                outboundQueues.send(subscription.session, frame, true);
+                recipients++;
+                subscription.sent = delta.version();
+            } catch (IOException e) {
+                logger.error("Error encoding delta for game {}: {}", gameId, e.getMessage());
+            }
+            return CatchUp.DELTA;
+        }
+
+        private boolean sendBinary(GameSubscription subscription, GameDelta delta) {
+            byte[] frames = binaryFrames.get(subscription.sent);
+            if (frames == null && !binaryFrames.containsKey(subscription.sent)) {
+                frames = GameFrameCodec.encode(view::seatIndexOf, delta);
+                binaryFrames.put(subscription.sent, frames);
+                serializations.increment();
+                encoded++;
+            }
+            if (frames == null) {
+                // A merged catch-up has no binary form; fall back to JSON
+                return false;
+            }
+            Long hand = view.handOf(subscription.username);
+            if (delta.roundNumber() != null && hand != null) {
+                frames = GameFrameCodec.withHand(frames, hand);
+            }
+            // Each session reads through its own buffer, so only the bytes are shared
+            outboundQueues.send(subscription.session, new BinaryMessage(frames), true);
+            recipients++;
+            subscription.sent = delta.version();
+            return true;
+        }
+
+        void sendSnapshot(GameSubscription subscription) {
+            try {
+                TextMessage frame;
+                if (view.handOf(subscription.username) == null) {
+                    if (spectatorSnapshot == null) {
+                        spectatorSnapshot = encode(createMessage("game_snapshot", "Game state", view.stateFor(null)));
+                        encoded++;
+                    }
+                    frame = spectatorSnapshot;
+                } else {
+                    frame = encode(createMessage("game_snapshot", "Game state", view.stateFor(subscription.username)));
+                    encoded++;
+                }
+                outboundQueues.send(subscription.session, frame, true);
+                recipients++;
+                subscription.sent = view.getVersion();
+            } catch (IOException e) {
+                logger.error("Error encoding snapshot for game {}: {}", gameId, e.getMessage());
+            }
+        }
+
+        void finish() {
+            if (recipients > 0) {
+                broadcasts.increment();
+                fanOutSize.record(recipients);
+                logger.debug("Game {} update to {} sessions with {} serializations", gameId, recipients, encoded);
+            }
+        }
+
+        private TextMessage withDice(TextMessage shared, List<Integer> dice) {
+            String json = shared.getPayload();
+            StringBuilder out = new StringBuilder(json.length() + 24)
+                    .append(json, 0, json.length() - 1)
+                    .append(",\"dice\":[");
+            for (int i = 0; i < dice.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(dice.get(i));
+            }
+            return new TextMessage(out.append("]}"));
+        }
+    }
+
+    // What a session was sent to bring it up to date
+    private enum CatchUp { CURRENT, DELTA, SNAPSHOT }
+
+    /**
+     * A session watching a game. {@code sent} is the version the session has been
+     * brought up to; it is only touched while holding the game's {@link GameView}.
+     */
+    private static class GameSubscription {
+        private final WebSocketSession session;
+        private final Long gameId;
+        private final String username;
+        private final boolean binary;
+        private volatile long sent;
+
+        GameSubscription(WebSocketSession session, Long gameId, String username, boolean binary, long sent) {
+            this.session = session;
+            this.gameId = gameId;
+            this.username = username;
+            this.binary = binary;
+            this.sent = sent;
+        }
     }
-}
\ No newline at end of file
+}
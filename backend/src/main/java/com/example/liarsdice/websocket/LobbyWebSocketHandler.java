@@ -0,0 +1,232 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.lobby.LobbyChange;
+import com.example.liarsdice.lobby.LobbyFilter;
+import com.example.liarsdice.lobby.LobbyIndex;
+import com.example.liarsdice.lobby.LobbyListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lobby topic at {@code /ws/lobby}. A new session gets a {@code lobby_snapshot} of
+ * every active room, then {@code lobby_update} messages listing rooms added, changed
+ * or removed. Changes are collected for {@code coalesce-ms} and folded per room, so a
+ * burst of joins becomes one update carrying each room's latest state; that update is
+ * encoded once and shared by every session.
+ * <p>
+ * Clients apply ADDED and CHANGED as upserts and REMOVED as deletes, so a change that
+ * is already reflected in their snapshot is harmless.
+ * <p>
+ * Snapshots are encoded once per lobby version and shared too. The only thing a
+ * client may send is a {@code resync}, at most once per {@code resync-interval-ms};
+ * anything else is ignored, and oversized frames close the session.
+ */
+@Component
+public class LobbyWebSocketHandler implements WebSocketHandler, LobbyListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LobbyWebSocketHandler.class);
+
+    // Seat counts of full rooms matter to the lobby too
+    private static final LobbyFilter ALL_ROOMS = new LobbyFilter(0, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final LobbyIndex lobbyIndex;
+    private final OutboundQueues outboundQueues;
+    private final ClientCommandReader commandReader;
+    private final ScheduledExecutorService flusher;
+    private final long coalesceMs;
+    private final long resyncIntervalNanos;
+
+    private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+    // When each session last asked for a snapshot
+    private final Map<String, Long> resyncedAt = new ConcurrentHashMap<>();
+    private volatile EncodedSnapshot snapshot;
+    private final Map<Long, LobbyChange> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    @Autowired
+    public LobbyWebSocketHandler(ObjectMapper objectMapper, LobbyIndex lobbyIndex, OutboundQueues outboundQueues,
+                                 ClientCommandReader commandReader,
+                                 @Value("${liarsdice.lobby.coalesce-ms:100}") long coalesceMs,
+                                 @Value("${liarsdice.lobby.resync-interval-ms:1000}") long resyncIntervalMs) {
+        this(objectMapper, lobbyIndex, outboundQueues, commandReader, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lobby-flush");
+            thread.setDaemon(true);
+            return thread;
+        }), coalesceMs, resyncIntervalMs);
+    }
+
+    public LobbyWebSocketHandler(ObjectMapper objectMapper, LobbyIndex lobbyIndex, OutboundQueues outboundQueues,
+                                 ClientCommandReader commandReader, ScheduledExecutorService flusher, long coalesceMs,
+                                 long resyncIntervalMs) {
+        this.objectMapper = objectMapper;
+        this.lobbyIndex = lobbyIndex;
+        this.outboundQueues = outboundQueues;
+        this.commandReader = commandReader;
+        this.flusher = flusher;
+        this.coalesceMs = coalesceMs;
+        this.resyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(resyncIntervalMs);
+        lobbyIndex.addListener(this);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        outboundQueues.register(session);
+        sessions.add(session);
+        sendSnapshot(session);
+    }
+
+    @Override
+    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        if (!(message instanceof TextMessage textMessage)) {
+            return;
+        }
+        String payload = textMessage.getPayload();
+        if (commandReader.isOversized(payload)) {
+            logger.warn("Closing lobby session {}: message of {} characters is over the limit",
+                    session.getId(), payload.length());
+            session.close(CloseStatus.TOO_BIG_TO_PROCESS);
+            return;
+        }
+        ClientCommand command;
+        try {
+            command = commandReader.read(payload);
+        } catch (RuntimeException e) {
+            logger.debug("Ignored message from lobby session {}: {}", session.getId(), e.getMessage());
+            return;
+        }
+        if (command instanceof ClientCommand.Resync && mayResync(session)) {
+            sendSnapshot(session);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        logger.error("Lobby WebSocket transport error for session {}: {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        sessions.remove(session);
+        resyncedAt.remove(session.getId());
+        outboundQueues.remove(session.getId());
+    }
+
+    @Override
+    public boolean supportsPartialMessages() {
+        return false;
+    }
+
+    @Override
+    public void onLobbyChanged(LobbyChange change) {
+        synchronized (pending) {
+            LobbyChange merged = pending.containsKey(change.roomId())
+                    ? pending.get(change.roomId()).then(change)
+                    : change;
+            if (merged != null) {
+                pending.put(change.roomId(), merged);
+            } else {
+                pending.remove(change.roomId());
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::flush, coalesceMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    void flush() {
+        List<LobbyChange> changes;
+        synchronized (pending) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        long version = changes.stream().mapToLong(LobbyChange::version).max().orElse(0);
+        TextMessage update;
+        try {
+            update = encode("lobby_update", Map.of("version", version, "changes", changes));
+        } catch (IOException e) {
+            logger.error("Error encoding lobby update: {}", e.getMessage());
+            return;
+        }
+        for (WebSocketSession session : sessions) {
+            if (!session.isOpen()) {
+                continue;
+            }
+            if (outboundQueues.takeStale(session)) {
+                // Earlier updates were dropped from its queue; start it over
+                sendSnapshot(session);
+            } else {
+                outboundQueues.send(session, update, true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    private boolean mayResync(WebSocketSession session) {
+        long now = System.nanoTime();
+        Long last = resyncedAt.get(session.getId());
+        if (last != null && now - last < resyncIntervalNanos) {
+            return false;
+        }
+        return last == null ? resyncedAt.putIfAbsent(session.getId(), now) == null
+                : resyncedAt.replace(session.getId(), last, now);
+    }
+
+    private void sendSnapshot(WebSocketSession session) {
+        try {
+            outboundQueues.send(session, currentSnapshot(), true);
+        } catch (IOException e) {
+            logger.error("Error encoding lobby snapshot for session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private TextMessage currentSnapshot() throws IOException {
+        // Read before the rooms, so a change in between only makes the rooms newer than labelled
+        long version = lobbyIndex.getVersion();
+        EncodedSnapshot cached = snapshot;
+        if (cached != null && cached.version() == version) {
+            return cached.message();
+        }
+        TextMessage message = encode("lobby_snapshot", Map.of("version", version, "rooms", lobbyIndex.find(ALL_ROOMS)));
+        snapshot = new EncodedSnapshot(version, message);
+        return message;
+    }
+
+    private TextMessage encode(String type, Object data) throws IOException {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", type);
+        message.put("data", data);
+        message.put("timestamp", System.currentTimeMillis());
+        return new TextMessage(objectMapper.writeValueAsString(message));
+    }
+
+    private record EncodedSnapshot(long version, TextMessage message) {}
+}
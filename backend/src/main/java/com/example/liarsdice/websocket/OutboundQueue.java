@@ -0,0 +1,207 @@
+package com.example.liarsdice.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded outbound queue for one WebSocket session. Callers only enqueue; a single
+ * drainer on the send executor writes frames to the socket in order, a batch at a
+ * time so sessions share the senders, and the session never sees concurrent sends.
+ * A write that fails or times out closes the session.
+ * <p>
+ * When the queue is full the {@link OverflowPolicy} decides: either queued state
+ * updates are dropped, since the next one supersedes them, and the session is marked
+ * stale so its next game push is a full snapshot; or the session is disconnected.
+ */
+public class OutboundQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundQueue.class);
+
+    // Frames one drain writes before giving its sender back to other sessions
+    static final int DRAIN_BATCH = 64;
+
+    public enum OverflowPolicy {
+        DROP_SUPERSEDED,
+        DISCONNECT
+    }
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    // Shared by every session's queue
+    private final Timer sendLatency;
+    private final Counter droppedFrames;
+
+    private final Deque<Outbound> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private volatile long maxLatencyNanos;
+
+    OutboundQueue(WebSocketSession session, Executor executor, int capacity, OverflowPolicy policy) {
+        this(session, executor, capacity, policy, OutboundQueues.sendLatency(Metrics.globalRegistry),
+                OutboundQueues.droppedFrames(Metrics.globalRegistry));
+    }
+
+    OutboundQueue(WebSocketSession session, Executor executor, int capacity, OverflowPolicy policy,
+                  Timer sendLatency, Counter droppedFrames) {
+        this.session = session;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.sendLatency = sendLatency;
+        this.droppedFrames = droppedFrames;
+    }
+
+    /**
+     * Queues a frame. {@code stateUpdate} frames may be dropped in favour of later ones.
+     *
+     * @return false if the frame was not queued
+     */
+    boolean offer(WebSocketMessage<?> message, boolean stateUpdate) {
+        if (closed) {
+            return false;
+        }
+        // Take a slot before queueing, so concurrent offers can't overshoot the bound
+        int reserved = depth.get();
+        while (reserved >= capacity || !depth.compareAndSet(reserved, reserved + 1)) {
+            if (reserved >= capacity && !makeRoom(stateUpdate)) {
+                return false;
+            }
+            reserved = depth.get();
+        }
+        queue.addLast(new Outbound(message, stateUpdate, System.nanoTime()));
+        schedule();
+        return true;
+    }
+
+    /**
+     * Whether state updates were dropped since the last call.
+     */
+    boolean takeStale() {
+        return stale.getAndSet(false);
+    }
+
+    void close() {
+        closed = true;
+        drop(depth.getAndSet(0));
+        queue.clear();
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    Stats stats() {
+        long count = sent.sum();
+        return new Stats(depth.get(), count, dropped.sum(),
+                count > 0 ? latencyNanos.sum() / count / 1000 : 0, maxLatencyNanos / 1000);
+    }
+
+    private boolean makeRoom(boolean stateUpdate) {
+        if (policy == OverflowPolicy.DROP_SUPERSEDED) {
+            int removed = 0;
+            for (Outbound outbound : queue) {
+                if (outbound.stateUpdate() && queue.remove(outbound)) {
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                depth.addAndGet(-removed);
+                drop(removed);
+                stale.set(true);
+            }
+            if (depth.get() < capacity) {
+                return true;
+            }
+            if (stateUpdate) {
+                drop(1);
+                stale.set(true);
+                return false;
+            }
+        }
+        logger.warn("Outbound queue for session {} is full, disconnecting", session.getId());
+        close();
+        executor.execute(this::disconnect);
+        return false;
+    }
+
+    private void disconnect() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            logger.debug("Error closing session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private void drop(int frames) {
+        dropped.add(frames);
+        droppedFrames.increment(frames);
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Outbound outbound;
+            int written = 0;
+            while (!closed && written++ < DRAIN_BATCH && (outbound = queue.pollFirst()) != null) {
+                depth.decrementAndGet();
+                try {
+                    session.sendMessage(outbound.message());
+                } catch (IOException | IllegalStateException e) {
+                    // Timed out or closed; either way the client is missing frames now
+                    logger.error("Error sending message to session {}: {}", session.getId(), e.getMessage());
+                    close();
+                    disconnect();
+                    return;
+                }
+                long latency = System.nanoTime() - outbound.queuedAt();
+                sent.increment();
+                latencyNanos.add(latency);
+                sendLatency.record(latency, TimeUnit.NANOSECONDS);
+                if (latency > maxLatencyNanos) {
+                    maxLatencyNanos = latency;
+                }
+            }
+        } finally {
+            draining.set(false);
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private record Outbound(WebSocketMessage<?> message, boolean stateUpdate, long queuedAt) {}
+
+    /**
+     * Send-side view of one session. Latencies run from enqueue to the socket write
+     * completing, in microseconds.
+     */
+    public record Stats(int queueDepth, long sent, long dropped, long meanLatencyMicros, long maxLatencyMicros) {}
+}
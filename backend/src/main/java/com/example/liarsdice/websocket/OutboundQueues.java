@@ -0,0 +1,150 @@
+package com.example.liarsdice.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.websocket.Session;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link OutboundQueue}s of every open WebSocket session, and the fixed pool of
+ * threads that drain them. A thread is only held while a session has frames to write,
+ * so an idle connection costs nothing. A stalled one holds its sender for at most the
+ * send timeout, after which the write fails and the session is dropped.
+ */
+@Component
+public class OutboundQueues {
+
+    // Tomcat's limit on a blocking write, read per session
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final Map<String, OutboundQueue> queues = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int capacity;
+    private final OutboundQueue.OverflowPolicy policy;
+    private final long sendTimeoutMs;
+    private final Timer sendLatency;
+    private final Counter droppedFrames;
+
+    @Autowired
+    public OutboundQueues(@Value("${liarsdice.websocket.send-queue-capacity:256}") int capacity,
+                          @Value("${liarsdice.websocket.overflow-policy:DROP_SUPERSEDED}") OutboundQueue.OverflowPolicy policy,
+                          @Value("${liarsdice.websocket.sender-threads:0}") int senders,
+                          @Value("${liarsdice.websocket.send-timeout-ms:5000}") long sendTimeoutMs,
+                          MeterRegistry meterRegistry) {
+        this(Executors.newFixedThreadPool(senders > 0 ? senders : 2 * Runtime.getRuntime().availableProcessors(),
+                senderThreads()), capacity, policy, sendTimeoutMs, meterRegistry);
+    }
+
+    public OutboundQueues(Executor executor, int capacity, OutboundQueue.OverflowPolicy policy) {
+        this(executor, capacity, policy, 0, Metrics.globalRegistry);
+    }
+
+    /**
+     * @param sendTimeoutMs how long one blocking write may take, or 0 to leave the
+     *                      container's limit
+     */
+    public OutboundQueues(Executor executor, int capacity, OutboundQueue.OverflowPolicy policy, long sendTimeoutMs,
+                          MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.sendLatency = sendLatency(meterRegistry);
+        this.droppedFrames = droppedFrames(meterRegistry);
+        Gauge.builder("liarsdice.websocket.queued", this, OutboundQueues::queued)
+                .description("Frames waiting in send queues")
+                .register(meterRegistry);
+    }
+
+    public void register(WebSocketSession session) {
+        if (sendTimeoutMs > 0 && session instanceof NativeWebSocketSession nativeSession) {
+            Session container = nativeSession.getNativeSession(Session.class);
+            if (container != null) {
+                container.getUserProperties().put(BLOCKING_SEND_TIMEOUT, sendTimeoutMs);
+            }
+        }
+        queues.put(session.getId(), new OutboundQueue(session, executor, capacity, policy, sendLatency, droppedFrames));
+    }
+
+    public void remove(String sessionId) {
+        OutboundQueue queue = queues.remove(sessionId);
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    public boolean send(WebSocketSession session, WebSocketMessage<?> message, boolean stateUpdate) {
+        OutboundQueue queue = queues.get(session.getId());
+        return queue != null && queue.offer(message, stateUpdate);
+    }
+
+    /**
+     * Whether state updates to this session were dropped since the last call, meaning
+     * the client no longer holds what it was last sent.
+     */
+    public boolean takeStale(WebSocketSession session) {
+        OutboundQueue queue = queues.get(session.getId());
+        return queue != null && queue.takeStale();
+    }
+
+    public Map<String, OutboundQueue.Stats> stats() {
+        Map<String, OutboundQueue.Stats> stats = new HashMap<>();
+        queues.forEach((sessionId, queue) -> stats.put(sessionId, queue.stats()));
+        return stats;
+    }
+
+    private double queued() {
+        int frames = 0;
+        for (OutboundQueue queue : queues.values()) {
+            frames += queue.depth();
+        }
+        return frames;
+    }
+
+    static Timer sendLatency(MeterRegistry meterRegistry) {
+        return Timer.builder("liarsdice.websocket.send")
+                .description("Time from queueing a frame to writing it to the socket")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static Counter droppedFrames(MeterRegistry meterRegistry) {
+        return Counter.builder("liarsdice.websocket.dropped")
+                .description("Frames dropped from full send queues or closed sessions")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+    private static ThreadFactory senderThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ws-send-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
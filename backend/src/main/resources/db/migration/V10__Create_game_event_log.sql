@@ -0,0 +1,19 @@
+-- Append-only log of everything that happens in a game, see GameEvent
+CREATE TABLE game_events (
+    id BIGSERIAL PRIMARY KEY,
+    game_id BIGINT NOT NULL REFERENCES games(id),
+    seq BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    UNIQUE(game_id, seq)
+);
+ALTER SEQUENCE game_events_id_seq INCREMENT BY 50;
+
+-- Latest snapshot of each game; rebuilding replays only the events after seq
+CREATE TABLE game_snapshots (
+    game_id BIGINT PRIMARY KEY REFERENCES games(id),
+    seq BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,6 @@
+-- Backend nodes currently serving games; a node is gone once its heartbeat goes stale
+CREATE TABLE cluster_nodes (
+    node_id VARCHAR(64) PRIMARY KEY,
+    url VARCHAR(255) NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Keyset pagination walks these in (created_at, id) order
+CREATE INDEX idx_game_moves_game_created_id ON game_moves(game_id, created_at, id);
+CREATE INDEX idx_rooms_active_created_id ON rooms(is_active, created_at, id);
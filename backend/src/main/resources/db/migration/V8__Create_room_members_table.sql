@@ -0,0 +1,24 @@
+CREATE TABLE room_members (
+    id BIGSERIAL PRIMARY KEY,
+    room_id BIGINT NOT NULL REFERENCES rooms(id),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    joined_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(room_id, user_id)
+);
+
+CREATE INDEX idx_room_members_user ON room_members(user_id);
+
+-- Rooms counted seats before anyone was recorded against them. Seat whoever played in
+-- each room, in play order, and count only them, so every seat has a member to free it.
+INSERT INTO room_members (room_id, user_id)
+SELECT room_id, user_id
+FROM (
+    SELECT DISTINCT ON (g.room_id, p.user_id) g.room_id, p.user_id, g.id AS game_id, p.player_order
+    FROM players p
+    JOIN games g ON g.id = p.game_id
+    ORDER BY g.room_id, p.user_id, g.id, p.player_order
+) first_seat
+ORDER BY room_id, game_id, player_order;
+
+UPDATE rooms r
+SET current_players = (SELECT COUNT(*) FROM room_members m WHERE m.room_id = r.id);
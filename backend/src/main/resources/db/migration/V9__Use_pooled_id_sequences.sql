@@ -0,0 +1,10 @@
+-- Hibernate takes ids from these in blocks of 50 (allocationSize), so inserts no
+-- longer need a round trip each for the generated key and can be sent as JDBC batches.
+-- Each nextval now reserves the 50 ids ending at the value returned; plain SQL inserts
+-- using the column default still get ids no block has handed out.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rooms_id_seq INCREMENT BY 50;
+ALTER SEQUENCE games_id_seq INCREMENT BY 50;
+ALTER SEQUENCE players_id_seq INCREMENT BY 50;
+ALTER SEQUENCE game_moves_id_seq INCREMENT BY 50;
+ALTER SEQUENCE room_members_id_seq INCREMENT BY 50;
@@ -0,0 +1,133 @@
+package com.example.liarsdice.backplane;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two backplanes on one embedded Postgres, standing in for two nodes.
+ */
+class PostgresBackplaneTest {
+
+	private static EmbeddedPostgres postgres;
+
+	private PostgresBackplane first;
+	private PostgresBackplane second;
+	private BlockingQueue<BackplaneMessage> firstReceived;
+	private BlockingQueue<BackplaneMessage> secondReceived;
+
+	@BeforeAll
+	static void startPostgres() throws Exception {
+		postgres = EmbeddedPostgres.builder().start();
+	}
+
+	@AfterAll
+	static void stopPostgres() throws Exception {
+		postgres.close();
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		first = node();
+		second = node();
+		firstReceived = new LinkedBlockingQueue<>();
+		secondReceived = new LinkedBlockingQueue<>();
+		first.addListener(firstReceived::add);
+		second.addListener(secondReceived::add);
+		// LISTEN is issued on a thread of its own; wait until both nodes hear each other
+		awaitListening();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		first.stop();
+		second.stop();
+	}
+
+	@Test
+	void roomBroadcastReachesTheOtherNodeOnce() throws Exception {
+		RoomBroadcast broadcast = new RoomBroadcast("room:7", "{\"type\":\"chat\"}", "s1", false);
+
+		first.publish(broadcast);
+
+		assertEquals(broadcast, firstReceived.poll(5, TimeUnit.SECONDS));
+		assertEquals(broadcast, secondReceived.poll(5, TimeUnit.SECONDS));
+		// The publisher doesn't hear its own notification again
+		assertNull(firstReceived.poll(500, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void gameUpdateCarriesOnlyThePublicStateAcross() throws Exception {
+		List<GameTable.Seat> seats = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			seats.add(new GameTable.Seat((long) i, (long) i, "player" + i, i, 5));
+		}
+		GameTable table = new GameTable(9L, 4L, seats, 1, 0, new SplittableRandom(3));
+		table.bid(1L, 2, 4);
+
+		second.publish(GameUpdate.of(table, table.lastDelta()));
+
+		GameUpdate received = (GameUpdate) firstReceived.poll(5, TimeUnit.SECONDS);
+		assertNotNull(received);
+		assertEquals(9L, received.gameId());
+		assertEquals(table.getVersion(), received.version());
+		assertEquals(table.lastDelta().bid(), received.delta().bid());
+		assertEquals("player2", received.state().getCurrentPlayerUsername());
+		for (GameStateResponse.PlayerState player : received.state().getPlayers()) {
+			assertNull(player.getDice());
+		}
+	}
+
+	@Test
+	void ordersMessagesFromOneNode() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			first.publish(new RoomBroadcast("room:1", String.valueOf(i), null, true));
+		}
+
+		for (int i = 0; i < 50; i++) {
+			RoomBroadcast received = (RoomBroadcast) secondReceived.poll(5, TimeUnit.SECONDS);
+			assertNotNull(received);
+			assertEquals(String.valueOf(i), received.frame());
+		}
+	}
+
+	private PostgresBackplane node() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		PostgresBackplane backplane = new PostgresBackplane(objectMapper, postgres.getJdbcUrl("postgres", "postgres"),
+				"postgres", "", "liarsdice_test", 50);
+		backplane.start();
+		return backplane;
+	}
+
+	private void awaitListening() throws InterruptedException {
+		for (PostgresBackplane publisher : List.of(first, second)) {
+			BlockingQueue<BackplaneMessage> other = publisher == first ? secondReceived : firstReceived;
+			BlockingQueue<BackplaneMessage> own = publisher == first ? firstReceived : secondReceived;
+			RoomBroadcast probe = new RoomBroadcast("probe", "", null, false);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (other.poll(100, TimeUnit.MILLISECONDS) == null) {
+				assertTrue(System.nanoTime() < deadline, "Node never started listening");
+				publisher.publish(probe);
+			}
+			Thread.sleep(200);
+			own.clear();
+			other.clear();
+		}
+	}
+}
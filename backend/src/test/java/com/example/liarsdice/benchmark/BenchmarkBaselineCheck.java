@@ -0,0 +1,94 @@
+package com.example.liarsdice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the stored baseline and fails if any
+ * benchmark got slower than the allowed tolerance. Run by the {@code benchmark}
+ * Maven profile after the benchmarks; pass {@code update} to replace the baseline.
+ * <p>
+ * Usage: {@code BenchmarkBaselineCheck <result.json> <baseline.json> <tolerance> [update]}
+ */
+public class BenchmarkBaselineCheck {
+
+	public static void main(String[] args) throws Exception {
+		File result = new File(args[0]);
+		File baseline = new File(args[1]);
+		double tolerance = Double.parseDouble(args[2]);
+		boolean update = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+		if (update || !baseline.exists()) {
+			Files.copy(result.toPath(), baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			System.out.println("Benchmark baseline written to " + baseline);
+			return;
+		}
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		Map<String, JsonNode> current = index(objectMapper.readTree(result));
+		Map<String, JsonNode> expected = index(objectMapper.readTree(baseline));
+
+		List<String> regressions = new ArrayList<>();
+		System.out.printf("%-70s %14s %14s %8s%n", "benchmark", "baseline", "current", "change");
+		for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+			JsonNode before = expected.get(entry.getKey());
+			if (before == null) {
+				System.out.printf("%-70s %14s %14.3f %8s%n", entry.getKey(), "-", score(entry.getValue()), "new");
+				continue;
+			}
+			double change = change(before, entry.getValue());
+			System.out.printf("%-70s %14.3f %14.3f %+7.1f%%%n", entry.getKey(),
+					score(before), score(entry.getValue()), change * 100);
+			if (change > tolerance) {
+				regressions.add(entry.getKey());
+			}
+		}
+
+		if (!regressions.isEmpty()) {
+			System.err.println("Benchmarks slower than baseline by more than " + (tolerance * 100) + "%: " + regressions);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Relative slowdown: positive means worse, whichever direction the mode measures.
+	 */
+	private static double change(JsonNode before, JsonNode after) {
+		double ratio = score(after) / score(before);
+		boolean higherIsBetter = "thrpt".equals(after.get("mode").asText());
+		return higherIsBetter ? (1 / ratio) - 1 : ratio - 1;
+	}
+
+	private static double score(JsonNode run) {
+		return run.get("primaryMetric").get("score").asDouble();
+	}
+
+	private static Map<String, JsonNode> index(JsonNode runs) {
+		Map<String, JsonNode> byKey = new TreeMap<>();
+		for (JsonNode run : runs) {
+			StringBuilder key = new StringBuilder(run.get("benchmark").asText()
+					.replace("com.example.liarsdice.benchmark.", ""));
+			JsonNode params = run.get("params");
+			if (params != null) {
+				Map<String, String> sorted = new TreeMap<>();
+				Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+				while (fields.hasNext()) {
+					Map.Entry<String, JsonNode> field = fields.next();
+					sorted.put(field.getKey(), field.getValue().asText());
+				}
+				sorted.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+			}
+			byKey.put(key.toString(), run);
+		}
+		return byKey;
+	}
+}
@@ -0,0 +1,23 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.engine.GameTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+final class BenchmarkTables {
+
+	private BenchmarkTables() {}
+
+	static GameTable newTable(int players) {
+		List<GameTable.Seat> seats = new ArrayList<>(players);
+		for (int i = 1; i <= players; i++) {
+			seats.add(new GameTable.Seat((long) i, (long) i, "player" + i, i, 5));
+		}
+		return new GameTable(1L, 1L, seats, 1, 0, new SplittableRandom(players));
+	}
+}
@@ -0,0 +1,132 @@
+package com.example.liarsdice.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link WebSocketSession} that counts what is sent to it instead of
+ * writing to a socket.
+ */
+public class BenchmarkWebSocketSession implements WebSocketSession {
+
+	private final String id;
+	private final URI uri;
+	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+	private volatile boolean open = true;
+	private volatile long messages;
+	private volatile long bytes;
+	private volatile WebSocketMessage<?> lastMessage;
+
+	public BenchmarkWebSocketSession(String id, String path) {
+		this.id = id;
+		this.uri = URI.create("ws://localhost:8080/api" + path);
+	}
+
+	@Override
+	public void sendMessage(WebSocketMessage<?> message) {
+		messages++;
+		bytes += message.getPayloadLength();
+		lastMessage = message;
+	}
+
+	public long getMessages() {
+		return messages;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public WebSocketMessage<?> getLastMessage() {
+		return lastMessage;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public URI getUri() {
+		return uri;
+	}
+
+	@Override
+	public HttpHeaders getHandshakeHeaders() {
+		return new HttpHeaders();
+	}
+
+	@Override
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public Principal getPrincipal() {
+		return null;
+	}
+
+	@Override
+	public InetSocketAddress getLocalAddress() {
+		return null;
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return null;
+	}
+
+	@Override
+	public String getAcceptedProtocol() {
+		return null;
+	}
+
+	@Override
+	public void setTextMessageSizeLimit(int messageSizeLimit) {
+	}
+
+	@Override
+	public int getTextMessageSizeLimit() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+	}
+
+	@Override
+	public int getBinaryMessageSizeLimit() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public List<WebSocketExtension> getExtensions() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	@Override
+	public void close(CloseStatus status) {
+		open = false;
+	}
+}
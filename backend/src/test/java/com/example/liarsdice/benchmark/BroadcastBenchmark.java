@@ -0,0 +1,62 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.backplane.LocalBackplane;
+import com.example.liarsdice.cluster.GameRouter;
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.service.GameService;
+import com.example.liarsdice.websocket.ClientCommandReader;
+import com.example.liarsdice.websocket.GameWebSocketHandler;
+import com.example.liarsdice.websocket.OutboundQueue;
+import com.example.liarsdice.websocket.OutboundQueues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fan-out of one game update to every session watching the game, through
+ * {@code GameWebSocketHandler.broadcastToRoom}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+	@Param({"6", "60"})
+	private int sessions;
+
+	private GameWebSocketHandler handler;
+	private GameStateResponse gameState;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		// Sends drain on the calling thread, so the socket write stays inside the measurement
+		handler = new GameWebSocketHandler(objectMapper, mock(GameEngine.class), mock(GameService.class),
+				new ClientCommandReader(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), 1024),
+				new OutboundQueues(Runnable::run, 256, OutboundQueue.OverflowPolicy.DISCONNECT), new LocalBackplane(), mock(GameRouter.class), 64,
+				new SimpleMeterRegistry());
+		for (int i = 0; i < sessions; i++) {
+			handler.afterConnectionEstablished(new BenchmarkWebSocketSession("s" + i, "/ws/game/1"));
+		}
+
+		GameTable table = BenchmarkTables.newTable(6);
+		table.bid(table.getCurrentUserId(), 3, 5);
+		gameState = table.toResponse(null);
+	}
+
+	@Benchmark
+	public void broadcastGameUpdate() {
+		handler.broadcastGameUpdate("1", gameState);
+	}
+}
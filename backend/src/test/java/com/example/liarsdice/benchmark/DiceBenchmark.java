@@ -0,0 +1,85 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.engine.Dice;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packed {@link Dice} hands against the boxed {@code List<Integer>} dice the game
+ * used before: rolling a full table and resolving a challenge on it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiceBenchmark {
+
+	@Param({"2", "6"})
+	private int players;
+
+	private final Random sharedRandom = new Random();
+	private final SplittableRandom tableRandom = new SplittableRandom(7);
+
+	private List<List<Integer>> boxedTable;
+	private long[] packedTable;
+	private int faceValue;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		boxedTable = new ArrayList<>();
+		packedTable = new long[players];
+		for (int i = 0; i < players; i++) {
+			boxedTable.add(rollBoxed(5));
+			packedTable[i] = Dice.roll(5, tableRandom);
+		}
+		faceValue = 4;
+	}
+
+	@Benchmark
+	public void rollTableBoxed(Blackhole blackhole) {
+		for (int i = 0; i < players; i++) {
+			blackhole.consume(rollBoxed(5));
+		}
+	}
+
+	@Benchmark
+	public void rollTablePacked(Blackhole blackhole) {
+		for (int i = 0; i < players; i++) {
+			blackhole.consume(Dice.roll(5, tableRandom));
+		}
+	}
+
+	@Benchmark
+	public int resolveChallengeBoxed() {
+		int count = 0;
+		for (List<Integer> dice : boxedTable) {
+			for (Integer die : dice) {
+				if (die == faceValue) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int resolveChallengePacked() {
+		return Dice.countMatching(packedTable, players, faceValue);
+	}
+
+	private List<Integer> rollBoxed(int count) {
+		List<Integer> dice = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			dice.add(sharedRandom.nextInt(6) + 1);
+		}
+		return dice;
+	}
+}
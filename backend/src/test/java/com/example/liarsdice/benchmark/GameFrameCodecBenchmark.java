@@ -0,0 +1,105 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.engine.GameDelta;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.websocket.GameFrameCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The binary game frames against the JSON game_delta message they replace, for a
+ * bid and for a resolved challenge (which also carries the recipient's hand).
+ * Frame sizes are printed once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameFrameCodecBenchmark {
+
+	@Param({"bid", "challenge"})
+	private String move;
+
+	private GameTable table;
+	private GameDelta delta;
+	private ObjectMapper objectMapper;
+	private byte[] json;
+	private byte[] binary;
+
+	private final GameFrameCodec.FrameVisitor visitor = new GameFrameCodec.FrameVisitor() {
+		private long sink;
+
+		@Override
+		public void bid(long version, int bidder, int quantity, int faceValue, int nextPlayer) {
+			sink += version + bidder + quantity + faceValue + nextPlayer;
+		}
+
+		@Override
+		public void challenge(long version, int challenger, int bidder, int quantity, int faceValue, int actualCount,
+							  int loser, int loserDice, boolean loserEliminated, boolean gameOver) {
+			sink += version + challenger + bidder + quantity + faceValue + actualCount + loser + loserDice;
+		}
+
+		@Override
+		public void turn(long version, int roundNumber, int currentPlayer) {
+			sink += version + roundNumber + currentPlayer;
+		}
+
+		@Override
+		public void hand(long hand) {
+			sink += hand;
+		}
+	};
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		table = BenchmarkTables.newTable(6);
+		table.bid(table.getCurrentUserId(), 30, 6);
+		if ("challenge".equals(move)) {
+			table.challenge(table.getCurrentUserId());
+		}
+		delta = table.lastDelta();
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		json = encodeJson();
+		binary = encodeBinary();
+		System.out.printf("%n%s: json %d bytes, binary %d bytes%n", move, json.length, binary.length);
+	}
+
+	@Benchmark
+	public byte[] encodeJson() throws Exception {
+		Map<String, Object> message = new HashMap<>();
+		message.put("type", "game_delta");
+		message.put("message", "Game state changed");
+		message.put("data", delta);
+		message.put("timestamp", System.currentTimeMillis());
+		if (delta.roundNumber() != null) {
+			message.put("dice", table.diceOf(1L));
+		}
+		return objectMapper.writeValueAsBytes(message);
+	}
+
+	@Benchmark
+	public byte[] encodeBinary() {
+		byte[] frames = GameFrameCodec.encode(table, delta);
+		return delta.roundNumber() != null ? GameFrameCodec.withHand(frames, table.handOf(1L)) : frames;
+	}
+
+	@Benchmark
+	public void decodeJson(Blackhole blackhole) throws Exception {
+		blackhole.consume(objectMapper.readValue(json, Map.class));
+	}
+
+	@Benchmark
+	public void decodeBinary() {
+		GameFrameCodec.decode(ByteBuffer.wrap(binary), visitor);
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.engine.GameTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@link GameStateResponse} every move returns, and serializing it the
+ * way the REST layer does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+
+	@Param({"2", "6"})
+	private int players;
+
+	private GameTable table;
+	private GameStateResponse response;
+	private ObjectMapper objectMapper;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		table = BenchmarkTables.newTable(players);
+		table.bid(table.getCurrentUserId(), 3, 5);
+		response = table.toResponse(1L);
+		// Same module set Spring Boot's HTTP message converters use
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	}
+
+	@Benchmark
+	public GameStateResponse buildResponse() {
+		return table.toResponse(1L);
+	}
+
+	@Benchmark
+	public byte[] serializeResponse() throws Exception {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] buildAndSerializeResponse() throws Exception {
+		return objectMapper.writeValueAsBytes(table.toResponse(1L));
+	}
+}
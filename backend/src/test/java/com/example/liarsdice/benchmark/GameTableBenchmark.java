@@ -0,0 +1,61 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.engine.GameTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rule checks behind {@code GameService.makeMove}: validating a bid against the
+ * standing one, and a full bid + challenge round (count, lose a die, re-roll).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameTableBenchmark {
+
+	@State(Scope.Thread)
+	public static class StandingBid {
+		@Param({"2", "6"})
+		int players;
+
+		GameTable table;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			table = BenchmarkTables.newTable(players);
+			table.bid(table.getCurrentUserId(), 2, 3);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class OpenRound {
+		@Param({"2", "6"})
+		int players;
+
+		GameTable table;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			table = BenchmarkTables.newTable(players);
+		}
+	}
+
+	@Benchmark
+	public void validateBid(StandingBid state) {
+		state.table.validateBid(2, 5);
+	}
+
+	@Benchmark
+	public GameTable.ChallengeResult bidAndChallenge(OpenRound state) {
+		if (state.table.isFinished()) {
+			state.table = BenchmarkTables.newTable(state.players);
+		}
+		GameTable table = state.table;
+		// Every challenge clears the bid, so each round opens with the lowest legal bid
+		table.bid(table.getCurrentUserId(), 1, 4);
+		return table.challenge(table.getCurrentUserId());
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.config.JwtPrincipalCache;
+import com.example.liarsdice.config.JwtUtil;
+import com.example.liarsdice.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks the authentication filter runs on every REST request, with and
+ * without a hit in the principal cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+	private JwtPrincipalCache principalCache;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		jwtUtil = new JwtUtil("mySecretKey123456789012345678901234567890", 86400000);
+		User user = new User("benchmark", "benchmark@example.com", "hash");
+		token = jwtUtil.generateToken(user);
+		principalCache = new JwtPrincipalCache(300, 10000);
+		principalCache.put(token, user, jwtUtil.extractExpiration(token));
+	}
+
+	@Benchmark
+	public boolean validateJwtToken() {
+		return jwtUtil.validateJwtToken(token);
+	}
+
+	@Benchmark
+	public String validateAndExtractUsername() {
+		return jwtUtil.validateJwtToken(token) ? jwtUtil.extractUsername(token) : null;
+	}
+
+	@Benchmark
+	public UserDetails cachedPrincipal() {
+		return principalCache.get(token);
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.liarsdice.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game move inserts per second against Postgres, the way Hibernate issues them for
+ * each id strategy: {@code identity} is one INSERT ... RETURNING round trip per row,
+ * {@code pooled} takes ids 50 at a time from a sequence and sends the rows as JDBC
+ * batches, rewritten by the driver into multi-row INSERTs.
+ * <p>
+ * Runs against an embedded Postgres unless {@code -Dbenchmark.jdbc.url} (with
+ * {@code .user} and {@code .password}) points it at a real one. Works on its own
+ * scratch table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+// Round trips to the database are noisy, so this one measures for longer than the rest
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@OperationsPerInvocation(MoveInsertBenchmark.ROWS)
+public class MoveInsertBenchmark {
+
+	static final int ROWS = 500;
+	private static final int ALLOCATION_SIZE = 50;
+
+	@Param({"identity", "pooled"})
+	private String ids;
+
+	private EmbeddedPostgres postgres;
+	private Connection connection;
+	private PreparedStatement insert;
+	private PreparedStatement nextBlock;
+	private long nextId;
+	private long blockEnd;
+
+	@Setup
+	public void setUp() throws SQLException, IOException {
+		String url = System.getProperty("benchmark.jdbc.url");
+		if (url != null) {
+			connection = DriverManager.getConnection(url, System.getProperty("benchmark.jdbc.user"),
+					System.getProperty("benchmark.jdbc.password"));
+		} else {
+			postgres = EmbeddedPostgres.builder().start();
+			connection = DriverManager.getConnection(
+					postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS bench_game_moves");
+			statement.execute("DROP SEQUENCE IF EXISTS bench_game_moves_pooled_seq");
+			statement.execute("CREATE TABLE bench_game_moves (id BIGSERIAL PRIMARY KEY, game_id BIGINT, player_id BIGINT, "
+					+ "move_type VARCHAR(20) NOT NULL, bid_quantity INTEGER, bid_face_value INTEGER, created_at TIMESTAMP)");
+			statement.execute("CREATE SEQUENCE bench_game_moves_pooled_seq INCREMENT BY " + ALLOCATION_SIZE);
+		}
+		connection.setAutoCommit(false);
+
+		if (ids.equals("identity")) {
+			insert = connection.prepareStatement("INSERT INTO bench_game_moves (game_id, player_id, move_type, "
+					+ "bid_quantity, bid_face_value, created_at) VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+		} else {
+			insert = connection.prepareStatement("INSERT INTO bench_game_moves (game_id, player_id, move_type, "
+					+ "bid_quantity, bid_face_value, created_at, id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+			nextBlock = connection.prepareStatement("SELECT nextval('bench_game_moves_pooled_seq')");
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException, IOException {
+		if (connection != null) {
+			connection.rollback();
+			connection.setAutoCommit(true);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("DROP TABLE IF EXISTS bench_game_moves");
+				statement.execute("DROP SEQUENCE IF EXISTS bench_game_moves_pooled_seq");
+			}
+			connection.close();
+		}
+		if (postgres != null) {
+			postgres.close();
+		}
+	}
+
+	// One write-behind flush worth of moves
+	@Benchmark
+	public long flushMoves() throws SQLException {
+		long sum = 0;
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		for (int i = 0; i < ROWS; i++) {
+			insert.setLong(1, 1);
+			insert.setLong(2, 1 + i % 6);
+			insert.setString(3, "BID");
+			insert.setInt(4, 1 + i % 30);
+			insert.setInt(5, 1 + i % 6);
+			insert.setTimestamp(6, now);
+			if (nextBlock == null) {
+				insert.executeUpdate();
+				try (ResultSet keys = insert.getGeneratedKeys()) {
+					keys.next();
+					sum += keys.getLong(1);
+				}
+			} else {
+				long id = nextId();
+				insert.setLong(7, id);
+				insert.addBatch();
+				sum += id;
+				if ((i + 1) % ALLOCATION_SIZE == 0) {
+					insert.executeBatch();
+				}
+			}
+		}
+		if (nextBlock != null) {
+			insert.executeBatch();
+		}
+		connection.commit();
+		return sum;
+	}
+
+	// Hibernate's pooled optimizer: each nextval is the top of a block of ALLOCATION_SIZE ids
+	private long nextId() throws SQLException {
+		if (nextId >= blockEnd) {
+			try (ResultSet rs = nextBlock.executeQuery()) {
+				rs.next();
+				blockEnd = rs.getLong(1) + 1;
+				nextId = blockEnd - ALLOCATION_SIZE;
+			}
+		}
+		return nextId++;
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.odds.MonteCarloOdds;
+import com.example.liarsdice.odds.OddsRule;
+import com.example.liarsdice.odds.OddsTables;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of rating a bid, sampled so the percentiles show: an exact table lookup, and
+ * a cold simulation of a variant rule, which is what the odds pool spends on each new
+ * key while its askers are answered from the tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OddsBenchmark {
+
+	@Param({"20000"})
+	public int trials;
+
+	private final int[] hands = {5, 5, 5, 4, 3};
+	private OddsTables tables;
+	private ForkJoinPool pool;
+	private MonteCarloOdds monteCarlo;
+
+	@Setup
+	public void setUp() {
+		tables = new OddsTables();
+		pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		monteCarlo = new MonteCarloOdds(pool);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public double exactTable() {
+		return tables.atLeast(1.0 / 6, 22, ThreadLocalRandom.current().nextInt(1, 12));
+	}
+
+	@Benchmark
+	public double simulateVariant() {
+		return monteCarlo.chance(OddsRule.STRAIGHTS_VOID, 4, ThreadLocalRandom.current().nextInt(1, 12), hands,
+				trials, ThreadLocalRandom.current().nextLong());
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.dto.response.ReplayFrame;
+import com.example.liarsdice.engine.GameEvent;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.replay.GameReplay;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scrubbing through a long finished game: packing its event log once, then seeking to
+ * random moves, which is what each replay request costs once the game is cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+
+	private List<GameEvent.Logged> log;
+	private GameReplay replay;
+
+	@Setup
+	public void setUp() {
+		// Six players with five dice each and long bidding rounds: a few hundred moves
+		GameTable table = BenchmarkTables.newTable(6);
+		log = new ArrayList<>(table.lastEvents());
+		SplittableRandom random = new SplittableRandom(3);
+		int bids = 0;
+		while (!table.isFinished()) {
+			Long current = table.getCurrentUserId();
+			int diceInPlay = table.toResponse(null).getPlayers().stream()
+					.mapToInt(player -> player.getDiceCount()).sum();
+			if (bids >= Math.min(10, diceInPlay) || (bids > 0 && random.nextInt(12) == 0)) {
+				table.challenge(current);
+				bids = 0;
+			} else {
+				table.bid(current, ++bids, random.nextInt(1, 7));
+			}
+			log.addAll(table.lastEvents());
+		}
+		replay = GameReplay.of(1L, log);
+	}
+
+	@Benchmark
+	public GameReplay pack() {
+		return GameReplay.of(1L, log);
+	}
+
+	@Benchmark
+	public ReplayFrame seek() {
+		return replay.frameAt(ThreadLocalRandom.current().nextInt(replay.moveCount() + 1));
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.dto.response.RoomResponse;
+import com.example.liarsdice.lobby.LobbyIndex;
+import com.example.liarsdice.lobby.RoomChangedEvent;
+import com.example.liarsdice.repository.RoomRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Room name search through the lobby's trigram index as the number of active rooms
+ * grows. A selective query should cost about the same at every size; a common one
+ * grows with the number of matches it has to rank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomSearchBenchmark {
+
+	private static final String[] WORDS = {"dice", "liars", "friday", "night", "casual", "pro", "table",
+			"bluff", "pirates", "tavern", "quick", "ranked"};
+
+	@Param({"1000", "100000"})
+	private int rooms;
+
+	private LobbyIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new LobbyIndex(mock(RoomRepository.class), mock(PlatformTransactionManager.class),
+				Jackson2ObjectMapperBuilder.json().build());
+		Random random = new Random(42);
+		for (long id = 1; id <= rooms; id++) {
+			RoomResponse room = new RoomResponse();
+			room.setId(id);
+			room.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id);
+			room.setCurrentPlayers(1);
+			room.setMaxPlayers(6);
+			room.setActive(true);
+			room.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(id));
+			index.onRoomChanged(RoomChangedEvent.updated(room));
+		}
+	}
+
+	@Benchmark
+	public List<RoomResponse> selective() {
+		return index.search("bluff tavern 77", null, 20).items();
+	}
+
+	@Benchmark
+	public List<RoomResponse> common() {
+		return index.search("pirates", null, 20).items();
+	}
+}
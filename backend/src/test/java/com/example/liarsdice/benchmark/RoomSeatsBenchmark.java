@@ -0,0 +1,39 @@
+package com.example.liarsdice.benchmark;
+
+import com.example.liarsdice.lobby.RoomSeats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joins and leaves hammering a single six-seat room from many threads at once, as
+ * when a popular room opens. Each operation is one compare-and-set on the room's seats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class RoomSeatsBenchmark {
+
+	private RoomSeats.Seats seats;
+
+	@Setup
+	public void setUp() {
+		seats = new RoomSeats().of(1L, 6, 0, List::of);
+	}
+
+	@Benchmark
+	public RoomSeats.Reservation joinAndLeave() {
+		long userId = ThreadLocalRandom.current().nextLong(500);
+		RoomSeats.Reservation reservation = seats.reserve(userId);
+		if (reservation == RoomSeats.Reservation.RESERVED) {
+			seats.release(userId);
+		}
+		return reservation;
+	}
+}
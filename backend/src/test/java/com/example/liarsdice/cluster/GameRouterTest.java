@@ -0,0 +1,47 @@
+package com.example.liarsdice.cluster;
+
+import com.example.liarsdice.engine.GameEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameRouterTest {
+
+	private GameRouter router;
+
+	@BeforeEach
+	void setUp() {
+		ClusterMembership membership = mock(ClusterMembership.class);
+		when(membership.getNodeId()).thenReturn("here");
+		when(membership.ownerOf(7L)).thenReturn("elsewhere");
+		router = new GameRouter(membership, mock(GameEngine.class), new ObjectMapper(), true, "s3cret", 1000);
+	}
+
+	@Test
+	void forwardsAnotherNodesGame() {
+		assertTrue(router.shouldForward(7L, new MockHttpServletRequest("GET", "/games/7")));
+	}
+
+	@Test
+	void forwardedHeaderAloneDoesNotKeepTheGameHere() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games/7");
+		request.addHeader(GameRouter.FORWARDED_HEADER, "elsewhere");
+		assertTrue(router.shouldForward(7L, request));
+
+		request.addHeader(GameRouter.SECRET_HEADER, "guess");
+		assertTrue(router.shouldForward(7L, request));
+	}
+
+	@Test
+	void servesWhatAnotherNodeForwarded() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games/7");
+		request.addHeader(GameRouter.FORWARDED_HEADER, "elsewhere");
+		request.addHeader(GameRouter.SECRET_HEADER, "s3cret");
+		assertFalse(router.shouldForward(7L, request));
+	}
+}
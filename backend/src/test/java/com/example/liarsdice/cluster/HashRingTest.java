@@ -0,0 +1,57 @@
+package com.example.liarsdice.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+	private static final int GAMES = 30_000;
+
+	@Test
+	void spreadsGamesEvenly() {
+		HashRing ring = new HashRing(List.of("a", "b", "c"), 128);
+		Map<String, Integer> owned = new HashMap<>();
+		for (long gameId = 1; gameId <= GAMES; gameId++) {
+			owned.merge(ring.ownerOf(gameId), 1, Integer::sum);
+		}
+
+		for (String node : List.of("a", "b", "c")) {
+			int share = owned.get(node);
+			assertTrue(Math.abs(share - GAMES / 3) < GAMES / 10, node + " owns " + share);
+		}
+	}
+
+	@Test
+	void joiningNodeOnlyTakesGamesForItself() {
+		HashRing before = new HashRing(List.of("a", "b", "c"), 128);
+		HashRing after = new HashRing(List.of("a", "b", "c", "d"), 128);
+		int moved = 0;
+		for (long gameId = 1; gameId <= GAMES; gameId++) {
+			String owner = after.ownerOf(gameId);
+			if (!owner.equals(before.ownerOf(gameId))) {
+				assertEquals("d", owner);
+				moved++;
+			}
+		}
+		assertTrue(moved > GAMES / 6 && moved < GAMES / 3, moved + " games moved");
+	}
+
+	@Test
+	void leavingNodesGamesGoToTheOthers() {
+		HashRing ring = new HashRing(List.of("a", "b", "c"), 128);
+		HashRing without = ring.without("b");
+		for (long gameId = 1; gameId <= 1000; gameId++) {
+			if (!ring.ownerOf(gameId).equals("b")) {
+				assertEquals(ring.ownerOf(gameId), without.ownerOf(gameId));
+			} else {
+				assertNotEquals("b", without.ownerOf(gameId));
+			}
+		}
+		assertNull(new HashRing(List.of(), 128).ownerOf(1));
+	}
+}
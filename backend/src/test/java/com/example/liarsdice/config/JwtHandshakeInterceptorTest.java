@@ -0,0 +1,59 @@
+package com.example.liarsdice.config;
+
+import com.example.liarsdice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtHandshakeInterceptorTest {
+
+	private final JwtUtil jwtUtil = new JwtUtil("mySecretKey123456789012345678901234567890", 86400000);
+	private final JwtHandshakeInterceptor interceptor = new JwtHandshakeInterceptor();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(interceptor, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(interceptor, "principalCache", new JwtPrincipalCache(60, 10, Clock.systemUTC()));
+	}
+
+	@Test
+	void requiringATokenRefusesSpectators() throws Exception {
+		HandshakeInterceptor lobby = interceptor.requiringToken();
+		MockHttpServletResponse refused = new MockHttpServletResponse();
+
+		assertFalse(handshake(lobby, "/ws/lobby", refused, new HashMap<>()));
+		assertEquals(HttpStatus.UNAUTHORIZED.value(), refused.getStatus());
+		assertFalse(handshake(lobby, "/ws/lobby?token=forged", new MockHttpServletResponse(), new HashMap<>()));
+		// Game sockets still let spectators in
+		assertTrue(handshake(interceptor, "/ws/game/1", new MockHttpServletResponse(), new HashMap<>()));
+
+		Map<String, Object> attributes = new HashMap<>();
+		String token = jwtUtil.generateToken(new User("alice", "alice@example.com", "hash"));
+		assertTrue(handshake(lobby, "/ws/lobby?token=" + token, new MockHttpServletResponse(), attributes));
+		assertEquals("alice", attributes.get(JwtHandshakeInterceptor.USERNAME_ATTRIBUTE));
+	}
+
+	private boolean handshake(HandshakeInterceptor handshake, String uri, MockHttpServletResponse response,
+							  Map<String, Object> attributes) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri.split("\\?")[0]);
+		if (uri.contains("?")) {
+			request.setQueryString(uri.substring(uri.indexOf('?') + 1));
+		}
+		return handshake.beforeHandshake(new ServletServerHttpRequest(request), new ServletServerHttpResponse(response),
+				mock(WebSocketHandler.class), attributes);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.liarsdice.config;
+
+import com.example.liarsdice.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtPrincipalCacheTest {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private JwtPrincipalCache cacheAt(Instant instant, int maxEntries) {
+		return new JwtPrincipalCache(60, maxEntries, Clock.fixed(instant, ZoneOffset.UTC));
+	}
+
+	@Test
+	void entriesExpireWithTheTtlOrTheTokenWhicheverIsFirst() {
+		User alice = new User("alice", "alice@example.com", "hash");
+		JwtPrincipalCache cache = cacheAt(NOW, 10);
+		cache.put("long-lived", alice, Date.from(NOW.plus(Duration.ofHours(1))));
+		cache.put("expiring", alice, Date.from(NOW.plusSeconds(10)));
+		assertSame(alice, cache.get("long-lived"));
+
+		JwtPrincipalCache later = new JwtPrincipalCache(60, 10, Clock.offset(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(30)));
+		later.put("expiring", alice, Date.from(NOW.plusSeconds(10)));
+		assertNull(later.get("expiring"));
+	}
+
+	@Test
+	void invalidatingAUserDropsAllOfTheirTokens() {
+		JwtPrincipalCache cache = cacheAt(NOW, 10);
+		Date expiration = Date.from(NOW.plus(Duration.ofHours(1)));
+		cache.put("a1", new User("alice", "alice@example.com", "hash"), expiration);
+		cache.put("a2", new User("alice", "alice@example.com", "hash"), expiration);
+		cache.put("b1", new User("bob", "bob@example.com", "hash"), expiration);
+
+		cache.invalidateUser("alice");
+
+		assertNull(cache.get("a1"));
+		assertNull(cache.get("a2"));
+		assertNotNull(cache.get("b1"));
+	}
+
+	@Test
+	void invalidatingInsideATransactionDropsTokensCachedBeforeItCommits() {
+		JwtPrincipalCache cache = cacheAt(NOW, 10);
+		Date expiration = Date.from(NOW.plus(Duration.ofHours(1)));
+		User before = new User("alice", "alice@example.com", "hash");
+		cache.put("a1", before, expiration);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.invalidateUser("alice");
+			assertNull(cache.get("a1"));
+			// A concurrent request reloads the row the transaction hasn't committed yet
+			cache.put("a1", before, expiration);
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertNull(cache.get("a1"));
+	}
+
+	@Test
+	void staysWithinItsBound() {
+		JwtPrincipalCache cache = cacheAt(NOW, 20);
+		Date expiration = Date.from(NOW.plus(Duration.ofHours(1)));
+		for (int i = 0; i < 100; i++) {
+			cache.put("token" + i, new User("user" + i, "user" + i + "@example.com", "hash"), expiration);
+		}
+		assertTrue(cache.size() <= 20);
+	}
+}
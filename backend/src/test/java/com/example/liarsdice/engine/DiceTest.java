@@ -0,0 +1,35 @@
+package com.example.liarsdice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiceTest {
+
+	@Test
+	void rolledHandHoldsRequestedDice() {
+		SplittableRandom random = new SplittableRandom(1);
+		for (int count = 0; count <= 5; count++) {
+			long hand = Dice.roll(count, random);
+			assertEquals(count, Dice.size(hand));
+			assertEquals(count, Dice.toList(hand).size());
+		}
+	}
+
+	@Test
+	void countMatchingAddsFacesAcrossHands() {
+		// faces 1,1,3 and 3,6
+		long first = (2L) | (1L << 16);
+		long second = (1L << 16) | (1L << 40);
+		long[] hands = {first, second, 0};
+
+		assertEquals(2, Dice.countMatching(hands, 3, 1));
+		assertEquals(2, Dice.countMatching(hands, 3, 3));
+		assertEquals(1, Dice.countMatching(hands, 3, 6));
+		assertEquals(0, Dice.countMatching(hands, 3, 4));
+		assertEquals(List.of(1, 1, 3), Dice.toList(first));
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.liarsdice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMailboxTest {
+
+	@Test
+	void commandsRunOneAtATimeInSubmissionOrder() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			GameMailbox mailbox = new GameMailbox(executor, 4);
+			List<Integer> applied = new ArrayList<>();
+			int[] inFlight = {0};
+
+			List<CompletableFuture<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 10_000; i++) {
+				int value = i;
+				results.add(mailbox.ask(() -> {
+					assertEquals(0, inFlight[0]++);
+					applied.add(value);
+					inFlight[0]--;
+					return value;
+				}));
+			}
+			CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+			assertEquals(10_000, applied.size());
+			for (int i = 0; i < applied.size(); i++) {
+				assertEquals(i, applied.get(i));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void failedCommandCompletesExceptionallyAndMailboxKeepsRunning() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			GameMailbox mailbox = new GameMailbox(executor, 64);
+
+			CompletableFuture<Object> failed = mailbox.ask(() -> {
+				throw new IllegalStateException("boom");
+			});
+			CompletableFuture<String> next = mailbox.ask(() -> "ok");
+
+			assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+			assertEquals("ok", next.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
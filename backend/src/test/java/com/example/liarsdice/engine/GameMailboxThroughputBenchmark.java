@@ -0,0 +1,88 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Moves/sec through per-game mailboxes as the number of concurrent games grows.
+ * Each game gets one client thread that plays bid/challenge rounds back to back,
+ * like a table full of players waiting on each other's turns.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.liarsdice.engine.GameMailboxThroughputBenchmark}.
+ */
+public class GameMailboxThroughputBenchmark {
+
+	private static final int MOVES_PER_GAME = 20_000;
+
+	public static void main(String[] args) throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		ForkJoinPool workers = new ForkJoinPool(cores, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
+		System.out.printf("%-8s %14s%n", "games", "moves/sec");
+		for (int games = 1; games <= cores * 8; games *= 2) {
+			run(workers, games); // warm-up
+			double movesPerSecond = run(workers, games);
+			System.out.printf("%-8d %,14.0f%n", games, movesPerSecond);
+		}
+		workers.shutdown();
+	}
+
+	private static double run(ForkJoinPool workers, int games) throws Exception {
+		List<Thread> clients = new ArrayList<>();
+		for (int g = 0; g < games; g++) {
+			GameMailbox mailbox = new GameMailbox(workers, 64);
+			long gameId = g;
+			clients.add(new Thread(() -> play(mailbox, gameId)));
+		}
+
+		long start = System.nanoTime();
+		clients.forEach(Thread::start);
+		for (Thread client : clients) {
+			client.join();
+		}
+		long elapsed = System.nanoTime() - start;
+		return (double) games * MOVES_PER_GAME / (elapsed / 1_000_000_000.0);
+	}
+
+	private static void play(GameMailbox mailbox, long gameId) {
+		GameTable[] table = {newTable(gameId)};
+		boolean[] bidNext = {true};
+		int moves = 0;
+		while (moves < MOVES_PER_GAME) {
+			CompletableFuture<GameStateResponse> move = mailbox.ask(() -> {
+				GameTable t = table[0];
+				if (t.isFinished()) {
+					table[0] = newTable(gameId);
+					bidNext[0] = true;
+					return null;
+				}
+				Long userId = t.getCurrentUserId();
+				if (bidNext[0]) {
+					t.bid(userId, 1, 2);
+				} else {
+					t.challenge(userId);
+				}
+				bidNext[0] = !bidNext[0];
+				// makeMove answers every move with the mover's view of the table
+				return t.toResponse(userId);
+			});
+			if (move.join() != null) {
+				moves++;
+			}
+		}
+	}
+
+	private static GameTable newTable(long gameId) {
+		List<GameTable.Seat> seats = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			seats.add(new GameTable.Seat((long) i, (long) i, "u" + i, i, 5));
+		}
+		return new GameTable(gameId, gameId, seats, 1, 0, new SplittableRandom(gameId));
+	}
+}
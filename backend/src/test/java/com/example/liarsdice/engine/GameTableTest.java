@@ -0,0 +1,125 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.exception.GameException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTableTest {
+
+	private GameTable newTable(int players, int dicePerPlayer) {
+		List<GameTable.Seat> seats = new ArrayList<>();
+		for (int i = 0; i < players; i++) {
+			seats.add(new GameTable.Seat((long) (100 + i), (long) (i + 1), "player" + (i + 1), i + 1, dicePerPlayer));
+		}
+		return new GameTable(1L, 1L, seats, 1, 0, new SplittableRandom(42));
+	}
+
+	@Test
+	void bidAdvancesTurnAndMustRaise() {
+		GameTable table = newTable(3, 5);
+
+		table.bid(1L, 2, 3);
+		assertEquals("player2", table.toResponse(1L).getCurrentPlayerUsername());
+
+		assertThrows(GameException.class, () -> table.bid(2L, 2, 3));
+		assertThrows(GameException.class, () -> table.bid(2L, 1, 6));
+		table.bid(2L, 2, 4);
+		table.bid(3L, 3, 1);
+		assertEquals(3, table.toResponse(1L).getLastMove().getBidQuantity());
+	}
+
+	@Test
+	void rejectsMovesOutOfTurn() {
+		GameTable table = newTable(2, 5);
+
+		assertThrows(GameException.class, () -> table.bid(2L, 1, 1));
+		assertThrows(GameException.class, () -> table.challenge(1L));
+	}
+
+	@Test
+	void challengeCostsLoserADieAndStartsNextRound() {
+		GameTable table = newTable(2, 5);
+
+		// Ten dice can never show eleven of a face, so the bidder always loses
+		table.bid(1L, 10, 6);
+		GameTable.ChallengeResult result = table.challenge(2L);
+
+		assertEquals("player1", result.loser());
+		GameStateResponse state = table.toResponse(1L);
+		assertEquals(2, state.getRoundNumber());
+		assertEquals(4, state.getPlayers().get(0).getDiceCount());
+		assertEquals(4, state.getPlayers().get(0).getDice().size());
+		assertNull(state.getPlayers().get(1).getDice());
+		assertEquals("player1", state.getCurrentPlayerUsername());
+	}
+
+	@Test
+	void lastPlayerStandingFinishesTheGame() {
+		GameTable table = newTable(2, 1);
+
+		table.bid(1L, 2, 6);
+		GameTable.ChallengeResult result = table.challenge(2L);
+
+		assertTrue(result.gameOver());
+		assertTrue(table.isFinished());
+		assertEquals("FINISHED", table.toResponse(2L).getStatus());
+		int loserIndex = result.loser().equals("player1") ? 0 : 1;
+		assertEquals(0, table.toTableState().seats().get(loserIndex).diceCount());
+	}
+
+	@Test
+	void rebuildsFromTheEventLogWithOrWithoutASnapshot() throws Exception {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		GameTable table = newTable(3, 2);
+		List<GameEvent.Logged> log = new ArrayList<>(table.lastEvents());
+		TableSnapshot snapshot = null;
+
+		// Bid something impossible and challenge it until the game ends
+		for (int move = 0; !table.isFinished(); move++) {
+			Long current = table.getCurrentUserId();
+			if (move % 2 == 0) {
+				table.bid(current, 1, 1 + move % 6);
+			} else {
+				table.challenge(current);
+			}
+			for (GameEvent.Logged logged : table.lastEvents()) {
+				// Through JSON, as the log stores them
+				GameEvent event = objectMapper.readValue(objectMapper.writeValueAsString(logged.event()), GameEvent.class);
+				log.add(new GameEvent.Logged(logged.gameId(), logged.seq(), event, logged.createdAt()));
+			}
+			if (move == 3) {
+				snapshot = objectMapper.readValue(objectMapper.writeValueAsString(table.snapshot()), TableSnapshot.class);
+			}
+		}
+		assertTrue(log.stream().anyMatch(logged -> logged.event() instanceof GameEvent.PlayerEliminated));
+
+		String expected = objectMapper.writeValueAsString(table.toResponse(1L));
+		GameTable fromStart = GameTable.restore(1L, 1L, null, log, new SplittableRandom());
+		assertEquals(expected, objectMapper.writeValueAsString(fromStart.toResponse(1L)));
+
+		long snapshotSeq = snapshot.seq();
+		List<GameEvent.Logged> tail = log.stream().filter(logged -> logged.seq() > snapshotSeq).toList();
+		GameTable fromSnapshot = GameTable.restore(1L, 1L, snapshot, tail, new SplittableRandom());
+		assertEquals(expected, objectMapper.writeValueAsString(fromSnapshot.toResponse(1L)));
+		assertEquals(table.getVersion(), fromSnapshot.getVersion());
+	}
+
+	@Test
+	void refusesALogWithGaps() {
+		GameTable table = newTable(2, 5);
+		List<GameEvent.Logged> log = new ArrayList<>(table.lastEvents());
+		table.bid(1L, 2, 3);
+		table.bid(2L, 3, 3);
+		log.addAll(table.lastEvents());
+
+		assertThrows(GameException.class, () -> GameTable.restore(1L, 1L, null, log, new SplittableRandom()));
+	}
+}
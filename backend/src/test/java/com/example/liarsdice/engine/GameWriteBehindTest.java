@@ -0,0 +1,62 @@
+package com.example.liarsdice.engine;
+
+import com.example.liarsdice.model.Game;
+import com.example.liarsdice.repository.GameMoveRepository;
+import com.example.liarsdice.repository.GameRepository;
+import com.example.liarsdice.repository.GameSnapshotRepository;
+import com.example.liarsdice.repository.PlayerRepository;
+import com.example.liarsdice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GameWriteBehindTest {
+
+	private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+	@TempDir
+	Path dir;
+
+	private MoveJournal journal;
+	private GameWriteBehind writeBehind;
+
+	@BeforeEach
+	void setUp() {
+		journal = new MoveJournal(dir, 64, TimeUnit.MILLISECONDS.toNanos(1));
+		writeBehind = new GameWriteBehind(mock(GameRepository.class), mock(PlayerRepository.class),
+				mock(GameMoveRepository.class), mock(UserRepository.class), mock(GameSnapshotRepository.class),
+				mock(GameEventLog.class), journal, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+		ReflectionTestUtils.setField(writeBehind, "batchSize", 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		journal.close();
+	}
+
+	@Test
+	void finishedStateWaitsForTheGamesEarlierEvents() {
+		for (int seq = 1; seq <= 3; seq++) {
+			journal.append(List.of(new GameEvent.Logged(7L, seq, new GameEvent.BidPlaced(0, seq, 3), AT)), 42L);
+		}
+		writeBehind.markDirty(new TableState(7L, 3, Game.GameStatus.FINISHED, 1, null, List.of()));
+
+		// Only two of the three events fit the first batch
+		assertEquals(List.of(), writeBehind.flush());
+		assertEquals(1, journal.backlog());
+		assertEquals(List.of(7L), writeBehind.flush());
+		assertEquals(0, writeBehind.pendingCount());
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.liarsdice.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+	private static final long SYNC = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_000);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readsBackWhatWasJournaledUpToATornRecord() throws IOException {
+		MoveJournal journal = new MoveJournal(dir, 4, SYNC);
+		long position = 0;
+		for (int seq = 1; seq <= 9; seq++) {
+			position = journal.append(List.of(new GameEvent.Logged(7L, seq, new GameEvent.BidPlaced(seq % 2, seq, 3), AT)), 42L);
+		}
+		position = journal.append(List.of(
+				new GameEvent.Logged(7L, 10, new GameEvent.Challenged(1, 4), AT),
+				new GameEvent.Logged(7L, 11, new GameEvent.DieLost(0), AT),
+				new GameEvent.Logged(7L, 12, new GameEvent.DiceRolled(2, 0, new long[]{0x0102L, 0x01L}), AT)), 43L);
+		journal.awaitDurable(position);
+		assertEquals(12, position);
+		assertEquals(12, journal.backlog());
+		journal.close();
+
+		MoveJournal reopened = new MoveJournal(dir, 4, SYNC);
+		List<MoveJournal.Entry> recovered = reopened.recovered();
+		assertEquals(12, recovered.size());
+		assertEquals(new GameEvent.Logged(7L, 5, new GameEvent.BidPlaced(1, 5, 3), AT), recovered.get(4).event());
+		assertEquals(42L, recovered.get(4).userId());
+		assertEquals(5, recovered.get(4).toMove().bidQuantity());
+		assertEquals(43L, recovered.get(9).userId());
+		assertNull(recovered.get(10).userId());
+		assertNull(recovered.get(10).toMove());
+		GameEvent.DiceRolled rolled = (GameEvent.DiceRolled) recovered.get(11).event().event();
+		assertEquals(2, rolled.roundNumber());
+		assertArrayEquals(new long[]{0x0102L, 0x01L}, rolled.hands());
+		reopened.close();
+
+		// A write cut short by a crash leaves a record whose checksum doesn't match
+		Path last = segments().get(2);
+		try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+			file.seek(3L * MoveJournal.RECORD_SIZE + 20);
+			file.write(0x55);
+		}
+		MoveJournal torn = new MoveJournal(dir, 4, SYNC);
+		assertEquals(11, torn.recovered().size());
+		assertEquals(11, torn.recovered().get(10).event().seq());
+		torn.discardRecovered();
+		assertEquals(1, segments().size());
+		torn.close();
+	}
+
+	@Test
+	void deletesSegmentsOnceEverythingInThemIsShipped() throws IOException {
+		MoveJournal journal = new MoveJournal(dir, 4, SYNC);
+		for (int seq = 1; seq <= 10; seq++) {
+			journal.append(List.of(new GameEvent.Logged(1L, seq, new GameEvent.DieLost(0), AT)), null);
+		}
+		assertEquals(3, segments().size());
+
+		List<MoveJournal.Entry> first = journal.poll(6);
+		journal.requeue(journal.poll(2));
+		journal.shipped(first);
+		assertEquals(2, segments().size());
+		assertEquals(4, journal.backlog());
+
+		journal.shipped(journal.poll(10));
+		assertEquals(1, segments().size());
+		journal.close();
+		assertEquals(0, segments().size());
+	}
+
+	@Test
+	void commandThatCannotBeJournaledLeavesNothingBehind() throws IOException {
+		MoveJournal journal = new MoveJournal(dir, 4, SYNC);
+		for (int seq = 1; seq <= 3; seq++) {
+			journal.append(List.of(new GameEvent.Logged(1L, seq, new GameEvent.DieLost(0), AT)), null);
+		}
+		// The next segment can't be created, and two records don't fit in what is left of this one
+		Path blocker = Files.createFile(dir.resolve(String.format("%020d.journal", 3)));
+		List<GameEvent.Logged> move = List.of(
+				new GameEvent.Logged(1L, 4, new GameEvent.Challenged(0, 2), AT),
+				new GameEvent.Logged(1L, 5, new GameEvent.DieLost(1), AT));
+		assertThrows(RuntimeException.class, () -> journal.append(move, 42L));
+		assertEquals(3, journal.backlog());
+
+		Files.delete(blocker);
+		assertEquals(5, journal.append(move, 42L));
+		assertEquals(5, journal.backlog());
+		journal.close();
+
+		MoveJournal reopened = new MoveJournal(dir, 4, SYNC);
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+				reopened.recovered().stream().map(entry -> entry.event().seq()).toList());
+		reopened.close();
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.sorted().toList();
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.example.liarsdice.loadtest;
+
+import com.example.liarsdice.dto.request.CreateRoomRequest;
+import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.request.JoinRoomRequest;
+import com.example.liarsdice.dto.request.RegisterRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the backend as a cluster of separate JVMs on this machine and checks two things:
+ * that games in progress keep their exact state, dice included, while their owner
+ * changes as nodes join and leave; and how throughput grows as nodes are added, with
+ * every game's players spread across the nodes. Run by the {@code cluster} Maven profile.
+ * <p>
+ * Usage: {@code ClusterHarness [--nodes=3] [--games=300] [--players=4] [--concurrency=60]
+ * [--max-moves=200]}. Exits with status 1 if a game's state did not survive.
+ */
+public class ClusterHarness {
+
+	private static final int HANDOFF_GAMES = 12;
+	// A few heartbeats, for every node to see a join or leave
+	private static final long SETTLE_MILLIS = 4000;
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = LoadGenerator.parse(args);
+		int nodes = Integer.parseInt(options.getOrDefault("nodes", "3"));
+		int games = Integer.parseInt(options.getOrDefault("games", "300"));
+		int players = Integer.parseInt(options.getOrDefault("players", "4"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "60"));
+		int maxMoves = Integer.parseInt(options.getOrDefault("max-moves", "200"));
+
+		boolean survived;
+		try (LocalCluster cluster = LocalCluster.start()) {
+			System.out.println("Node logs in " + cluster.workDir());
+			survived = checkHandoff(cluster);
+
+			Map<Integer, Double> movesPerSecond = new LinkedHashMap<>();
+			for (int size = 1; size <= nodes; size++) {
+				while (cluster.urls().size() < size) {
+					cluster.addNode();
+				}
+				Thread.sleep(SETTLE_MILLIS);
+				System.out.println();
+				movesPerSecond.put(size, LoadGenerator.run(cluster.urls(), games, players, concurrency, maxMoves, size));
+			}
+
+			System.out.println();
+			System.out.println("nodes    moves/s   vs 1 node");
+			double single = movesPerSecond.get(1);
+			movesPerSecond.forEach((size, rate) -> System.out.printf("%5d %10.1f %10.2fx%n", size, rate, rate / single));
+		}
+		if (!survived) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Starts games on one node, adds a second so some of them change owner, then stops the
+	 * first so the rest do too, comparing every seat's view of every game at each step.
+	 */
+	private static boolean checkHandoff(LocalCluster cluster) throws Exception {
+		LatencyStats stats = new LatencyStats();
+		LoadClient first = new LoadClient(cluster.addNode(), stats);
+		String run = "h" + Long.toString(System.currentTimeMillis(), 36);
+		List<HandoffGame> games = new ArrayList<>();
+		for (int i = 0; i < HANDOFF_GAMES; i++) {
+			HandoffGame game = new HandoffGame(run + "_" + i);
+			game.start(first);
+			game.bid(first);
+			game.bid(first);
+			games.add(game);
+		}
+
+		boolean survived = true;
+		List<Map<String, String>> before = new ArrayList<>();
+		for (HandoffGame game : games) {
+			before.add(game.views(first));
+		}
+		LoadClient second = new LoadClient(cluster.addNode(), stats);
+		Thread.sleep(SETTLE_MILLIS);
+		for (int i = 0; i < games.size(); i++) {
+			survived &= same("after a node joined, seen from the new node", before.get(i), games.get(i).views(second));
+			survived &= same("after a node joined, seen from the old node", before.get(i), games.get(i).views(first));
+			games.get(i).bid(second);
+		}
+
+		before.clear();
+		for (HandoffGame game : games) {
+			before.add(game.views(second));
+		}
+		cluster.stopNode(first.baseUrl());
+		Thread.sleep(SETTLE_MILLIS);
+		for (int i = 0; i < games.size(); i++) {
+			survived &= same("after the old node left", before.get(i), games.get(i).views(second));
+			games.get(i).bid(second);
+		}
+
+		System.out.printf("%d games %s their state through a node joining and one leaving%n",
+				games.size(), survived ? "kept" : "did NOT keep");
+		return survived;
+	}
+
+	private static boolean same(String when, Map<String, String> expected, Map<String, String> actual) {
+		if (expected.equals(actual)) {
+			return true;
+		}
+		System.out.println("State changed " + when + ":");
+		System.out.println("  expected " + expected);
+		System.out.println("  actual   " + actual);
+		return false;
+	}
+
+	/**
+	 * A two-player game that only ever raises the bid, so every hand stays as first rolled.
+	 */
+	private static final class HandoffGame {
+		private final String name;
+		private final List<String> usernames = new ArrayList<>();
+		private final List<String> tokens = new ArrayList<>();
+		private long gameId;
+		private JsonNode state;
+
+		HandoffGame(String name) {
+			this.name = name;
+		}
+
+		void start(LoadClient client) {
+			for (int seat = 0; seat < 2; seat++) {
+				String username = name + "_" + seat;
+				JsonNode auth = client.post("POST /auth/register", "/auth/register", null,
+						new RegisterRequest(username, username + "@handoff.test", "password"));
+				usernames.add(username);
+				tokens.add(auth.path("token").asText());
+			}
+			JsonNode room = client.post("POST /rooms", "/rooms", tokens.get(0), new CreateRoomRequest(name, null, 2));
+			gameId = room.path("gameId").asLong();
+			// The creator takes a seat like anyone else
+			for (String token : tokens) {
+				client.post("POST /rooms/{id}/join", "/rooms/" + room.path("id").asLong() + "/join", token,
+						new JoinRoomRequest());
+			}
+			state = client.post("POST /games/{id}/start", "/games/" + gameId + "/start", tokens.get(0), null);
+		}
+
+		void bid(LoadClient client) {
+			int seat = usernames.indexOf(state.path("currentPlayerUsername").asText());
+			int quantity = state.path("lastMove").path("bidQuantity").asInt(0) + 1;
+			JsonNode next = client.post("POST /games/{id}/move", "/games/" + gameId + "/move", tokens.get(seat),
+					new GameMoveRequest("BID", quantity, 2));
+			if (next.path("version").asLong() != state.path("version").asLong() + 1) {
+				throw new IllegalStateException("Game " + gameId + " went from version "
+						+ state.path("version") + " to " + next.path("version"));
+			}
+			state = next;
+		}
+
+		// What each seat sees, own dice included
+		Map<String, String> views(LoadClient client) {
+			Map<String, String> views = new LinkedHashMap<>();
+			for (int seat = 0; seat < usernames.size(); seat++) {
+				JsonNode view = client.get("GET /games/{id}", "/games/" + gameId, tokens.get(seat));
+				StringBuilder summary = new StringBuilder()
+						.append("v").append(view.path("version").asLong())
+						.append(" turn=").append(view.path("currentPlayerUsername").asText())
+						.append(" bid=").append(view.path("lastMove").path("bidQuantity").asInt());
+				for (JsonNode player : view.path("players")) {
+					summary.append(' ').append(player.path("diceCount").asInt());
+					if (player.has("dice") && !player.path("dice").isNull()) {
+						summary.append(player.path("dice"));
+					}
+				}
+				views.put(usernames.get(seat), summary.toString());
+			}
+			return views;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.liarsdice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One HdrHistogram per endpoint, recorded in microseconds from any thread, with a count
+ * of failed calls alongside.
+ */
+class LatencyStats {
+
+	// Anything slower than a minute is clamped rather than dropped
+	private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+	void record(String name, long startNanos, long endNanos) {
+		long micros = Math.min(HIGHEST_MICROS, Math.max(0, (endNanos - startNanos) / 1000));
+		histograms.computeIfAbsent(name, key -> new ConcurrentHistogram(HIGHEST_MICROS, 3))
+				.recordValue(micros);
+	}
+
+	void error(String name) {
+		errors.computeIfAbsent(name, key -> new LongAdder()).increment();
+	}
+
+	long count(String name) {
+		Histogram histogram = histograms.get(name);
+		return histogram == null ? 0 : histogram.getTotalCount();
+	}
+
+	void print(PrintStream out, double seconds) {
+		out.printf("%-32s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+				"endpoint (ms)", "count", "per sec", "errors", "p50", "p90", "p99", "p99.9", "max");
+		for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+			Histogram histogram = entry.getValue().copy();
+			LongAdder failed = errors.get(entry.getKey());
+			out.printf("%-32s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+					histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+					failed == null ? 0 : failed.sum(),
+					millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+					histogram.getMaxValue() / 1000.0);
+		}
+		for (Map.Entry<String, LongAdder> entry : new TreeMap<>(errors).entrySet()) {
+			if (!histograms.containsKey(entry.getKey())) {
+				out.printf("%-32s %9d %9s %7d%n", entry.getKey(), 0, "-", entry.getValue().sum());
+			}
+		}
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.liarsdice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls the backend's REST API and opens game sockets the way the frontend does, timing
+ * every call into {@link LatencyStats} under its endpoint.
+ */
+class LoadClient {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	private final String baseUrl;
+	private final String socketUrl;
+	private final HttpClient http;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final LatencyStats stats;
+
+	LoadClient(String baseUrl, LatencyStats stats) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.socketUrl = this.baseUrl.replaceFirst("^http", "ws");
+		this.stats = stats;
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(TIMEOUT)
+				.build();
+	}
+
+	/**
+	 * POSTs {@code body} as JSON and returns the response's {@code data}, or throws with
+	 * the server's message if it answered with an error.
+	 */
+	JsonNode post(String endpoint, String path, String token, Object body) {
+		try {
+			return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))), token);
+		} catch (IOException e) {
+			throw new IllegalStateException(endpoint + " failed: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * GETs {@code path} and returns the response's {@code data}, like {@link #post}.
+	 */
+	JsonNode get(String endpoint, String path, String token) {
+		return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), token);
+	}
+
+	String baseUrl() {
+		return baseUrl;
+	}
+
+	private JsonNode send(String endpoint, HttpRequest.Builder request, String token) {
+		try {
+			request.timeout(TIMEOUT);
+			if (token != null) {
+				request.header("Authorization", "Bearer " + token);
+			}
+
+			long start = System.nanoTime();
+			HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+			long end = System.nanoTime();
+
+			JsonNode json = response.body().isEmpty() ? null : objectMapper.readTree(response.body());
+			if (response.statusCode() != 200 || json == null || !json.path("success").asBoolean()) {
+				stats.error(endpoint);
+				throw new IllegalStateException(endpoint + " returned " + response.statusCode()
+						+ (json != null ? ": " + json.path("message").asText() : ""));
+			}
+			stats.record(endpoint, start, end);
+			return json.path("data");
+		} catch (IOException e) {
+			stats.error(endpoint);
+			throw new IllegalStateException(endpoint + " failed: " + e.getMessage(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(endpoint + " interrupted", e);
+		}
+	}
+
+	/**
+	 * Opens {@code /ws/game/{gameId}} as the holder of {@code token}.
+	 */
+	PlayerSocket connect(Long gameId, String token) {
+		String endpoint = "WS /ws/game/{id}";
+		PlayerSocket socket = new PlayerSocket(objectMapper);
+		long start = System.nanoTime();
+		try {
+			WebSocket webSocket = http.newWebSocketBuilder()
+					.connectTimeout(TIMEOUT)
+					.buildAsync(URI.create(socketUrl + "/ws/game/" + gameId + "?token=" + token), socket)
+					.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+			stats.record(endpoint, start, System.nanoTime());
+			socket.open(webSocket);
+			return socket;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(endpoint + " interrupted", e);
+		} catch (Exception e) {
+			stats.error(endpoint);
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			throw new IllegalStateException(endpoint + " failed: " + cause, e);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.example.liarsdice.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load generator: plays many {@link ScriptedGame}s at once through the REST API
+ * and the game WebSocket, then prints throughput and per-endpoint latency percentiles,
+ * including the delay from sending a move to each seat receiving its update. Run by the
+ * {@code loadtest} Maven profile.
+ * <p>
+ * Usage: {@code LoadGenerator [--url=http://host:8080/api] [--games=1000] [--players=4]
+ * [--concurrency=200] [--max-moves=200] [--seed=1]}. Without a url the backend is
+ * started in this JVM against an embedded Postgres. Several comma-separated urls spread
+ * each game's players across those nodes.
+ */
+public class LoadGenerator {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		String url = options.getOrDefault("url", "");
+		int games = Integer.parseInt(options.getOrDefault("games", "1000"));
+		int players = Integer.parseInt(options.getOrDefault("players", "4"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+		int maxMoves = Integer.parseInt(options.getOrDefault("max-moves", "200"));
+		long seed = Long.parseLong(options.getOrDefault("seed", String.valueOf(System.nanoTime())));
+
+		LocalBackend backend = url.isEmpty() ? LocalBackend.start() : null;
+		try {
+			run(backend != null ? List.of(backend.url()) : List.of(url.split(",")), games, players, concurrency,
+					maxMoves, seed);
+		} finally {
+			if (backend != null) {
+				backend.close();
+			}
+		}
+	}
+
+	/**
+	 * Plays the games and prints the results.
+	 *
+	 * @return moves per second
+	 */
+	static double run(List<String> urls, int games, int players, int concurrency, int maxMoves, long seed)
+			throws InterruptedException {
+		System.out.printf("Load against %s: %d games of %d players, %d at a time%n",
+				String.join(", ", urls), games, players, concurrency);
+
+		LatencyStats stats = new LatencyStats();
+		List<LoadClient> clients = new ArrayList<>();
+		for (String url : urls) {
+			clients.add(new LoadClient(url, stats));
+		}
+		// Names stay unique across runs against the same database
+		String run = "l" + Long.toString(System.currentTimeMillis(), 36);
+		SplittableRandom random = new SplittableRandom(seed);
+
+		AtomicInteger finished = new AtomicInteger();
+		AtomicLong moves = new AtomicLong();
+		List<String> failures = new ArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < games; i++) {
+			ScriptedGame game = new ScriptedGame(clients, stats, run + "_" + i, players, maxMoves, random.split());
+			pool.execute(() -> {
+				try {
+					if (game.play()) {
+						finished.incrementAndGet();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (RuntimeException e) {
+					synchronized (failures) {
+						failures.add(e.getMessage());
+					}
+				} finally {
+					moves.addAndGet(game.moves());
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long requests = 0;
+		for (String endpoint : List.of("POST /auth/register", "POST /rooms", "POST /rooms/{id}/join",
+				"POST /games/{id}/start", "POST /games/{id}/move")) {
+			requests += stats.count(endpoint);
+		}
+		System.out.printf("Played %d games (%d to the end, %d failed) and %d moves in %.1f s%n",
+				games, finished.get(), failures.size(), moves.get(), seconds);
+		System.out.printf("Throughput: %.1f games/s, %.1f moves/s, %.1f requests/s%n",
+				finished.get() / seconds, moves.get() / seconds, requests / seconds);
+		System.out.println();
+		stats.print(System.out, seconds);
+		if (!failures.isEmpty()) {
+			System.out.println();
+			System.out.println("First failures:");
+			failures.stream().limit(10).forEach(failure -> System.out.println("  " + failure));
+		}
+		return moves.get() / seconds;
+	}
+
+	static Map<String, String> parse(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value, got " + arg);
+			}
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		return options;
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.liarsdice.loadtest;
+
+import com.example.liarsdice.LiarsDiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The backend started in this JVM on a free port, against a throwaway embedded Postgres
+ * that Flyway migrates from scratch, with a journal in a temporary directory. Logging is
+ * turned down so it doesn't compete with the load for the CPU.
+ */
+class LocalBackend implements AutoCloseable {
+
+	private final EmbeddedPostgres postgres;
+	private final ConfigurableApplicationContext context;
+
+	private LocalBackend(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+		this.postgres = postgres;
+		this.context = context;
+	}
+
+	static LocalBackend start() throws IOException {
+		EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+		try {
+			Path journal = Files.createTempDirectory("liarsdice-load-journal");
+			// As arguments, so they win over application.yml
+			ConfigurableApplicationContext context = new SpringApplicationBuilder(LiarsDiceApplication.class).run(
+					"--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+					"--spring.datasource.username=postgres",
+					"--spring.datasource.password=",
+					"--server.port=0",
+					"--liarsdice.journal.dir=" + journal,
+					"--spring.main.banner-mode=off",
+					"--logging.level.root=WARN",
+					"--logging.level.com.example.liarsdice=WARN",
+					"--logging.level.org.springframework.security=WARN");
+			return new LocalBackend(postgres, context);
+		} catch (RuntimeException e) {
+			postgres.close();
+			throw e;
+		}
+	}
+
+	String url() {
+		return "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+				+ context.getEnvironment().getProperty("server.servlet.context-path", "");
+	}
+
+	@Override
+	public void close() throws IOException {
+		context.close();
+		postgres.close();
+	}
+}
@@ -0,0 +1,150 @@
+package com.example.liarsdice.loadtest;
+
+import com.example.liarsdice.LiarsDiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend nodes in JVMs of their own, sharing one embedded Postgres that this JVM runs.
+ * Nodes join the cluster with the Postgres backplane and leave it with a normal
+ * shutdown, as they would in production. Each node logs to a file of its own.
+ */
+class LocalCluster implements AutoCloseable {
+
+	private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+	private final EmbeddedPostgres postgres;
+	private final Path workDir;
+	private final String secret = UUID.randomUUID().toString();
+	private final List<Node> nodes = new ArrayList<>();
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	private LocalCluster(EmbeddedPostgres postgres, Path workDir) {
+		this.postgres = postgres;
+		this.workDir = workDir;
+	}
+
+	static LocalCluster start() throws IOException {
+		return new LocalCluster(EmbeddedPostgres.builder().start(), Files.createTempDirectory("liarsdice-cluster"));
+	}
+
+	/**
+	 * Starts one more node and waits until it serves requests.
+	 */
+	String addNode() throws IOException, InterruptedException {
+		int index = nodes.size();
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Path journal = Files.createDirectories(workDir.resolve("journal-" + index));
+		Path log = workDir.resolve("node-" + index + ".log");
+		Process process = new ProcessBuilder(
+				Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+				"-Xmx384m",
+				"-cp", System.getProperty("java.class.path"),
+				LiarsDiceApplication.class.getName(),
+				"--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+				"--spring.datasource.username=postgres",
+				"--spring.datasource.password=",
+				"--server.port=" + port,
+				"--liarsdice.journal.dir=" + journal,
+				"--liarsdice.backplane.type=postgres",
+				"--liarsdice.cluster.enabled=true",
+				"--liarsdice.cluster.secret=" + secret,
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--logging.level.com.example.liarsdice=WARN",
+				"--logging.level.com.example.liarsdice.cluster=INFO",
+				"--logging.level.org.springframework.security=WARN")
+				.redirectErrorStream(true)
+				.redirectOutput(log.toFile())
+				.start();
+		Node node = new Node(process, "http://localhost:" + port + "/api", log);
+		nodes.add(node);
+		awaitHealthy(node);
+		return node.url;
+	}
+
+	/**
+	 * Shuts a node down the way a deployment would, letting it hand its games over.
+	 */
+	void stopNode(String url) throws InterruptedException {
+		for (Node node : nodes) {
+			if (node.url.equals(url) && node.process.isAlive()) {
+				node.process.destroy();
+				if (!node.process.waitFor(1, TimeUnit.MINUTES)) {
+					node.process.destroyForcibly();
+				}
+			}
+		}
+	}
+
+	List<String> urls() {
+		List<String> urls = new ArrayList<>();
+		for (Node node : nodes) {
+			if (node.process.isAlive()) {
+				urls.add(node.url);
+			}
+		}
+		return urls;
+	}
+
+	Path workDir() {
+		return workDir;
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (Node node : nodes) {
+			node.process.destroy();
+		}
+		for (Node node : nodes) {
+			try {
+				if (!node.process.waitFor(1, TimeUnit.MINUTES)) {
+					node.process.destroyForcibly();
+				}
+			} catch (InterruptedException e) {
+				node.process.destroyForcibly();
+				Thread.currentThread().interrupt();
+			}
+		}
+		postgres.close();
+	}
+
+	private void awaitHealthy(Node node) throws InterruptedException {
+		long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!node.process.isAlive()) {
+				throw new IllegalStateException("Node at " + node.url + " exited, see " + node.log);
+			}
+			try {
+				HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(node.url + "/actuator/health"))
+						.timeout(Duration.ofSeconds(2)).build(), HttpResponse.BodyHandlers.discarding());
+				if (response.statusCode() == 200) {
+					return;
+				}
+			} catch (IOException e) {
+				// Not listening yet
+			}
+			Thread.sleep(250);
+		}
+		throw new IllegalStateException("Node at " + node.url + " did not start, see " + node.log);
+	}
+
+	private record Node(Process process, String url, Path log) {}
+}
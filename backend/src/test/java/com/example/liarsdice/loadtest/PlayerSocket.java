@@ -0,0 +1,116 @@
+package com.example.liarsdice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One player's game socket. Notes when each table version first arrives, so the time
+ * from sending a move to seeing its update can be read off once the move's version is
+ * known; the update may well arrive before the move's HTTP response does.
+ */
+class PlayerSocket implements WebSocket.Listener {
+
+	private final ObjectMapper objectMapper;
+	private final StringBuilder partial = new StringBuilder();
+	// Arrival time of each version received and not yet awaited
+	private final NavigableMap<Long, Long> arrivals = new TreeMap<>();
+	private WebSocket webSocket;
+	private boolean closed;
+
+	PlayerSocket(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	void open(WebSocket webSocket) {
+		this.webSocket = webSocket;
+	}
+
+	@Override
+	public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+		long now = System.nanoTime();
+		partial.append(data);
+		if (last) {
+			String frame = partial.toString();
+			partial.setLength(0);
+			received(frame, now);
+		}
+		webSocket.request(1);
+		return null;
+	}
+
+	@Override
+	public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+		webSocket.request(1);
+		return null;
+	}
+
+	@Override
+	public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		return null;
+	}
+
+	@Override
+	public void onError(WebSocket webSocket, Throwable error) {
+		onClose(webSocket, WebSocket.NORMAL_CLOSURE, String.valueOf(error));
+	}
+
+	/**
+	 * Waits for the first update at or past {@code version} and returns when it arrived,
+	 * in {@link System#nanoTime()} terms, or -1 if none came within the timeout.
+	 */
+	synchronized long awaitVersion(long version, long timeoutMillis) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		Map.Entry<Long, Long> arrival;
+		while ((arrival = arrivals.ceilingEntry(version)) == null && !closed) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return -1;
+			}
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		if (arrival == null) {
+			return -1;
+		}
+		arrivals.headMap(arrival.getKey(), true).clear();
+		return arrival.getValue();
+	}
+
+	void close() {
+		if (webSocket != null && !webSocket.isOutputClosed()) {
+			webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+		}
+	}
+
+	private void received(String frame, long at) {
+		JsonNode message;
+		try {
+			message = objectMapper.readTree(frame);
+		} catch (IOException e) {
+			return;
+		}
+		String type = message.path("type").asText();
+		if (!"game_delta".equals(type) && !"game_snapshot".equals(type) && !"game_update".equals(type)) {
+			return;
+		}
+		JsonNode version = message.path("data").path("version");
+		if (version.isNumber()) {
+			synchronized (this) {
+				arrivals.putIfAbsent(version.asLong(), at);
+				notifyAll();
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.liarsdice.loadtest;
+
+import com.example.liarsdice.dto.request.CreateRoomRequest;
+import com.example.liarsdice.dto.request.GameMoveRequest;
+import com.example.liarsdice.dto.request.JoinRoomRequest;
+import com.example.liarsdice.dto.request.RegisterRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One synthetic game from sign-up to the last die: every player registers, the first
+ * creates the room and the rest join it, all of them open the game socket, and then
+ * whoever is to move either raises the standing bid by one or, once it reaches a third
+ * of the dice in play, challenges it. Given several backends, the players are spread
+ * across them, so moves and updates cross between nodes.
+ */
+class ScriptedGame {
+
+	static final String MOVE_TO_UPDATE = "move -> WS update";
+
+	private static final long UPDATE_TIMEOUT_MILLIS = 10_000;
+
+	private final List<LoadClient> clients;
+	private final LatencyStats stats;
+	private final String name;
+	private final int players;
+	private final int maxMoves;
+	private final SplittableRandom random;
+	private final int firstClient;
+
+	private final List<String> usernames = new ArrayList<>();
+	private final List<String> tokens = new ArrayList<>();
+	private final List<PlayerSocket> sockets = new ArrayList<>();
+	private int moves;
+
+	ScriptedGame(List<LoadClient> clients, LatencyStats stats, String name, int players, int maxMoves,
+				 SplittableRandom random) {
+		this.clients = clients;
+		this.stats = stats;
+		this.name = name;
+		this.players = players;
+		this.maxMoves = maxMoves;
+		this.random = random;
+		this.firstClient = random.nextInt(clients.size());
+	}
+
+	/**
+	 * Plays the game, returning true if it ran to the end rather than stopping at
+	 * {@code maxMoves}.
+	 */
+	boolean play() throws InterruptedException {
+		try {
+			for (int seat = 0; seat < players; seat++) {
+				String username = name + "_" + seat;
+				JsonNode auth = client(seat).post("POST /auth/register", "/auth/register", null,
+						new RegisterRequest(username, username + "@load.test", "password"));
+				usernames.add(username);
+				tokens.add(auth.path("token").asText());
+			}
+
+			JsonNode room = client(0).post("POST /rooms", "/rooms", tokens.get(0),
+					new CreateRoomRequest(name, null, players));
+			long roomId = room.path("id").asLong();
+			long gameId = room.path("gameId").asLong();
+			for (int seat = 1; seat < players; seat++) {
+				client(seat).post("POST /rooms/{id}/join", "/rooms/" + roomId + "/join", tokens.get(seat), new JoinRoomRequest());
+			}
+			for (int seat = 0; seat < players; seat++) {
+				sockets.add(client(seat).connect(gameId, tokens.get(seat)));
+			}
+
+			JsonNode state = client(0).post("POST /games/{id}/start", "/games/" + gameId + "/start", tokens.get(0), null);
+			while (!finished(state) && moves < maxMoves) {
+				state = move(gameId, state);
+			}
+			return finished(state);
+		} finally {
+			sockets.forEach(PlayerSocket::close);
+		}
+	}
+
+	int moves() {
+		return moves;
+	}
+
+	private LoadClient client(int seat) {
+		return clients.get((firstClient + seat) % clients.size());
+	}
+
+	private static boolean finished(JsonNode state) {
+		return "FINISHED".equals(state.path("status").asText());
+	}
+
+	private JsonNode move(long gameId, JsonNode state) throws InterruptedException {
+		int seat = usernames.indexOf(state.path("currentPlayerUsername").asText());
+		if (seat < 0) {
+			throw new IllegalStateException("Game " + gameId + " is waiting on an unknown player");
+		}
+
+		long start = System.nanoTime();
+		JsonNode next = client(seat).post("POST /games/{id}/move", "/games/" + gameId + "/move", tokens.get(seat),
+				nextMove(state));
+		moves++;
+
+		// Every seat, the mover included, should see the move's version pushed
+		long version = next.path("version").asLong();
+		for (PlayerSocket socket : sockets) {
+			long arrived = socket.awaitVersion(version, UPDATE_TIMEOUT_MILLIS);
+			if (arrived < 0) {
+				stats.error(MOVE_TO_UPDATE);
+			} else {
+				stats.record(MOVE_TO_UPDATE, start, arrived);
+			}
+		}
+		return next;
+	}
+
+	private GameMoveRequest nextMove(JsonNode state) {
+		int diceInPlay = 0;
+		for (JsonNode player : state.path("players")) {
+			diceInPlay += player.path("diceCount").asInt();
+		}
+
+		JsonNode lastMove = state.path("lastMove");
+		if (!"BID".equals(lastMove.path("moveType").asText())) {
+			// Opening a round
+			return new GameMoveRequest("BID", 1, random.nextInt(2, 7));
+		}
+		int quantity = lastMove.path("bidQuantity").asInt();
+		if (quantity >= Math.max(1, diceInPlay / 3) || quantity >= diceInPlay) {
+			return new GameMoveRequest("CHALLENGE");
+		}
+		return new GameMoveRequest("BID", quantity + 1, lastMove.path("bidFaceValue").asInt());
+	}
+}
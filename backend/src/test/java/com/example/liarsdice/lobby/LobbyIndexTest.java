@@ -0,0 +1,118 @@
+package com.example.liarsdice.lobby;
+
+import com.example.liarsdice.dto.request.PageCursor;
+import com.example.liarsdice.dto.response.CursorPage;
+import com.example.liarsdice.dto.response.RoomResponse;
+import com.example.liarsdice.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LobbyIndexTest {
+
+	private final LobbyIndex index = new LobbyIndex(mock(RoomRepository.class), mock(PlatformTransactionManager.class),
+			Jackson2ObjectMapperBuilder.json().build());
+
+	private RoomResponse room(long id, int current, int max, boolean password) {
+		RoomResponse room = new RoomResponse();
+		room.setId(id);
+		room.setName("room" + id);
+		room.setCurrentPlayers(current);
+		room.setMaxPlayers(max);
+		room.setHasPassword(password);
+		room.setActive(true);
+		room.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+		return room;
+	}
+
+	@Test
+	void filtersBySeatsPasswordAndFill() {
+		index.onRoomChanged(RoomChangedEvent.updated(room(1, 1, 6, false)));
+		index.onRoomChanged(RoomChangedEvent.updated(room(2, 5, 6, true)));
+		index.onRoomChanged(RoomChangedEvent.updated(room(3, 4, 4, false)));
+
+		assertEquals(List.of(2L, 1L), ids(index.find(LobbyFilter.AVAILABLE)));
+		assertEquals(List.of(1L), ids(index.find(new LobbyFilter(2, null, null, null))));
+		assertEquals(List.of(2L), ids(index.find(new LobbyFilter(1, true, null, null))));
+		assertEquals(List.of(3L, 2L), ids(index.find(new LobbyFilter(0, null, 50, null))));
+	}
+
+	@Test
+	void snapshotIsReusedUntilARoomChanges() {
+		index.onRoomChanged(RoomChangedEvent.updated(room(1, 1, 6, false)));
+		byte[] first = index.snapshot(LobbyFilter.AVAILABLE, 50).body();
+		assertSame(first, index.snapshot(LobbyFilter.AVAILABLE, 50).body());
+
+		index.onRoomChanged(RoomChangedEvent.removed(1L));
+		byte[] second = index.snapshot(LobbyFilter.AVAILABLE, 50).body();
+		assertNotSame(first, second);
+		assertTrue(new String(second).contains("\"data\":[]"));
+	}
+
+	@Test
+	void searchRanksExactThenPrefixThenWordThenSubstring() {
+		String[] names = {"Friday Dice", "Dice", "Big dice night", "Paradice", "Dicey", "Chess"};
+		for (int i = 0; i < names.length; i++) {
+			RoomResponse room = room(i + 1, 1, 6, false);
+			room.setName(names[i]);
+			index.onRoomChanged(RoomChangedEvent.updated(room));
+		}
+
+		assertEquals(List.of(2L, 5L, 3L, 1L, 4L), ids(search("dice", 10)));
+		assertEquals(List.of(2L, 5L), ids(search("DICE", 2)));
+		assertEquals(List.of(5L, 2L, 3L, 1L, 4L), ids(search("di", 10)));
+		assertTrue(search("dicer", 10).isEmpty());
+
+		index.onRoomChanged(RoomChangedEvent.removed(2L));
+		assertEquals(List.of(5L, 3L, 1L, 4L), ids(search("dice", 10)));
+	}
+
+	@Test
+	void pagesFollowTheCursorNewestFirst() {
+		for (long id = 1; id <= 5; id++) {
+			index.onRoomChanged(RoomChangedEvent.updated(room(id, 1, 6, false)));
+		}
+
+		CursorPage<RoomResponse> first = index.page(LobbyFilter.AVAILABLE, null, 2);
+		assertEquals(List.of(5L, 4L), ids(first.items()));
+		assertEquals(first.nextCursor(), index.snapshot(LobbyFilter.AVAILABLE, 2).nextCursor());
+		CursorPage<RoomResponse> second = index.page(LobbyFilter.AVAILABLE, PageCursor.decode(first.nextCursor()), 2);
+		assertEquals(List.of(3L, 2L), ids(second.items()));
+
+		// A room added meanwhile doesn't shift later pages
+		index.onRoomChanged(RoomChangedEvent.updated(room(6, 1, 6, false)));
+		CursorPage<RoomResponse> third = index.page(LobbyFilter.AVAILABLE, PageCursor.decode(second.nextCursor()), 2);
+		assertEquals(List.of(1L), ids(third.items()));
+		assertNull(third.nextCursor());
+	}
+
+	@Test
+	void searchPagesContinueInRankOrder() {
+		String[] names = {"dice", "dice night", "big dice", "paradice"};
+		for (int i = 0; i < names.length; i++) {
+			RoomResponse room = room(i + 1, 1, 6, false);
+			room.setName(names[i]);
+			index.onRoomChanged(RoomChangedEvent.updated(room));
+		}
+
+		CursorPage<RoomResponse> first = index.search("dice", null, 3);
+		assertEquals(List.of(1L, 2L, 3L), ids(first.items()));
+		CursorPage<RoomResponse> second = index.search("dice", PageCursor.decode(first.nextCursor()), 3);
+		assertEquals(List.of(4L), ids(second.items()));
+		assertNull(second.nextCursor());
+	}
+
+	private List<RoomResponse> search(String query, int limit) {
+		return index.search(query, null, limit).items();
+	}
+
+	private List<Long> ids(List<RoomResponse> rooms) {
+		return rooms.stream().map(RoomResponse::getId).toList();
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.liarsdice.lobby;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomSeatsTest {
+
+	private final RoomSeats roomSeats = new RoomSeats();
+
+	@Test
+	void hundredsOfSimultaneousJoinsFillExactlyTheFreeSeats() throws Exception {
+		RoomSeats.Seats seats = roomSeats.of(1L, 6, 1, () -> List.of(100L));
+		int joiners = 500;
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<RoomSeats.Reservation>> results = new ArrayList<>();
+		for (int i = 0; i < joiners; i++) {
+			// Every user tries twice, so duplicate joins race too
+			long userId = i / 2;
+			results.add(pool.submit(() -> {
+				start.await();
+				return seats.reserve(userId);
+			}));
+		}
+		start.countDown();
+
+		int reserved = 0;
+		for (Future<RoomSeats.Reservation> result : results) {
+			if (result.get() == RoomSeats.Reservation.RESERVED) {
+				reserved++;
+			}
+		}
+		pool.shutdown();
+
+		assertEquals(5, reserved);
+		assertEquals(6, seats.occupied());
+		assertEquals(6, seats.members().size());
+		assertTrue(seats.members().contains(100L));
+	}
+
+	@Test
+	void onlyAMemberCanFreeASeat() {
+		// Two seats counted, one of them by a member not loaded yet
+		RoomSeats.Seats seats = roomSeats.of(1L, 2, 2, () -> Set.of(7L));
+
+		assertEquals(RoomSeats.Reservation.ALREADY_SEATED, seats.reserve(7L));
+		assertEquals(RoomSeats.Reservation.FULL, seats.reserve(8L));
+		for (int i = 0; i < 3; i++) {
+			assertFalse(seats.release(9L));
+		}
+		assertEquals(RoomSeats.Reservation.FULL, seats.reserve(8L));
+		assertTrue(seats.release(7L));
+		assertFalse(seats.release(7L));
+		assertEquals(RoomSeats.Reservation.RESERVED, seats.reserve(8L));
+		assertEquals(2, seats.occupied());
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.liarsdice.odds;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OddsTest {
+
+	@Test
+	void tablesMatchCountingEveryRoll() {
+		OddsTables tables = new OddsTables();
+		// Four unseen dice: count the 6^4 rolls with at least k sixes, and with at least k sixes or ones
+		int[] sixes = new int[5];
+		int[] sixesOrOnes = new int[5];
+		for (int roll = 0; roll < 1296; roll++) {
+			int plain = 0;
+			int wild = 0;
+			for (int die = 0, rest = roll; die < 4; die++, rest /= 6) {
+				int face = rest % 6 + 1;
+				plain += face == 6 ? 1 : 0;
+				wild += face == 6 || face == 1 ? 1 : 0;
+			}
+			for (int k = 0; k <= plain; k++) {
+				sixes[k]++;
+			}
+			for (int k = 0; k <= wild; k++) {
+				sixesOrOnes[k]++;
+			}
+		}
+		for (int k = 0; k <= 4; k++) {
+			assertEquals(sixes[k] / 1296.0, tables.atLeast(OddsRule.STANDARD.dieChance(6), 4, k), 1e-12);
+			assertEquals(sixesOrOnes[k] / 1296.0, tables.atLeast(OddsRule.ONES_WILD.dieChance(6), 4, k), 1e-12);
+		}
+		assertEquals(0.0, tables.atLeast(1.0 / 6, 4, 5));
+		assertEquals(1.0, tables.atLeast(1.0 / 6, 60, 0));
+	}
+
+	@Test
+	void estimatesPastTheTablesContinueThem() {
+		OddsTables tables = new OddsTables();
+		for (int needed = 0; needed <= OddsTables.MAX_DICE + 1; needed++) {
+			assertEquals(tables.atLeast(1.0 / 3, OddsTables.MAX_DICE, needed),
+					tables.estimate(1.0 / 3, OddsTables.MAX_DICE, needed), 1e-12);
+		}
+		// One more die can only make a bid likelier
+		double previous = 1.0;
+		for (int needed = 1; needed <= 30; needed++) {
+			double chance = tables.estimate(1.0 / 6, OddsTables.MAX_DICE + 1, needed);
+			assertTrue(chance >= tables.atLeast(1.0 / 6, OddsTables.MAX_DICE, needed));
+			assertTrue(chance <= previous);
+			previous = chance;
+		}
+		assertEquals(0.5, tables.estimate(0.5, 101, 51), 1e-12);
+		assertThrows(IllegalArgumentException.class, () -> tables.atLeast(1.0 / 6, OddsTables.MAX_DICE + 1, 1));
+	}
+
+	@Test
+	void simulationAgreesWithTheTablesAndRepeatsForASeed() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			MonteCarloOdds monteCarlo = new MonteCarloOdds(pool);
+			int[] hands = {5, 5, 4, 3};
+			double exact = new OddsTables().atLeast(OddsRule.ONES_WILD.dieChance(4), 17, 6);
+			double estimate = monteCarlo.chance(OddsRule.ONES_WILD, 4, 6, hands, 200_000, 1L);
+
+			assertEquals(exact, estimate, 0.005);
+			assertEquals(estimate, monteCarlo.chance(OddsRule.ONES_WILD, 4, 6, hands, 200_000, 1L));
+			// Voided straights only ever take dice away
+			assertTrue(monteCarlo.chance(OddsRule.STRAIGHTS_VOID, 4, 6, hands, 200_000, 1L) < estimate);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void aStraightCountsForNothing() {
+		long straight = 0x0101010101L;
+		long pairOfOnes = 0x0001010102L;
+
+		assertEquals(2, OddsRule.ONES_WILD.count(straight, 4));
+		assertEquals(0, OddsRule.STRAIGHTS_VOID.count(straight, 4));
+		assertEquals(3, OddsRule.STRAIGHTS_VOID.count(pairOfOnes, 4));
+		assertFalse(OddsRule.STRAIGHTS_VOID.isIndependent());
+	}
+}
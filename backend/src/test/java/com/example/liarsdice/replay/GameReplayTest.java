@@ -0,0 +1,97 @@
+package com.example.liarsdice.replay;
+
+import com.example.liarsdice.dto.response.GameStateResponse;
+import com.example.liarsdice.dto.response.ReplayFrame;
+import com.example.liarsdice.engine.GameEvent;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.exception.GameException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameReplayTest {
+
+	@Test
+	void everyFrameMatchesTheTableAsItWasPlayed() {
+		List<GameTable.Seat> seats = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			seats.add(new GameTable.Seat((long) (100 + i), (long) (i + 1), "player" + (i + 1), i + 1, 3));
+		}
+		GameTable table = new GameTable(9L, 1L, seats, 1, 0, new SplittableRandom(7));
+		List<GameEvent.Logged> log = new ArrayList<>(table.lastEvents());
+
+		// The table after every move, and the dice each frame should show
+		List<GameStateResponse> views = new ArrayList<>();
+		List<List<List<Integer>>> revealed = new ArrayList<>();
+		views.add(table.toResponse(1L));
+		revealed.add(diceOf(table));
+		SplittableRandom moves = new SplittableRandom(11);
+		int bids = 0;
+		while (!table.isFinished()) {
+			Long current = table.getCurrentUserId();
+			List<List<Integer>> dice = diceOf(table);
+			if (bids > 0 && (moves.nextInt(3) == 0 || bids == diceInPlay(views.get(views.size() - 1)))) {
+				table.challenge(current);
+				bids = 0;
+			} else {
+				int quantity = bids + 1;
+				table.bid(current, quantity, moves.nextInt(1, 7));
+				bids++;
+			}
+			log.addAll(table.lastEvents());
+			views.add(table.toResponse(1L));
+			revealed.add(bids == 0 ? dice : diceOf(table));
+		}
+
+		GameReplay replay = GameReplay.of(9L, log);
+		assertEquals(views.size() - 1, replay.moveCount());
+		for (int move = 0; move <= replay.moveCount(); move++) {
+			ReplayFrame frame = replay.frameAt(move);
+			GameStateResponse played = views.get(move);
+			assertEquals(move, frame.move());
+			assertEquals(played.getStatus(), frame.status(), "move " + move);
+			assertEquals(played.getCurrentPlayerUsername(), frame.currentPlayerUsername(), "move " + move);
+			if (frame.challenge() == null) {
+				assertEquals(played.getRoundNumber(), frame.roundNumber(), "move " + move);
+			}
+			if (played.getLastMove() != null) {
+				assertEquals(played.getLastMove().getDisplayText(), frame.lastMove().getDisplayText());
+			}
+			for (int seat = 0; seat < 4; seat++) {
+				GameStateResponse.PlayerState player = frame.players().get(seat);
+				assertEquals(played.getPlayers().get(seat).getDiceCount(), player.getDiceCount(), "move " + move);
+				assertEquals(revealed.get(move).get(seat), player.getDice(), "move " + move + " seat " + seat);
+			}
+		}
+
+		ReplayFrame last = replay.frameAt(replay.moveCount());
+		assertTrue(last.challenge().gameOver());
+		assertThrows(GameException.class, () -> replay.frameAt(replay.moveCount() + 1));
+	}
+
+	@Test
+	void refusesAGameThatHasNotFinished() {
+		List<GameTable.Seat> seats = List.of(
+				new GameTable.Seat(100L, 1L, "player1", 1, 5),
+				new GameTable.Seat(101L, 2L, "player2", 2, 5));
+		GameTable table = new GameTable(9L, 1L, seats, 1, 0, new SplittableRandom(7));
+
+		assertThrows(GameException.class, () -> GameReplay.of(9L, table.lastEvents()));
+	}
+
+	private static int diceInPlay(GameStateResponse state) {
+		return state.getPlayers().stream().mapToInt(GameStateResponse.PlayerState::getDiceCount).sum();
+	}
+
+	private static List<List<Integer>> diceOf(GameTable table) {
+		List<List<Integer>> dice = new ArrayList<>();
+		for (long userId = 1; userId <= 4; userId++) {
+			dice.add(table.diceOf(userId));
+		}
+		return dice;
+	}
+}
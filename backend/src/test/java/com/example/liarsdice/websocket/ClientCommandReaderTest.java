@@ -0,0 +1,33 @@
+package com.example.liarsdice.websocket;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientCommandReaderTest {
+
+	private final ClientCommandReader reader = new ClientCommandReader(Jackson2ObjectMapperBuilder.json().build(),
+			Validation.buildDefaultValidatorFactory().getValidator(), 64);
+
+	@Test
+	void readsEachCommandIntoItsType() {
+		assertEquals(new ClientCommand.Bid(3, 5), reader.read("{\"type\":\"bid\",\"quantity\":3,\"faceValue\":5}"));
+		assertInstanceOf(ClientCommand.Challenge.class, reader.read("{\"type\":\"challenge\"}"));
+		assertEquals(new ClientCommand.Chat("hi"), reader.read("{\"type\":\"chat\",\"text\":\"hi\"}"));
+		assertEquals(new ClientCommand.Ack(7L), reader.read("{\"type\":\"ack\",\"version\":7}"));
+	}
+
+	@Test
+	void rejectsCommandsOutsideTheSchema() {
+		IllegalArgumentException badFace = assertThrows(IllegalArgumentException.class,
+				() -> reader.read("{\"type\":\"bid\",\"quantity\":3,\"faceValue\":7}"));
+		assertEquals("Bid face value must be between 1 and 6", badFace.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> reader.read("{\"type\":\"bid\",\"quantity\":3}"));
+		assertThrows(IllegalArgumentException.class, () -> reader.read("{\"type\":\"challenge\",\"extra\":1}"));
+		assertThrows(IllegalArgumentException.class, () -> reader.read("{\"type\":\"shout\"}"));
+		assertThrows(IllegalArgumentException.class, () -> reader.read("not json"));
+		assertTrue(reader.isOversized("x".repeat(65)));
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.engine.GameDelta;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameDeltaLogTest {
+
+	private GameDelta bid(long version, String next, int quantity) {
+		return new GameDelta(version - 1, version, null, null, next,
+				new GameDelta.Bid("someone", quantity, 3), null, null, null);
+	}
+
+	@Test
+	void mergesEverythingAfterTheClientVersion() {
+		GameDeltaLog log = new GameDeltaLog(8);
+		log.append(bid(1, "player2", 1));
+		log.append(bid(2, "player3", 2));
+		log.append(new GameDelta(2, 3, null, 2, "player1", null, Map.of("player3", 4), null, null));
+
+		GameDelta delta = log.since(1);
+		assertEquals(1, delta.fromVersion());
+		assertEquals(3, delta.version());
+		assertEquals(2, delta.roundNumber());
+		assertEquals("player1", delta.currentPlayerUsername());
+		// The round change cleared the bid made before it
+		assertNull(delta.bid());
+		assertEquals(4, delta.diceCounts().get("player3"));
+
+		assertNull(log.since(3));
+	}
+
+	@Test
+	void returnsNullOnceTheClientVersionHasFallenOutOfHistory() {
+		GameDeltaLog log = new GameDeltaLog(2);
+		for (long version = 1; version <= 4; version++) {
+			log.append(bid(version, "player1", (int) version));
+		}
+
+		assertNull(log.since(1));
+		assertEquals(4, log.since(2).bid().quantity());
+	}
+
+	@Test
+	void startsOverAfterAGap() {
+		GameDeltaLog log = new GameDeltaLog(4);
+		for (long version = 1; version <= 3; version++) {
+			log.append(bid(version, "player1", (int) version));
+		}
+		log.append(bid(6, "player2", 6));
+
+		assertNull(log.since(2));
+		assertNull(log.since(4));
+		assertEquals(6, log.since(5).version());
+	}
+}
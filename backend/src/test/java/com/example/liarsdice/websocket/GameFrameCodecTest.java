@@ -0,0 +1,79 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.engine.GameTable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFrameCodecTest {
+
+	private GameTable newTable() {
+		List<GameTable.Seat> seats = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			seats.add(new GameTable.Seat((long) i, (long) i, "player" + i, i, 5));
+		}
+		return new GameTable(1L, 1L, seats, 1, 0, new SplittableRandom(42));
+	}
+
+	@Test
+	void bidIsOneFixedFrame() {
+		GameTable table = newTable();
+		table.bid(1L, 4, 2);
+
+		byte[] frames = GameFrameCodec.encode(table, table.lastDelta());
+
+		assertEquals(GameFrameCodec.BID_SIZE, frames.length);
+		List<String> decoded = decode(frames);
+		assertEquals(List.of("bid 1 0 4 2 1"), decoded);
+	}
+
+	@Test
+	void resolvedChallengeCarriesNextTurnAndOwnHand() {
+		GameTable table = newTable();
+		// Fifteen dice can never show sixteen of a face, so the bidder always loses
+		table.bid(1L, 15, 6);
+		GameTable.ChallengeResult result = table.challenge(2L);
+
+		byte[] shared = GameFrameCodec.encode(table, table.lastDelta());
+		byte[] frames = GameFrameCodec.withHand(shared, table.handOf(1L));
+
+		assertEquals(GameFrameCodec.CHALLENGE_SIZE + GameFrameCodec.TURN_SIZE + GameFrameCodec.HAND_SIZE, frames.length);
+		List<String> decoded = decode(frames);
+		assertEquals("challenge 2 1 0 15 6 " + result.actualCount() + " 0 4 false false", decoded.get(0));
+		assertEquals("turn 2 2 0", decoded.get(1));
+		assertEquals("hand " + table.handOf(1L), decoded.get(2));
+	}
+
+	private List<String> decode(byte[] frames) {
+		List<String> decoded = new ArrayList<>();
+		GameFrameCodec.decode(ByteBuffer.wrap(frames), new GameFrameCodec.FrameVisitor() {
+			@Override
+			public void bid(long version, int bidder, int quantity, int faceValue, int nextPlayer) {
+				decoded.add("bid " + version + " " + bidder + " " + quantity + " " + faceValue + " " + nextPlayer);
+			}
+
+			@Override
+			public void challenge(long version, int challenger, int bidder, int quantity, int faceValue,
+								  int actualCount, int loser, int loserDice, boolean loserEliminated, boolean gameOver) {
+				decoded.add("challenge " + version + " " + challenger + " " + bidder + " " + quantity + " " + faceValue
+						+ " " + actualCount + " " + loser + " " + loserDice + " " + loserEliminated + " " + gameOver);
+			}
+
+			@Override
+			public void turn(long version, int roundNumber, int currentPlayer) {
+				decoded.add("turn " + version + " " + roundNumber + " " + currentPlayer);
+			}
+
+			@Override
+			public void hand(long hand) {
+				decoded.add("hand " + hand);
+			}
+		});
+		return decoded;
+	}
+}
@@ -0,0 +1,208 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.benchmark.BenchmarkWebSocketSession;
+import com.example.liarsdice.backplane.GameUpdate;
+import com.example.liarsdice.backplane.LocalBackplane;
+import com.example.liarsdice.cluster.GameRouter;
+import com.example.liarsdice.config.JwtHandshakeInterceptor;
+import com.example.liarsdice.engine.Dice;
+import com.example.liarsdice.engine.GameEngine;
+import com.example.liarsdice.engine.GameTable;
+import com.example.liarsdice.service.GameService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GameWebSocketHandlerTest {
+
+	private static final int HISTORY = 8;
+
+	private GameWebSocketHandler handler;
+	private GameRouter gameRouter;
+	private SimpleMeterRegistry meterRegistry;
+	private List<BenchmarkWebSocketSession> sessions;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		meterRegistry = new SimpleMeterRegistry();
+		gameRouter = mock(GameRouter.class);
+		handler = new GameWebSocketHandler(objectMapper, mock(GameEngine.class), mock(GameService.class),
+				new ClientCommandReader(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), 1024),
+				new OutboundQueues(Runnable::run, 256, OutboundQueue.OverflowPolicy.DISCONNECT), new LocalBackplane(), gameRouter, HISTORY,
+				meterRegistry);
+		sessions = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			BenchmarkWebSocketSession session = new BenchmarkWebSocketSession("s" + i, "/ws/game/1?version=0");
+			session.getAttributes().put(JwtHandshakeInterceptor.USERNAME_ATTRIBUTE, "player" + i);
+			handler.afterConnectionEstablished(session);
+			sessions.add(session);
+		}
+	}
+
+	@Test
+	void broadcastEncodesOnceForEveryRecipient() {
+		long before = handler.getSerializationCount();
+		long[] received = sessions.stream().mapToLong(BenchmarkWebSocketSession::getMessages).toArray();
+
+		handler.broadcastGameUpdate("1", List.of("state"));
+
+		assertEquals(1, handler.getSerializationCount() - before);
+		for (int i = 0; i < sessions.size(); i++) {
+			assertEquals(received[i] + 1, sessions.get(i).getMessages());
+		}
+	}
+
+	@Test
+	void sessionsOnTheSameVersionShareOneDelta() {
+		GameTable table = table();
+		table.bid(1L, 2, 3);
+		long before = handler.getSerializationCount();
+		DistributionSummary fanOut = meterRegistry.get("liarsdice.websocket.fanout").summary();
+		long broadcasts = fanOut.count();
+		double recipients = fanOut.totalAmount();
+
+		handler.onGameChanged(table, table.lastDelta());
+
+		assertEquals(1, handler.getSerializationCount() - before);
+		assertEquals(broadcasts + 1, fanOut.count());
+		assertEquals(recipients + 4, fanOut.totalAmount());
+	}
+
+	@Test
+	void reconnectingSessionsGetOnlyWhatTheyMissed() throws Exception {
+		GameTable table = table();
+		for (int quantity = 1; quantity <= HISTORY + 2; quantity++) {
+			table.bid(table.getCurrentUserId(), quantity, 3);
+			handler.onGameChanged(table, table.lastDelta());
+		}
+
+		// The welcome, then one merged delta rather than a frame per move
+		assertEquals(2, reconnect("r1", table.getVersion() - 3).getMessages());
+		assertEquals(1, resumes("replayed"));
+		assertEquals(1, reconnect("r2", table.getVersion()).getMessages());
+		assertEquals(1, resumes("current"));
+		// Too far behind for the history to cover
+		assertEquals(2, reconnect("r3", 1).getMessages());
+		assertEquals(1, resumes("snapshot"));
+	}
+
+	@Test
+	void viewIsDroppedWhenItsLastSessionLeaves() throws Exception {
+		GameTable table = table();
+		table.bid(1L, 2, 3);
+		handler.onGameChanged(table, table.lastDelta());
+		assertEquals(1, handler.getViewCount());
+
+		for (BenchmarkWebSocketSession session : sessions.subList(0, 3)) {
+			handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+		}
+		assertEquals(1, handler.getViewCount());
+		handler.afterConnectionClosed(sessions.get(3), CloseStatus.NORMAL);
+		assertEquals(0, handler.getViewCount());
+
+		// Nor is one started for a game nobody here watches
+		table.bid(table.getCurrentUserId(), 3, 3);
+		handler.onGameChanged(table, table.lastDelta());
+		assertEquals(0, handler.getViewCount());
+	}
+
+	@Test
+	void viewIsDroppedWhenTheEngineReleasesTheGame() {
+		GameTable table = table();
+		table.bid(1L, 2, 3);
+		handler.onGameChanged(table, table.lastDelta());
+
+		handler.onGameReleased(1L);
+		assertEquals(0, handler.getViewCount());
+
+		// Watchers still get the game's next change, from a new view
+		long received = sessions.get(0).getMessages();
+		table.bid(table.getCurrentUserId(), 3, 3);
+		handler.onGameChanged(table, table.lastDelta());
+		assertEquals(1, handler.getViewCount());
+		assertEquals(received + 1, sessions.get(0).getMessages());
+	}
+
+	@Test
+	void seatedSessionsGetOnlyTheirOwnDiceWhenARoundStarts() {
+		GameTable table = table();
+		table.bid(1L, 2, 3);
+		handler.onGameChanged(table, table.lastDelta());
+		table.challenge(table.getCurrentUserId());
+		handler.onGameChanged(table, table.lastDelta());
+
+		for (int i = 0; i < sessions.size(); i++) {
+			assertTrue(lastFrame(sessions.get(i)).endsWith(",\"dice\":" + dice(table, i + 1) + "}"));
+		}
+		verify(gameRouter, never()).fetchHands(any(), any());
+	}
+
+	@Test
+	void otherNodesFetchTheirSeatedSessionsHandsOncePerRound() throws Exception {
+		BenchmarkWebSocketSession spectator = new BenchmarkWebSocketSession("s5", "/ws/game/1");
+		spectator.getAttributes().put(JwtHandshakeInterceptor.USERNAME_ATTRIBUTE, "watcher");
+		handler.afterConnectionEstablished(spectator);
+		GameTable table = table();
+		when(gameRouter.fetchHands(eq(1L), any()))
+				.thenAnswer(call -> Optional.of(table.handsOf(call.<Collection<String>>getArgument(1))));
+
+		// Updates from the owner carry no hands, so this node asks for its seats' as each round starts
+		table.bid(1L, 2, 3);
+		handler.onMessage(GameUpdate.of(table, table.lastDelta()));
+		table.bid(table.getCurrentUserId(), 3, 3);
+		handler.onMessage(GameUpdate.of(table, table.lastDelta()));
+		table.challenge(table.getCurrentUserId());
+		handler.onMessage(GameUpdate.of(table, table.lastDelta()));
+
+		verify(gameRouter, times(2)).fetchHands(eq(1L),
+				argThat(usernames -> usernames.size() == 4 && !usernames.contains("watcher")));
+		assertTrue(lastFrame(sessions.get(1)).endsWith(",\"dice\":" + dice(table, 2) + "}"));
+		assertFalse(lastFrame(spectator).contains("\"dice\""));
+	}
+
+	private String lastFrame(BenchmarkWebSocketSession session) {
+		return ((TextMessage) session.getLastMessage()).getPayload();
+	}
+
+	private String dice(GameTable table, long userId) {
+		return Dice.toList(table.handOf(userId)).toString().replace(" ", "");
+	}
+
+	private GameTable table() {
+		List<GameTable.Seat> seats = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			seats.add(new GameTable.Seat((long) i, (long) i, "player" + i, i, 5));
+		}
+		return new GameTable(1L, 1L, seats, 1, 0, new SplittableRandom(7));
+	}
+
+	private BenchmarkWebSocketSession reconnect(String id, long version) throws Exception {
+		BenchmarkWebSocketSession session = new BenchmarkWebSocketSession(id, "/ws/game/1?version=" + version);
+		session.getAttributes().put(JwtHandshakeInterceptor.USERNAME_ATTRIBUTE, "player1");
+		handler.afterConnectionEstablished(session);
+		return session;
+	}
+
+	private double resumes(String outcome) {
+		return meterRegistry.get("liarsdice.websocket.resumes").tag("outcome", outcome).counter().count();
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.benchmark.BenchmarkWebSocketSession;
+import com.example.liarsdice.dto.response.RoomResponse;
+import com.example.liarsdice.lobby.LobbyIndex;
+import com.example.liarsdice.lobby.RoomChangedEvent;
+import com.example.liarsdice.repository.RoomRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LobbyWebSocketHandlerTest {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final LobbyIndex index = new LobbyIndex(mock(RoomRepository.class), mock(PlatformTransactionManager.class),
+			objectMapper);
+	// Flushes are triggered by hand rather than after the window
+	private final LobbyWebSocketHandler handler = new LobbyWebSocketHandler(objectMapper, index,
+			new OutboundQueues(Runnable::run, 16, OutboundQueue.OverflowPolicy.DROP_SUPERSEDED),
+			new ClientCommandReader(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), 1024),
+			mock(ScheduledExecutorService.class), 100, 60_000);
+
+	private RoomResponse room(long id, int current) {
+		RoomResponse room = new RoomResponse();
+		room.setId(id);
+		room.setName("room" + id);
+		room.setCurrentPlayers(current);
+		room.setMaxPlayers(6);
+		room.setActive(true);
+		return room;
+	}
+
+	@Test
+	void burstOfChangesBecomesOneUpdate() throws Exception {
+		List<String> received = new ArrayList<>();
+		BenchmarkWebSocketSession session = new BenchmarkWebSocketSession("s1", "/ws/lobby") {
+			@Override
+			public void sendMessage(WebSocketMessage<?> message) {
+				received.add(message.getPayload().toString());
+			}
+		};
+		index.onRoomChanged(RoomChangedEvent.updated(room(1, 1)));
+		handler.flush();
+		handler.afterConnectionEstablished(session);
+
+		index.onRoomChanged(RoomChangedEvent.updated(room(1, 2)));
+		index.onRoomChanged(RoomChangedEvent.updated(room(1, 3)));
+		index.onRoomChanged(RoomChangedEvent.updated(room(2, 1)));
+		index.onRoomChanged(RoomChangedEvent.removed(2L));
+		handler.flush();
+
+		assertEquals(2, received.size());
+		assertEquals("lobby_snapshot", objectMapper.readTree(received.get(0)).get("type").asText());
+		JsonNode changes = objectMapper.readTree(received.get(1)).get("data").get("changes");
+		assertEquals(1, changes.size());
+		assertEquals("CHANGED", changes.get(0).get("type").asText());
+		assertEquals(3, changes.get(0).get("room").get("currentPlayers").asInt());
+	}
+
+	@Test
+	void onlyAnOccasionalResyncGetsASnapshot() throws Exception {
+		List<Object> received = new ArrayList<>();
+		BenchmarkWebSocketSession first = recording("s1", received);
+		BenchmarkWebSocketSession second = recording("s2", received);
+		index.onRoomChanged(RoomChangedEvent.updated(room(1, 1)));
+		handler.flush();
+		handler.afterConnectionEstablished(first);
+		handler.afterConnectionEstablished(second);
+		// Both were sent the one encoded snapshot
+		assertEquals(2, received.size());
+		assertSame(received.get(0), received.get(1));
+
+		handler.handleMessage(first, new TextMessage("{\"type\":\"ping\"}"));
+		handler.handleMessage(first, new TextMessage("not json"));
+		handler.handleMessage(first, new TextMessage("{\"type\":\"resync\"}"));
+		handler.handleMessage(first, new TextMessage("{\"type\":\"resync\"}"));
+		assertEquals(3, received.size());
+
+		handler.handleMessage(first, new TextMessage("x".repeat(2048)));
+		assertFalse(first.isOpen());
+	}
+
+	private BenchmarkWebSocketSession recording(String id, List<Object> received) {
+		return new BenchmarkWebSocketSession(id, "/ws/lobby") {
+			@Override
+			public void sendMessage(WebSocketMessage<?> message) {
+				received.add(message.getPayload());
+			}
+		};
+	}
+}
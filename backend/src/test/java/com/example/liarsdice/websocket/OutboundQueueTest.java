@@ -0,0 +1,104 @@
+package com.example.liarsdice.websocket;
+
+import com.example.liarsdice.benchmark.BenchmarkWebSocketSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundQueueTest {
+
+	// Holds drain tasks until run, standing in for a client that is not reading
+	private final Queue<Runnable> pending = new ArrayDeque<>();
+	private final BenchmarkWebSocketSession session = new BenchmarkWebSocketSession("s1", "/ws/game/1");
+
+	private void runPending() {
+		Runnable task;
+		while ((task = pending.poll()) != null) {
+			task.run();
+		}
+	}
+
+	@Test
+	void fullQueueDropsSupersededStateUpdates() {
+		OutboundQueue queue = new OutboundQueue(session, pending::add, 3, OutboundQueue.OverflowPolicy.DROP_SUPERSEDED);
+		assertTrue(queue.offer(new TextMessage("chat"), false));
+		assertTrue(queue.offer(new TextMessage("state1"), true));
+		assertTrue(queue.offer(new TextMessage("state2"), true));
+
+		assertTrue(queue.offer(new TextMessage("state3"), true));
+		assertEquals(2, queue.stats().queueDepth());
+		assertEquals(2, queue.stats().dropped());
+		assertTrue(queue.takeStale());
+		assertFalse(queue.takeStale());
+
+		runPending();
+		assertEquals(2, session.getMessages());
+		assertEquals(0, queue.stats().queueDepth());
+		assertTrue(session.isOpen());
+	}
+
+	@Test
+	void concurrentOffersNeverOvershootTheBound() throws Exception {
+		OutboundQueue queue = new OutboundQueue(session, task -> {}, 8, OutboundQueue.OverflowPolicy.DROP_SUPERSEDED);
+		ExecutorService senders = Executors.newFixedThreadPool(4);
+		AtomicInteger deepest = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> offers = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				offers.add(senders.submit(() -> {
+					start.await();
+					for (int i = 0; i < 10_000; i++) {
+						queue.offer(new TextMessage("state"), true);
+						deepest.accumulateAndGet(queue.depth(), Math::max);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> offer : offers) {
+				offer.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			senders.shutdown();
+		}
+		assertTrue(deepest.get() <= 8, "queue reached " + deepest.get());
+	}
+
+	@Test
+	void drainWritesABatchThenYieldsItsSender() {
+		OutboundQueue queue = new OutboundQueue(session, pending::add, 256, OutboundQueue.OverflowPolicy.DROP_SUPERSEDED);
+		for (int i = 0; i < OutboundQueue.DRAIN_BATCH + 10; i++) {
+			queue.offer(new TextMessage("chat"), false);
+		}
+
+		pending.poll().run();
+		assertEquals(OutboundQueue.DRAIN_BATCH, session.getMessages());
+		runPending();
+		assertEquals(OutboundQueue.DRAIN_BATCH + 10, session.getMessages());
+	}
+
+	@Test
+	void fullQueueDisconnectsUnderDisconnectPolicy() {
+		OutboundQueue queue = new OutboundQueue(session, pending::add, 2, OutboundQueue.OverflowPolicy.DISCONNECT);
+		queue.offer(new TextMessage("state1"), true);
+		queue.offer(new TextMessage("state2"), true);
+
+		assertFalse(queue.offer(new TextMessage("state3"), true));
+		runPending();
+		assertFalse(session.isOpen());
+		assertEquals(0, session.getMessages());
+	}
+}